@@ -18,6 +18,8 @@
  */
 package org.aeonium.fxunit;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.Accordion;
@@ -67,12 +69,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertDisabled(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (!node.isDisabled()) {
-      throw new AssertionError(NODE + node + " should be disabled, but is not.");
-    }
+    FXTrace.assertion("assertDisabled", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (!node.isDisabled()) {
+        throw new AssertionError(NODE + node + " should be disabled, but is not.");
+      }
+    });
   }
 
   /**
@@ -83,17 +87,19 @@ public class AssertFX {
    * TextInputControl.
    */
   public static void assertEditable(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (node instanceof TextInputControl) {
-      TextInputControl textInputControl = (TextInputControl) node;
-      if (!textInputControl.isEditable()) {
-        throw new AssertionError(NODE + node + " should be editable, but is not.");
+    FXTrace.assertion("assertEditable", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (node instanceof TextInputControl) {
+        TextInputControl textInputControl = (TextInputControl) node;
+        if (!textInputControl.isEditable()) {
+          throw new AssertionError(NODE + node + " should be editable, but is not.");
+        }
+      } else {
+        throw new AssertionError(NODE + node + " is no descendant of TextInputControl does not have an 'editable' property.");
       }
-    } else {
-      throw new AssertionError(NODE + node + " is no descendant of TextInputControl does not have an 'editable' property.");
-    }
+    });
   }
 
   /**
@@ -103,12 +109,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertEnabled(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (node.isDisabled()) {
-      throw new AssertionError(NODE + node + " should be enabled, but is not.");
-    }
+    FXTrace.assertion("assertEnabled", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (node.isDisabled()) {
+        throw new AssertionError(NODE + node + " should be enabled, but is not.");
+      }
+    });
   }
 
   /**
@@ -119,17 +127,19 @@ public class AssertFX {
    * @param index The index of the titled pane that should be expanded
    */
   public static void assertExpanded(Accordion accordion, int index) {
-    if (accordion == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    final TitledPane expandedPane = accordion.getExpandedPane();
-    if (expandedPane == null) {
-      throw new AssertionError(accordion + " has no pane expanded, but should have expanded pane with index " + index);
-    } else {
-      if (accordion.getPanes().indexOf(expandedPane) != index) {
-        throw new AssertionError(accordion + " should have expanded pane with index #" + index + ", but has expanded #" + accordion.getPanes().indexOf(expandedPane));
+    FXTrace.assertion("assertExpanded", () -> {
+      if (accordion == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      final TitledPane expandedPane = accordion.getExpandedPane();
+      if (expandedPane == null) {
+        throw new AssertionError(accordion + " has no pane expanded, but should have expanded pane with index " + index);
+      } else {
+        if (accordion.getPanes().indexOf(expandedPane) != index) {
+          throw new AssertionError(accordion + " should have expanded pane with index #" + index + ", but has expanded #" + accordion.getPanes().indexOf(expandedPane));
+        }
       }
-    }
+    });
   }
 
   /**
@@ -139,12 +149,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertFocused(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (!node.isFocused()) {
-      throw new AssertionError(NODE + node + " should be focused, but is not.");
-    }
+    FXTrace.assertion("assertFocused", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (!node.isFocused()) {
+        throw new AssertionError(NODE + node + " should be focused, but is not.");
+      }
+    });
   }
 
   /**
@@ -154,17 +166,19 @@ public class AssertFX {
    * @param children
    */
   public static void assertHasChildren(Parent parent, int children) {
-    if (parent == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (children < 0) {
-      throw new IllegalArgumentException("Children count cannot be less than 0");
-    }
-    final int size = parent.getChildrenUnmodifiable().size();
+    FXTrace.assertion("assertHasChildren", () -> {
+      if (parent == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (children < 0) {
+        throw new IllegalArgumentException("Children count cannot be less than 0");
+      }
+      final int size = parent.getChildrenUnmodifiable().size();
 
-    if (size != children) {
-      throw new AssertionError(parent + " should have " + children + " children, but actually has " + size);
-    }
+      if (size != children) {
+        throw new AssertionError(parent + " should have " + children + " children, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -174,20 +188,22 @@ public class AssertFX {
    * @param itemCount The item count, must not be negative
    */
   public static void assertHasItems(ChoiceBox<?> choiceBox, int itemCount) {
-    if (choiceBox == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (itemCount < 0) {
-      throw new IllegalArgumentException("Item count cannot be less than 0");
-    }
-    if (choiceBox.getItems() == null) {
-      throw new AssertionError(choiceBox + " should have " + itemCount + " items, but .getItems() is null");
-    }
-    final int size = choiceBox.getItems().size();
-
-    if (size != itemCount) {
-      throw new AssertionError(choiceBox + " should have " + itemCount + " items, but actually has " + size);
-    }
+    FXTrace.assertion("assertHasItems", () -> {
+      if (choiceBox == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (itemCount < 0) {
+        throw new IllegalArgumentException("Item count cannot be less than 0");
+      }
+      if (choiceBox.getItems() == null) {
+        throw new AssertionError(choiceBox + " should have " + itemCount + " items, but .getItems() is null");
+      }
+      final int size = choiceBox.getItems().size();
+
+      if (size != itemCount) {
+        throw new AssertionError(choiceBox + " should have " + itemCount + " items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -197,20 +213,22 @@ public class AssertFX {
    * @param itemCount The item count, must not be negative
    */
   public static void assertHasItems(ComboBox<?> comboBox, int itemCount) {
-    if (comboBox == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (itemCount < 0) {
-      throw new IllegalArgumentException("Item count cannot be less than 0");
-    }
-    if (comboBox.getItems() == null) {
-      throw new AssertionError(comboBox + " should have " + itemCount + " items, but .getItems() is null");
-    }
-    final int size = comboBox.getItems().size();
-
-    if (size != itemCount) {
-      throw new AssertionError(comboBox + " should have " + itemCount + " items, but actually has " + size);
-    }
+    FXTrace.assertion("assertHasItems", () -> {
+      if (comboBox == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (itemCount < 0) {
+        throw new IllegalArgumentException("Item count cannot be less than 0");
+      }
+      if (comboBox.getItems() == null) {
+        throw new AssertionError(comboBox + " should have " + itemCount + " items, but .getItems() is null");
+      }
+      final int size = comboBox.getItems().size();
+
+      if (size != itemCount) {
+        throw new AssertionError(comboBox + " should have " + itemCount + " items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -220,20 +238,22 @@ public class AssertFX {
    * @param itemCount The item count, must not be negative
    */
   public static void assertHasItems(ListView<?> listView, int itemCount) {
-    if (listView == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (itemCount < 0) {
-      throw new IllegalArgumentException("Item count cannot be less than 0");
-    }
-    if (listView.getItems() == null) {
-      throw new AssertionError(listView + " should have " + itemCount + " items, but .getItems() is null");
-    }
-    final int size = listView.getItems().size();
-
-    if (size != itemCount) {
-      throw new AssertionError(listView + " should have " + itemCount + " items, but actually has " + size);
-    }
+    FXTrace.assertion("assertHasItems", () -> {
+      if (listView == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (itemCount < 0) {
+        throw new IllegalArgumentException("Item count cannot be less than 0");
+      }
+      if (listView.getItems() == null) {
+        throw new AssertionError(listView + " should have " + itemCount + " items, but .getItems() is null");
+      }
+      final int size = listView.getItems().size();
+
+      if (size != itemCount) {
+        throw new AssertionError(listView + " should have " + itemCount + " items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -243,42 +263,46 @@ public class AssertFX {
    * @param itemCount The item count, must not be negative
    */
   public static void assertHasItems(TableView<?> tableView, int itemCount) {
-    if (tableView == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (itemCount < 0) {
-      throw new IllegalArgumentException("Item count cannot be less than 0");
-    }
-    if (tableView.getItems() == null) {
-      throw new AssertionError(tableView + " should have " + itemCount + " items, but .getItems() is null");
-    }
-    final int size = tableView.getItems().size();
-
-    if (size != itemCount) {
-      throw new AssertionError(tableView + " should have " + itemCount + " items, but actually has " + size);
-    }
+    FXTrace.assertion("assertHasItems", () -> {
+      if (tableView == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (itemCount < 0) {
+        throw new IllegalArgumentException("Item count cannot be less than 0");
+      }
+      if (tableView.getItems() == null) {
+        throw new AssertionError(tableView + " should have " + itemCount + " items, but .getItems() is null");
+      }
+      final int size = tableView.getItems().size();
+
+      if (size != itemCount) {
+        throw new AssertionError(tableView + " should have " + itemCount + " items, but actually has " + size);
+      }
+    });
   }
   
   public static void assertHasItems(TreeTableView<?> treetableView, int itemCount) {
-    if (treetableView == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (itemCount < 0) {
-      throw new IllegalArgumentException("Item count cannot be less than 0");
-    }
-    if (treetableView.getRoot() == null) {
-      throw new AssertionError(treetableView + " should have " + itemCount + " items, but .getRoot() is null");
-    }
-    final int size;
-    if (treetableView.getSelectionModel().getSelectedItem() == null) {
-      size = treetableView.getRoot().getChildren().size();
-    } else {
-      size = ((TreeItem)treetableView.getSelectionModel().getSelectedItem()).getChildren().size();
-    }
+    FXTrace.assertion("assertHasItems", () -> {
+      if (treetableView == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (itemCount < 0) {
+        throw new IllegalArgumentException("Item count cannot be less than 0");
+      }
+      if (treetableView.getRoot() == null) {
+        throw new AssertionError(treetableView + " should have " + itemCount + " items, but .getRoot() is null");
+      }
+      final int size;
+      if (treetableView.getSelectionModel().getSelectedItem() == null) {
+        size = treetableView.getRoot().getChildren().size();
+      } else {
+        size = ((TreeItem)treetableView.getSelectionModel().getSelectedItem()).getChildren().size();
+      }
       
-    if (size != itemCount) {
-      throw new AssertionError(treetableView + " should have " + itemCount + " items, but actually has " + size);
-    }
+      if (size != itemCount) {
+        throw new AssertionError(treetableView + " should have " + itemCount + " items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -287,17 +311,19 @@ public class AssertFX {
    * @param choiceBox The control
    */
   public static void assertHasItems(ChoiceBox<?> choiceBox) {
-    if (choiceBox == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (choiceBox.getItems() == null) {
-      throw new AssertionError(choiceBox + " should have items, but .getItems() is null");
-    }
-    final int size = choiceBox.getItems().size();
+    FXTrace.assertion("assertHasItems", () -> {
+      if (choiceBox == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (choiceBox.getItems() == null) {
+        throw new AssertionError(choiceBox + " should have items, but .getItems() is null");
+      }
+      final int size = choiceBox.getItems().size();
 
-    if (size < 1) {
-      throw new AssertionError(choiceBox + " should have items, but actually has " + size);
-    }
+      if (size < 1) {
+        throw new AssertionError(choiceBox + " should have items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -306,17 +332,19 @@ public class AssertFX {
    * @param comboBox The control
    */
   public static void assertHasItems(ComboBox<?> comboBox) {
-    if (comboBox == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (comboBox.getItems() == null) {
-      throw new AssertionError(comboBox + " should have items, but .getItems() is null");
-    }
-    final int size = comboBox.getItems().size();
+    FXTrace.assertion("assertHasItems", () -> {
+      if (comboBox == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (comboBox.getItems() == null) {
+        throw new AssertionError(comboBox + " should have items, but .getItems() is null");
+      }
+      final int size = comboBox.getItems().size();
 
-    if (size < 1) {
-      throw new AssertionError(comboBox + " should have items, but actually has " + size);
-    }
+      if (size < 1) {
+        throw new AssertionError(comboBox + " should have items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -325,17 +353,19 @@ public class AssertFX {
    * @param listView The control
    */
   public static void assertHasItems(ListView<?> listView) {
-    if (listView == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (listView.getItems() == null) {
-      throw new AssertionError(listView + " should have items, but .getItems() is null");
-    }
-    final int size = listView.getItems().size();
+    FXTrace.assertion("assertHasItems", () -> {
+      if (listView == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (listView.getItems() == null) {
+        throw new AssertionError(listView + " should have items, but .getItems() is null");
+      }
+      final int size = listView.getItems().size();
 
-    if (size < 1) {
-      throw new AssertionError(listView + " should have items, but actually has " + size);
-    }
+      if (size < 1) {
+        throw new AssertionError(listView + " should have items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -344,17 +374,19 @@ public class AssertFX {
    * @param tableView The control
    */
   public static void assertHasItems(TableView<?> tableView) {
-    if (tableView == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (tableView.getItems() == null) {
-      throw new AssertionError(tableView + " should have items, but .getItems() is null");
-    }
-    final int size = tableView.getItems().size();
+    FXTrace.assertion("assertHasItems", () -> {
+      if (tableView == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (tableView.getItems() == null) {
+        throw new AssertionError(tableView + " should have items, but .getItems() is null");
+      }
+      final int size = tableView.getItems().size();
 
-    if (size < 1) {
-      throw new AssertionError(tableView + " should have items, but actually has " + size);
-    }
+      if (size < 1) {
+        throw new AssertionError(tableView + " should have items, but actually has " + size);
+      }
+    });
   }
 
   /**
@@ -365,18 +397,20 @@ public class AssertFX {
    * @param styleClass The CSS style class, must not be blank or null.
    */
   public static void assertHasNotStyleClass(Node node, String styleClass) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (styleClass == null) {
-      throw new IllegalArgumentException("styleClass must not be null");
-    }
-    if (styleClass.isBlank()) {
-      throw new IllegalArgumentException("styleClass must not be blank.");
-    }
-    if (node.getStyleClass().contains(styleClass)) {
-      throw new AssertionError(node + " should not have CSS style class '" + styleClass + "', but does.");
-    }
+    FXTrace.assertion("assertHasNotStyleClass", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (styleClass == null) {
+        throw new IllegalArgumentException("styleClass must not be null");
+      }
+      if (styleClass.isBlank()) {
+        throw new IllegalArgumentException("styleClass must not be blank.");
+      }
+      if (node.getStyleClass().contains(styleClass)) {
+        throw new AssertionError(node + " should not have CSS style class '" + styleClass + "', but does.");
+      }
+    });
   }
 
   /**
@@ -386,18 +420,20 @@ public class AssertFX {
    * @param styleClass The CSS style class, must not be blank or null.
    */
   public static void assertHasStyleClass(Node node, String styleClass) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (styleClass == null) {
-      throw new IllegalArgumentException("styleClass must not be null");
-    }
-    if (styleClass.isBlank()) {
-      throw new IllegalArgumentException("styleClass must not be blank.");
-    }
-    if (!node.getStyleClass().contains(styleClass)) {
-      throw new AssertionError(node + " should have CSS style class '" + styleClass + "', but does not.");
-    }
+    FXTrace.assertion("assertHasStyleClass", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (styleClass == null) {
+        throw new IllegalArgumentException("styleClass must not be null");
+      }
+      if (styleClass.isBlank()) {
+        throw new IllegalArgumentException("styleClass must not be blank.");
+      }
+      if (!node.getStyleClass().contains(styleClass)) {
+        throw new AssertionError(node + " should have CSS style class '" + styleClass + "', but does not.");
+      }
+    });
   }
 
   /**
@@ -407,12 +443,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertManaged(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (!node.isManaged()) {
-      throw new AssertionError(NODE + node + " should be managed, but is not.");
-    }
+    FXTrace.assertion("assertManaged", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (!node.isManaged()) {
+        throw new AssertionError(NODE + node + " should be managed, but is not.");
+      }
+    });
   }
 
   /**
@@ -422,12 +460,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertNotManaged(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (node.isManaged()) {
-      throw new AssertionError(NODE + node + " is managed, but should not.");
-    }
+    FXTrace.assertion("assertNotManaged", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (node.isManaged()) {
+        throw new AssertionError(NODE + node + " is managed, but should not.");
+      }
+    });
   }
 
   /**
@@ -436,12 +476,14 @@ public class AssertFX {
    * @param toggleButton The toggle button to be checked.
    */
   public static void assertNotSelected(ToggleButton toggleButton) {
-    if (toggleButton == null) {
-      throw new AssertionError(I18N.getString(TOGGLEBUTTON_IS_NULL));
-    }
-    if (toggleButton.isSelected()) {
-      throw new AssertionError("toggleButton.isSelected() is " + toggleButton.isSelected() + ", should be " + false + ".");
-    }
+    FXTrace.assertion("assertNotSelected", () -> {
+      if (toggleButton == null) {
+        throw new AssertionError(I18N.getString(TOGGLEBUTTON_IS_NULL));
+      }
+      if (toggleButton.isSelected()) {
+        throw new AssertionError("toggleButton.isSelected() is " + toggleButton.isSelected() + ", should be " + false + ".");
+      }
+    });
   }
 
   /**
@@ -451,12 +493,14 @@ public class AssertFX {
    * @param window The window to be checked.
    */
   public static void assertNotShowing(Window window) {
-    if (window == null) {
-      throw new AssertionError(I18N.getString(WINDOW_IS_NULL));
-    }
-    if (window.isShowing()) {
-      throw new AssertionError(WINDOW + window + " is showing, but should not.");
-    }
+    FXTrace.assertion("assertNotShowing", () -> {
+      if (window == null) {
+        throw new AssertionError(I18N.getString(WINDOW_IS_NULL));
+      }
+      if (window.isShowing()) {
+        throw new AssertionError(WINDOW + window + " is showing, but should not.");
+      }
+    });
   }
 
   /**
@@ -466,12 +510,14 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertNotVisible(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (node.isVisible()) {
-      throw new AssertionError(NODE + node + " is visible, but should not.");
-    }
+    FXTrace.assertion("assertNotVisible", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (node.isVisible()) {
+        throw new AssertionError(NODE + node + " is visible, but should not.");
+      }
+    });
   }
 
   /**
@@ -482,19 +528,21 @@ public class AssertFX {
    * @param id The ID that the selected tab must have.
    */
   public static void assertSelected(TabPane tabPane, String id) {
-    if (tabPane == null) {
-      throw new AssertionError(I18N.getString(TABPANE_IS_NULL));
-    }
-    if (id == null) {
-      throw new AssertionError(I18N.getString(ID_IS_NULL));
-    }
-    Tab selectedItem = tabPane.getSelectionModel().getSelectedItem();
-    if (selectedItem == null) {
-      throw new AssertionError("tabPane.getSelectionModel().getSelectedItem() is null");
-    }
-    if (!selectedItem.getId().equals(id)) {
-      throw new AssertionError("tabPane.getSelectionModel().getSelectedItem().getId() is \"" + selectedItem.getId() + "\", should be \"" + id + "\".");
-    }
+    FXTrace.assertion("assertSelected", () -> {
+      if (tabPane == null) {
+        throw new AssertionError(I18N.getString(TABPANE_IS_NULL));
+      }
+      if (id == null) {
+        throw new AssertionError(I18N.getString(ID_IS_NULL));
+      }
+      Tab selectedItem = tabPane.getSelectionModel().getSelectedItem();
+      if (selectedItem == null) {
+        throw new AssertionError("tabPane.getSelectionModel().getSelectedItem() is null");
+      }
+      if (!selectedItem.getId().equals(id)) {
+        throw new AssertionError("tabPane.getSelectionModel().getSelectedItem().getId() is \"" + selectedItem.getId() + "\", should be \"" + id + "\".");
+      }
+    });
   }
 
   /**
@@ -503,12 +551,14 @@ public class AssertFX {
    * @param toggleButton The toggle button to be checked.
    */
   public static void assertSelected(ToggleButton toggleButton) {
-    if (toggleButton == null) {
-      throw new AssertionError(I18N.getString(TOGGLEBUTTON_IS_NULL));
-    }
-    if (!toggleButton.isSelected()) {
-      throw new AssertionError("toggleButton.isSelected() is " + toggleButton.isSelected() + ", should be " + true + ".");
-    }
+    FXTrace.assertion("assertSelected", () -> {
+      if (toggleButton == null) {
+        throw new AssertionError(I18N.getString(TOGGLEBUTTON_IS_NULL));
+      }
+      if (!toggleButton.isSelected()) {
+        throw new AssertionError("toggleButton.isSelected() is " + toggleButton.isSelected() + ", should be " + true + ".");
+      }
+    });
   }
 
   /**
@@ -518,12 +568,14 @@ public class AssertFX {
    * @param window The window to be checked.
    */
   public static void assertShowing(Window window) {
-    if (window == null) {
-      throw new AssertionError(I18N.getString(WINDOW_IS_NULL));
-    }
-    if (!window.isShowing()) {
-      throw new AssertionError(WINDOW + window + " should be showing, but is not.");
-    }
+    FXTrace.assertion("assertShowing", () -> {
+      if (window == null) {
+        throw new AssertionError(I18N.getString(WINDOW_IS_NULL));
+      }
+      if (!window.isShowing()) {
+        throw new AssertionError(WINDOW + window + " should be showing, but is not.");
+      }
+    });
   }
 
   /**
@@ -533,19 +585,21 @@ public class AssertFX {
    * @param text The required text string.
    */
   public static void assertText(Labeled node, String text) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (text == null) {
-      if (node.getText() != null) {
-        throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+    FXTrace.assertion("assertText", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
       }
-
-    } else {
-      if (!text.equals(node.getText())) {
-        throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+      if (text == null) {
+        if (node.getText() != null) {
+          throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+        }
+
+      } else {
+        if (!text.equals(node.getText())) {
+          throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+        }
       }
-    }
+    });
   }
 
   /**
@@ -555,19 +609,21 @@ public class AssertFX {
    * @param text The required text string.
    */
   public static void assertText(TextInputControl node, String text) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (text == null) {
-      if (node.getText() != null) {
-        throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+    FXTrace.assertion("assertText", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
       }
-
-    } else {
-      if (!text.equals(node.getText())) {
-        throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+      if (text == null) {
+        if (node.getText() != null) {
+          throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+        }
+
+      } else {
+        if (!text.equals(node.getText())) {
+          throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + node.getText());
+        }
       }
-    }
+    });
   }
 
   /**
@@ -578,21 +634,23 @@ public class AssertFX {
    * @param text The required text string.
    */
   public static void assertTooltipText(Control node, String text) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (text == null) {
-      if (node.getTooltip() != null) {
-        throw new AssertionError("Tooltip is not null, but should be.");
+    FXTrace.assertion("assertTooltipText", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
       }
-    } else {
-      if (node.getTooltip() == null) {
-        throw new AssertionError(TOOLTIPGETTEXT_SHOULDBE + text + ", but is null");
+      if (text == null) {
+        if (node.getTooltip() != null) {
+          throw new AssertionError("Tooltip is not null, but should be.");
+        }
+      } else {
+        if (node.getTooltip() == null) {
+          throw new AssertionError(TOOLTIPGETTEXT_SHOULDBE + text + ", but is null");
+        }
+        if (!text.equals(node.getTooltip().getText())) {
+          throw new AssertionError(TOOLTIPGETTEXT_SHOULDBE + text + BUT_IS + node.getTooltip().getText());
+        }
       }
-      if (!text.equals(node.getTooltip().getText())) {
-        throw new AssertionError(TOOLTIPGETTEXT_SHOULDBE + text + BUT_IS + node.getTooltip().getText());
-      }
-    }
+    });
   }
 
   /**
@@ -601,11 +659,61 @@ public class AssertFX {
    * @param node The node to be checked
    */
   public static void assertVisible(Node node) {
-    if (node == null) {
-      throw new AssertionError(I18N.getString(NODE_IS_NULL));
-    }
-    if (!node.isVisible()) {
-      throw new AssertionError(NODE + node + " should be visible, but is not.");
-    }
+    FXTrace.assertion("assertVisible", () -> {
+      if (node == null) {
+        throw new AssertionError(I18N.getString(NODE_IS_NULL));
+      }
+      if (!node.isVisible()) {
+        throw new AssertionError(NODE + node + " should be visible, but is not.");
+      }
+    });
+  }
+
+  /**
+   * Assert that the JavaFX application thread has not been stalled for longer
+   * than the given time since the {@link FXUnitContext#current() current
+   * context} has been created, i.e., since the start of the test, if run with
+   * the {@link FXUnitExtension}. Stalls are detected by the
+   * {@link FXWatchdog}, so only stalls longer than its
+   * {@link FXWatchdog#getThreshold() threshold} are taken into account, and
+   * a shorter maximum is rejected, as it could not be checked.
+   *
+   * @param millis The maximum stall duration in ms, at least the threshold.
+   * @throws IllegalArgumentException If the maximum is below the threshold.
+   */
+  public static void assertNoStallsOver(long millis) {
+    FXTrace.assertion("assertNoStallsOver", () -> {
+      if (millis < FXWatchdog.getThreshold()) {
+        throw new IllegalArgumentException("Cannot check for stalls over " + millis
+                + " ms, the FXWatchdog only detects stalls over its threshold of " + FXWatchdog.getThreshold() + " ms.");
+      }
+      if (!FXWatchdog.isRunning()) {
+        throw new AssertionError("The FXWatchdog is not running, cannot check for stalls.");
+      }
+      final List<FXWatchdog.Stall> stalls = FXWatchdog.getStalls(FXUnitContext.current().getCreated()).stream()
+              .filter(stall -> stall.getDuration() > millis)
+              .toList();
+      if (!stalls.isEmpty()) {
+        throw new AssertionError("JavaFX application thread stalled for more than " + millis + " ms: "
+                + stalls.stream().map(FXWatchdog.Stall::format).collect(Collectors.joining(System.lineSeparator())));
+      }
+    });
+  }
+
+  /**
+   * Assert that an interaction, as measured by
+   * {@link FX#measureAllocations(java.lang.Runnable)}, allocated less than the
+   * given number of bytes on the JavaFX application thread.
+   *
+   * @param allocations The measured allocations.
+   * @param bytes The allocation budget in bytes.
+   */
+  public static void assertAllocatedBelow(FXAllocations allocations, long bytes) {
+    FXTrace.assertion("assertAllocatedBelow", () -> {
+      if (allocations == null) {
+        throw new AssertionError("Allocations are null.");
+      }
+      allocations.assertAllocatedBelow(bytes);
+    });
   }
 }
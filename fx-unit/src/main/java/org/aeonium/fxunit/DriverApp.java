@@ -18,6 +18,8 @@
  */
 package org.aeonium.fxunit;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Application;
@@ -60,6 +62,7 @@ public class DriverApp extends Application {
       stage.setScene(scene);
       stage.initStyle(StageStyle.UNDECORATED);
       stage.show();
+      DriverApp.started();
     }
 
     /**
@@ -75,6 +78,12 @@ public class DriverApp extends Application {
 
   static Application app;
 
+  /**
+   * Readiness signal, released as soon as the JavaFX toolkit is up and one of
+   * the driver applications has been started.
+   */
+  private static final CountDownLatch STARTED = new CountDownLatch(1);
+
   public static void setApplication(Application fxApp) {
     LOG.log(Level.INFO, "setApplication: {0}", fxApp);
     app = fxApp;
@@ -98,6 +107,37 @@ public class DriverApp extends Application {
     } catch (Exception exception) {
       LOG.log(Level.SEVERE, exception.getMessage(), exception);
     }
+    started();
+  }
+
+  /**
+   * Signal that the JavaFX toolkit is running.
+   */
+  static void started() {
+    STARTED.countDown();
+  }
+
+  /**
+   * Check whether the JavaFX toolkit has been signalled to be running.
+   *
+   * @return true, if the toolkit is running.
+   */
+  static boolean isStarted() {
+    return STARTED.getCount() == 0;
+  }
+
+  /**
+   * Wait for the JavaFX toolkit to be started.
+   *
+   * @param timeout The maximum time to wait.
+   * @param unit The time unit of the timeout argument.
+   * @return true, if the toolkit has been started, false if the waiting time
+   * elapsed before.
+   * @throws InterruptedException If the current thread is interrupted while
+   * waiting.
+   */
+  static boolean awaitStarted(long timeout, TimeUnit unit) throws InterruptedException {
+    return STARTED.await(timeout, unit);
   }
 
 }
@@ -18,11 +18,19 @@
  */
 package org.aeonium.fxunit;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.Parent;
@@ -44,7 +52,6 @@ import javafx.scene.control.TreeTableView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
-import javafx.scene.robot.Robot;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
@@ -110,39 +117,48 @@ public class FX {
   }
 
   public FX click() {
-    final Bounds boundsInLocal = this.node.getBoundsInLocal();
-    final Bounds sceneCoords = this.node.localToScene(boundsInLocal);
-    final Bounds screenCoords = this.node.localToScreen(boundsInLocal);
-    try {
-      FXHelper.runAndWait(() -> {
-        this.node.fireEvent(new MouseEvent(MouseEvent.MOUSE_CLICKED,
-                sceneCoords.getMinX(), sceneCoords.getMinY(),
-                screenCoords.getMinX(), screenCoords.getMinY(),
-                MouseButton.PRIMARY, 1,
-                true, true, true, true, true, true, true, true, true, true, null));
-      });
-    } catch (ExecutionException ex) {
-      Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-      throw new RuntimeException(ex);
-    }
-    return this;
+    return FXTrace.action("click", this.node, () -> {
+      final Bounds boundsInLocal = this.node.getBoundsInLocal();
+      final Bounds sceneCoords = this.node.localToScene(boundsInLocal);
+      final Bounds screenCoords = this.node.localToScreen(boundsInLocal);
+      try {
+        FXHelper.runAndWait(() -> {
+          this.node.fireEvent(new MouseEvent(MouseEvent.MOUSE_CLICKED,
+                  sceneCoords.getMinX(), sceneCoords.getMinY(),
+                  screenCoords.getMinX(), screenCoords.getMinY(),
+                  MouseButton.PRIMARY, 1,
+                  true, true, true, true, true, true, true, true, true, true, null));
+        });
+      } catch (ExecutionException ex) {
+        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+        throw new RuntimeException(ex);
+      }
+      return this;
+    });
   }
 
   /**
    * Convenience method for delaying for a number of milliseconds – if not running on the JavaFX Application Thread. In
    * this case, the method will not wait, in order to not slow down the UI. Hence, use this method if you think it is
-   * necessary to allow UI rendering to catch up with state changes like selection, highlighting etc.
+   * necessary to allow UI rendering to catch up with state changes like selection, highlighting etc. To wait for
+   * asynchronous UI updates, prefer the wait methods, e.g., {@link #waitForText(java.lang.String)} or
+   * {@link #waitUntil(java.util.function.Predicate, javafx.util.Duration)}, that return as soon as the UI is ready.
    *
    * @param millis Milliseconds to delay, if not running on the JavaFX Application Thread.
    * @return The FX instance, for call chaining ("fluent API").
    */
   public FX delay(int millis) {
     if (!Platform.isFxApplicationThread()) {
+      final FXTrace.DelayEvent event = FXTrace.beginDelay("sleep", millis);
+      final long start = System.nanoTime();
       try {
         Thread.sleep(millis);
       } catch (InterruptedException ex) {
         Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
         Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordSleep(start);
+        event.commit();
       }
     } else {
       LOG.warning("Delaying on the FX application thread? Seriously?");
@@ -152,11 +168,16 @@ public class FX {
 
   public FX delay(Duration duration) {
     if (!Platform.isFxApplicationThread()) {
+      final FXTrace.DelayEvent event = FXTrace.beginDelay("sleep", (long) duration.toMillis());
+      final long start = System.nanoTime();
       try {
         Thread.sleep((long) duration.toMillis());
       } catch (InterruptedException ex) {
         Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
         Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordSleep(start);
+        event.commit();
       }
     } else {
       LOG.warning("Delaying on the FX application thread? Seriously?");
@@ -189,19 +210,21 @@ public class FX {
    * @return The FX instance, for call chaining ("fluent API").
    */
   public FX fire() {
-    if (node instanceof ButtonBase button) {
-      try {
-        FXHelper.runAndWait(() -> {
-          button.fire();
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
+    return FXTrace.action("fire", this.node, () -> {
+      if (node instanceof ButtonBase button) {
+        try {
+          FXHelper.runAndWait(() -> {
+            button.fire();
+          });
+        } catch (ExecutionException ex) {
+          Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+          throw new RuntimeException(ex);
+        }
+      } else {
+        throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, fire() supports ButtonBase and descendants only.");
       }
-    } else {
-      throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, fire() supports ButtonBase and descendants only.");
-    }
-    return this;
+      return this;
+    });
   }
 
   /**
@@ -468,7 +491,8 @@ public class FX {
   }
 
   /**
-   * Assert that there is no node with the given ID.
+   * Assert that there is no node with the given ID on the testing stage of the
+   * {@link FXUnitContext#current() current context}.
    *
    * @param id The node ID.
    */
@@ -479,7 +503,7 @@ public class FX {
     if (FXUnit.getStage().getScene() == null) {
       throw new NullPointerException("FXUnit.getStage() has no valid scene. Did you load content?");
     }
-    Node nodeNotToBePresent = FXUnit.getStage().getScene().lookup(id);
+    Node nodeNotToBePresent = FXNodeIndex.lookup(FXUnit.getStage().getScene(), id);
     if (nodeNotToBePresent != null) {
       throw new AssertionError("Node with ID " + id + " is present, but should not.");
     }
@@ -523,7 +547,8 @@ public class FX {
   }
 
   /**
-   * Look up a node by ID selector from the current testing stage. Throws an AssertionError if the node is not found.
+   * Look up a node by ID selector from the testing stage of the {@link FXUnitContext#current() current context}. Throws
+   * an AssertionError if the node is not found.
    *
    * @param id The node ID selector.
    * @return The node.
@@ -535,7 +560,7 @@ public class FX {
     if (FXUnit.getStage().getScene() == null) {
       throw new NullPointerException("FXUnit.getStage() has no valid scene. Did you load content?");
     }
-    Node node = FXUnit.getStage().getScene().lookup(id);
+    Node node = FXNodeIndex.lookup(FXUnit.getStage().getScene(), id);
     if (node == null) {
       throw new AssertionError(NO_NODE_FOUND_FOR_ID_ + id);
     }
@@ -549,13 +574,94 @@ public class FX {
     if (stage.getScene() == null) {
       throw new NullPointerException("stage.getScene() must not be null.");
     }
-    Node node = stage.getScene().lookup(id);
+    Node node = FXNodeIndex.lookup(stage.getScene(), id);
     if (node == null) {
       throw new AssertionError(NO_NODE_FOUND_FOR_ID_ + id);
     }
     return new FX(node);
   }
 
+  /**
+   * Query all nodes of the current testing stage that match the given CSS
+   * selector. Type, style class, ID and pseudo class selectors are supported,
+   * as well as descendant and child combinators and groups of selectors, e.g.,
+   * <code>FX.query("VBox &gt; .button:disabled")</code>. Selectors are compiled
+   * once and cached.
+   *
+   * @param selector The CSS selector.
+   * @return An FXCollection wrapping the matching nodes in scene graph order,
+   * possibly empty.
+   */
+  public static FXCollection query(String selector) {
+    if (FXUnit.getStage() == null) {
+      throw new NullPointerException("FXUnit.getStage() is null. Did you initialize the framework properly or do you rather want to test a stage created by yourself? In this case have a look at FX.query(stage, selector)");
+    }
+    if (FXUnit.getStage().getScene() == null) {
+      throw new NullPointerException("FXUnit.getStage() has no valid scene. Did you load content?");
+    }
+    return query(FXUnit.getStage().getScene(), selector);
+  }
+
+  /**
+   * Query all nodes of the given stage that match the given CSS selector.
+   *
+   * @param stage The stage.
+   * @param selector The CSS selector.
+   * @return An FXCollection wrapping the matching nodes in scene graph order,
+   * possibly empty.
+   * @see #query(java.lang.String)
+   */
+  public static FXCollection query(Stage stage, String selector) {
+    if (stage == null) {
+      throw new NullPointerException("stage must not be null.");
+    }
+    if (stage.getScene() == null) {
+      throw new NullPointerException("stage.getScene() must not be null.");
+    }
+    return query(stage.getScene(), selector);
+  }
+
+  private static FXCollection query(Scene scene, String selector) {
+    List<Node> nodes = FXSelector.query(scene, selector);
+    return new FXCollection(FXCollections.unmodifiableObservableList(FXCollections.observableArrayList(nodes)));
+  }
+
+  /**
+   * Execute a script of actions and assertions on the testing stage of the
+   * {@link FXUnitContext#current() current context}, in a single task on the
+   * JavaFX application thread, e.g.,
+   * <code>FX.batch(b -&gt; b.find("#name").setText("x").find("#ok").fire())</code>.
+   *
+   * @param script The script, records the steps on the given batch.
+   * @see FXBatch
+   */
+  public static void batch(Consumer<FXBatch> script) {
+    if (FXUnit.getStage() == null) {
+      throw new NullPointerException("FXUnit.getStage() is null. Did you initialize the framework properly or do you rather want to test a stage created by yourself? In this case have a look at FX.batch(stage, script)");
+    }
+    batch(FXUnit.getStage(), script);
+  }
+
+  /**
+   * Execute a script of actions and assertions on the given stage, in a single
+   * task on the JavaFX application thread.
+   *
+   * @param stage The stage.
+   * @param script The script, records the steps on the given batch.
+   * @see FXBatch
+   */
+  public static void batch(Stage stage, Consumer<FXBatch> script) {
+    if (stage == null) {
+      throw new NullPointerException("stage must not be null.");
+    }
+    if (script == null) {
+      throw new NullPointerException("script must not be null.");
+    }
+    FXBatch batch = new FXBatch(stage);
+    script.accept(batch);
+    batch.execute();
+  }
+
   /**
    * Show the given node on a new testing stage. Use this method as a starting point for testing a node on a new testing
    * stage.
@@ -572,6 +678,21 @@ public class FX {
     return new FX(node);
   }
 
+  /**
+   * Capture an immutable snapshot of the selected node and its descendants, in
+   * one pass on the JavaFX application thread. Assertions on the snapshot do
+   * not touch the live scene graph, so they may run from any thread.
+   *
+   * @return The snapshot.
+   * @see FXSnapshot
+   */
+  public FXSnapshot snapshot() {
+    if (this.node == null) {
+      throw new NullPointerException("This FX instance has no node to capture.");
+    }
+    return FXSnapshot.capture(this.node);
+  }
+
   /**
    * Assert that the selected node has an item count > 0. Supported are instances or descendants of:
    * <ul>
@@ -658,99 +779,63 @@ public class FX {
     return this;
   }
 
+  /**
+   * Press the given key, using the robot of the current test context, and wait
+   * until the key event has been dispatched.
+   *
+   * @param code The key code.
+   * @return The FX instance, for call chaining ("fluent API").
+   */
   public FX keyPress(KeyCode code) {
-    Thread t = new Thread(() -> {
-      try {
-        FXHelper.runAndWait(() -> {
-          Robot robot = new Robot();
-          robot.keyPress(code);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
+    return FXTrace.action("keyPress", this.node, () -> {
+      FXInput.of(this.node).keyPress(code).flush();
+      return this;
     });
-    t.setDaemon(true);
-    t.start();
-    try {
-      Thread.sleep(100);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
-    return this;
   }
 
+  /**
+   * Release the given key, using the robot of the current test context, and
+   * wait until the key event has been dispatched.
+   *
+   * @param code The key code.
+   * @return The FX instance, for call chaining ("fluent API").
+   */
   public FX keyRelease(KeyCode code) {
-    Thread t = new Thread(() -> {
-      try {
-        FXHelper.runAndWait(() -> {
-          Robot robot = new Robot();
-          robot.keyRelease(code);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
+    return FXTrace.action("keyRelease", this.node, () -> {
+      FXInput.of(this.node).keyRelease(code).flush();
+      return this;
     });
-    t.setDaemon(true);
-    t.start();
-    try {
-      Thread.sleep(100);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
-    return this;
   }
 
+  /**
+   * Type the given key, using the robot of the current test context, and wait
+   * until the key events have been dispatched.
+   *
+   * @param code The key code.
+   * @return The FX instance, for call chaining ("fluent API").
+   */
   public FX keyType(KeyCode code) {
-    Thread t = new Thread(() -> {
-      try {
-        FXHelper.runAndWait(() -> {
-          Robot robot = new Robot();
-          robot.keyType(code);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
+    return FXTrace.action("keyType", this.node, () -> {
+      FXInput.of(this.node).keyType(code).flush();
+      return this;
     });
-    t.setDaemon(true);
-    t.start();
-    try {
-      Thread.sleep(100);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
-    return this;
   }
 
+  /**
+   * Type the given text, using the robot of the current test context. All keys
+   * are typed in one task on the JavaFX application thread, then the method
+   * waits until the key events have been dispatched.
+   *
+   * @param text The text.
+   * @return The FX instance, for call chaining ("fluent API").
+   * @throws FXUnitException If the {@link FXKeyboardLayout#getDefault() default
+   * keyboard layout} has no key for a character, before any key is typed.
+   */
   public FX keyType(String text) {
-    try {
-      FXHelper.runAndWait(() -> {
-        Robot robot = new Robot();
-
-        for (char c : text.toCharArray()) {
-          final boolean isUpperCase = Character.isUpperCase(c);
-          if (isUpperCase) {
-            robot.keyPress(KeyCode.SHIFT);
-          }
-          robot.keyType(FXHelper.getKeycode(c));
-
-          if (isUpperCase) {
-            robot.keyRelease(KeyCode.SHIFT);
-          }
-        }
-      });
-    } catch (ExecutionException ex) {
-      Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-      throw new RuntimeException(ex);
-    }
-    try {
-      Thread.sleep(100);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
-    return this;
+    return FXTrace.action("keyType", this.node, () -> {
+      FXInput.of(this.node).keyType(text).flush();
+      return this;
+    });
   }
 
   /**
@@ -763,7 +848,7 @@ public class FX {
     if (this.stage == null) {
       throw new AssertionError("No stage definded.");
     }
-    this.node = this.stage.getScene().lookup(id);
+    this.node = FXNodeIndex.lookup(this.stage.getScene(), id);
     if (this.node == null) {
       throw new AssertionError(NO_NODE_FOUND_FOR_ID_ + id);
     }
@@ -776,32 +861,23 @@ public class FX {
    * @return The FX instance, for call chaining ("fluent API").
    */
   public FX mouseMoveTo() {
-    final Bounds localToScreen = this.node.localToScreen(this.node.getBoundsInLocal());
-    final double centerX = localToScreen.getCenterX();
-    final double centerY = localToScreen.getCenterY();
-    try {
-      FXHelper.runAndWait(() -> {
-        Robot robot = new Robot();
-        robot.mouseMove(centerX, centerY);
-      });
-    } catch (ExecutionException ex) {
-      Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-      throw new RuntimeException(ex);
-    }
-    return this;
+    return FXTrace.action("mouseMoveTo", this.node, () -> {
+      FXInput.of(this.node).mouseMoveToTarget().flush();
+      return this;
+    });
   }
 
+  /**
+   * Click the primary mouse button at the current mouse position, and wait
+   * until the mouse events have been dispatched.
+   *
+   * @return The FX instance, for call chaining ("fluent API").
+   */
   public FX mouseClick() {
-    try {
-      FXHelper.runAndWait(() -> {
-        Robot robot = new Robot();
-        robot.mouseClick(MouseButton.PRIMARY);
-      });
-    } catch (ExecutionException ex) {
-      Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-      throw new RuntimeException(ex);
-    }
-    return this;
+    return FXTrace.action("mouseClick", this.node, () -> {
+      FXInput.of(this.node).mouseClick(MouseButton.PRIMARY).flush();
+      return this;
+    });
   }
 
   /**
@@ -812,66 +888,68 @@ public class FX {
    * @return The FX instance, for call chaining ("fluent API").
    */
   public <T> FX select(int index) {
-    if (this.node instanceof ChoiceBox) {
-      @SuppressWarnings("unchecked")
-      ChoiceBox<T> choiceBox = (ChoiceBox<T>) this.node;
-      if (choiceBox.getItems().size() <= index) {
-        throw new IndexOutOfBoundsException(this.node.toString() + " has only " + choiceBox.getItems().size() + " items.");
-      }
-      try {
-        FXHelper.runAndWait(() -> {
-          choiceBox.getSelectionModel().select(index);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
-    } else if (this.node instanceof ListView) {
-      @SuppressWarnings("unchecked")
-      ListView<T> listView = (ListView<T>) this.node;
-      if (listView.getItems().size() <= index) {
-        throw new IndexOutOfBoundsException(this.node.toString() + " has only " + listView.getItems().size() + " items.");
-      }
-      try {
-        FXHelper.runAndWait(() -> {
-          listView.getSelectionModel().select(index);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
-    } else if (this.node instanceof TableView) {
-      @SuppressWarnings("unchecked")
-      TableView<T> tableView = (TableView<T>) this.node;
-      if (tableView.getItems().size() <= index) {
-        throw new IndexOutOfBoundsException(this.node.toString() + " has only " + tableView.getItems().size() + " items.");
-      }
-      try {
-        FXHelper.runAndWait(() -> {
-          tableView.getSelectionModel().select(index);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
-      }
-    } else if (this.node instanceof TreeTableView) {
-      @SuppressWarnings("unchecked")
-      TreeTableView<T> treeTableView = (TreeTableView<T>) this.node;
-      if (treeTableView.getRoot() == null) {
-        throw new IndexOutOfBoundsException("TreeTableView has no root node, i.e., no data.");
-      }
-      try {
-        FXHelper.runAndWait(() -> {
-          treeTableView.getSelectionModel().select(index);
-        });
-      } catch (ExecutionException ex) {
-        Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
-        throw new RuntimeException(ex);
+    return FXTrace.action("select", this.node, () -> {
+      if (this.node instanceof ChoiceBox) {
+        @SuppressWarnings("unchecked")
+        ChoiceBox<T> choiceBox = (ChoiceBox<T>) this.node;
+        if (choiceBox.getItems().size() <= index) {
+          throw new IndexOutOfBoundsException(this.node.toString() + " has only " + choiceBox.getItems().size() + " items.");
+        }
+        try {
+          FXHelper.runAndWait(() -> {
+            choiceBox.getSelectionModel().select(index);
+          });
+        } catch (ExecutionException ex) {
+          Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+          throw new RuntimeException(ex);
+        }
+      } else if (this.node instanceof ListView) {
+        @SuppressWarnings("unchecked")
+        ListView<T> listView = (ListView<T>) this.node;
+        if (listView.getItems().size() <= index) {
+          throw new IndexOutOfBoundsException(this.node.toString() + " has only " + listView.getItems().size() + " items.");
+        }
+        try {
+          FXHelper.runAndWait(() -> {
+            listView.getSelectionModel().select(index);
+          });
+        } catch (ExecutionException ex) {
+          Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+          throw new RuntimeException(ex);
+        }
+      } else if (this.node instanceof TableView) {
+        @SuppressWarnings("unchecked")
+        TableView<T> tableView = (TableView<T>) this.node;
+        if (tableView.getItems().size() <= index) {
+          throw new IndexOutOfBoundsException(this.node.toString() + " has only " + tableView.getItems().size() + " items.");
+        }
+        try {
+          FXHelper.runAndWait(() -> {
+            tableView.getSelectionModel().select(index);
+          });
+        } catch (ExecutionException ex) {
+          Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+          throw new RuntimeException(ex);
+        }
+      } else if (this.node instanceof TreeTableView) {
+        @SuppressWarnings("unchecked")
+        TreeTableView<T> treeTableView = (TreeTableView<T>) this.node;
+        if (treeTableView.getRoot() == null) {
+          throw new IndexOutOfBoundsException("TreeTableView has no root node, i.e., no data.");
+        }
+        try {
+          FXHelper.runAndWait(() -> {
+            treeTableView.getSelectionModel().select(index);
+          });
+        } catch (ExecutionException ex) {
+          Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
+          throw new RuntimeException(ex);
+        }
+      } else {
+        throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, select() supports ChoiceBox, ListView, TableView and TreeTableView only.");
       }
-    } else {
-      throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, select() supports ChoiceBox, ListView, TableView and TreeTableView only.");
-    }
-    return this;
+      return this;
+    });
   }
 
   /**
@@ -881,17 +959,19 @@ public class FX {
    * @return The FX instance, for call chaining ("fluent API").
    */
   public FX setText(String string) {
-    if (this.node instanceof TextInputControl) {
-      TextInputControl textInputControl = (TextInputControl) this.node;
-      textInputControl.setText(string);
-      AssertFX.assertText(textInputControl, string);
-    } else if (this.node instanceof Labeled) {
-      Labeled labeled = (Labeled) this.node;
-      AssertFX.assertText(labeled, string);
-    } else {
-      throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, setText() supports Labeled and TextInputControl only.");
-    }
-    return this;
+    return FXTrace.action("setText", this.node, () -> {
+      if (this.node instanceof TextInputControl) {
+        TextInputControl textInputControl = (TextInputControl) this.node;
+        textInputControl.setText(string);
+        AssertFX.assertText(textInputControl, string);
+      } else if (this.node instanceof Labeled) {
+        Labeled labeled = (Labeled) this.node;
+        AssertFX.assertText(labeled, string);
+      } else {
+        throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, setText() supports Labeled and TextInputControl only.");
+      }
+      return this;
+    });
   }
 
   public <T> FX setValue(T value) {
@@ -913,4 +993,194 @@ public class FX {
     }
     return this;
   }
+
+  /**
+   * Wait until the given condition holds for the selected node. The condition
+   * is evaluated on the JavaFX application thread, initially and after each
+   * layout pulse of the node's scene, i.e., after each change of the UI. For
+   * conditions on state that changes without a pulse, it is also re-evaluated
+   * at a low rate, every 100 ms.
+   *
+   * @param condition The condition.
+   * @param timeout The maximum time to wait.
+   * @return The FX instance, for call chaining ("fluent API").
+   * @throws AssertionError If the condition does not hold within the timeout.
+   */
+  public FX waitUntil(Predicate<? super Node> condition, Duration timeout) {
+    if (condition == null) {
+      throw new NullPointerException("condition must not be null.");
+    }
+    final Node current = this.node;
+    FXWait.until("condition holds for " + current, () -> condition.test(current), current.getScene(), timeout);
+    return this;
+  }
+
+  /**
+   * Wait until the selected node, an instance of Labeled or TextInputControl,
+   * has the given text, at most for the {@link FXHelper#getWaitTimeout() wait
+   * timeout}.
+   *
+   * @param text The text.
+   * @return The FX instance, for call chaining ("fluent API").
+   * @throws AssertionError If the node does not get the text in time.
+   */
+  public FX waitForText(String text) {
+    final ObservableValue<String> textProperty;
+    if (this.node instanceof Labeled labeled) {
+      textProperty = labeled.textProperty();
+    } else if (this.node instanceof TextInputControl textInputControl) {
+      textProperty = textInputControl.textProperty();
+    } else {
+      throw new AssertionError("waitForText() is only supported on Labeled/TextInputControl and descendants. Node is a " + this.node.getClass().getName());
+    }
+    FXWait.until("text of " + this.node + " is " + text, () -> Objects.equals(text, textProperty.getValue()),
+            null, waitTimeout(), textProperty);
+    return this;
+  }
+
+  /**
+   * Wait until the selected node is visible, at most for the
+   * {@link FXHelper#getWaitTimeout() wait timeout}.
+   *
+   * @return The FX instance, for call chaining ("fluent API").
+   * @throws AssertionError If the node does not become visible in time.
+   */
+  public FX waitForVisible() {
+    final Node current = this.node;
+    FXWait.until(current + " is visible", current::isVisible, null, waitTimeout(), current.visibleProperty());
+    return this;
+  }
+
+  /**
+   * Wait until the selected node has the given number of items, at most for
+   * the {@link FXHelper#getWaitTimeout() wait timeout}. Supported are
+   * ChoiceBox, ComboBox, ListView and TableView.
+   *
+   * @param count The item count.
+   * @return The FX instance, for call chaining ("fluent API").
+   * @throws AssertionError If the node does not get the items in time.
+   */
+  public FX waitForItems(int count) {
+    final ObjectProperty<? extends ObservableList<?>> items;
+    if (this.node instanceof ChoiceBox<?> choiceBox) {
+      items = choiceBox.itemsProperty();
+    } else if (this.node instanceof ComboBox<?> comboBox) {
+      items = comboBox.itemsProperty();
+    } else if (this.node instanceof ListView<?> listView) {
+      items = listView.itemsProperty();
+    } else if (this.node instanceof TableView<?> tableView) {
+      items = tableView.itemsProperty();
+    } else {
+      throw new UnsupportedOperationException("Type " + this.node.getClass().getName() + " is not supported. Currently, waitForItems() supports ChoiceBox, ComboBox, ListView and TableView only.");
+    }
+    // listen to the list property and the current list, pulses catch changes of a replaced list:
+    final ObservableList<?> list = items.get();
+    final Observable[] observables = list == null ? new Observable[]{items} : new Observable[]{items, list};
+    FXWait.until(this.node + " has " + count + " items",
+            () -> items.get() != null && items.get().size() == count,
+            this.node.getScene(), waitTimeout(), observables);
+    return this;
+  }
+
+  /**
+   * Wait until a node with the given ID is present on the testing stage of the
+   * {@link FXUnitContext#current() current context}, at most for the
+   * {@link FXHelper#getWaitTimeout() wait timeout}.
+   *
+   * @param id The node ID selector.
+   * @return An FX instance for the node.
+   * @throws AssertionError If there is no such node in time.
+   */
+  public static FX waitForNode(String id) {
+    if (FXUnit.getStage() == null) {
+      throw new NullPointerException("FXUnit.getStage() is null. Did you initialize the framework properly or do you rather want to test a stage created by yourself? In this case have a look at FX.waitForNode(stage, id)");
+    }
+    return waitForNode(FXUnit.getStage(), id);
+  }
+
+  /**
+   * Wait until a node with the given ID is present on the given stage, at most
+   * for the {@link FXHelper#getWaitTimeout() wait timeout}.
+   *
+   * @param stage The stage.
+   * @param id The node ID selector.
+   * @return An FX instance for the node.
+   * @throws AssertionError If there is no such node in time.
+   */
+  public static FX waitForNode(Stage stage, String id) {
+    if (stage == null) {
+      throw new NullPointerException("stage must not be null.");
+    }
+    if (stage.getScene() == null) {
+      throw new NullPointerException("stage.getScene() must not be null.");
+    }
+    final Scene scene = stage.getScene();
+    FXWait.until("node " + id + " is present", () -> FXNodeIndex.lookup(scene, id) != null,
+            scene, waitTimeout(), scene.rootProperty());
+    return lookup(stage, id);
+  }
+
+  /**
+   * Run the given interaction and measure the frame times of the testing stage
+   * of the {@link FXUnitContext#current() current context} meanwhile, until
+   * the UI is idle again. The interaction runs on the calling thread, e.g., it
+   * may click or type with the FX methods.
+   *
+   * @param interaction The interaction.
+   * @return The frame times, e.g., for
+   * {@link FXFrameStats#assertFrameTimeP99Below(javafx.util.Duration)}.
+   */
+  public static FXFrameStats measureRendering(Runnable interaction) {
+    if (FXUnit.getStage() == null) {
+      throw new NullPointerException("FXUnit.getStage() is null. Did you initialize the framework properly or do you rather want to test a stage created by yourself? In this case have a look at FX.measureRendering(stage, interaction)");
+    }
+    return measureRendering(FXUnit.getStage(), interaction);
+  }
+
+  /**
+   * Run the given interaction and measure the frame times of the given stage
+   * meanwhile, until the UI is idle again, see {@link FXFrameStats}.
+   *
+   * @param stage The stage.
+   * @param interaction The interaction.
+   * @return The frame times.
+   */
+  public static FXFrameStats measureRendering(Stage stage, Runnable interaction) {
+    return FXFrameRecorder.measure(stage, interaction);
+  }
+
+  /**
+   * Run the given interaction and measure the bytes allocated on the JavaFX
+   * application thread meanwhile, until the testing stage of the
+   * {@link FXUnitContext#current() current context} is idle again, see
+   * {@link FXAllocations}.
+   *
+   * @param interaction The interaction.
+   * @return The allocations, e.g., for
+   * {@link AssertFX#assertAllocatedBelow(org.aeonium.fxunit.FXAllocations, long)}.
+   */
+  public static FXAllocations measureAllocations(Runnable interaction) {
+    if (FXUnit.getStage() == null) {
+      throw new NullPointerException("FXUnit.getStage() is null. Did you initialize the framework properly or do you rather want to test a stage created by yourself? In this case have a look at FX.measureAllocations(stage, interaction)");
+    }
+    return measureAllocations(FXUnit.getStage(), interaction);
+  }
+
+  /**
+   * Run the given interaction and measure the bytes allocated on the JavaFX
+   * application thread meanwhile, until the given stage is idle again, see
+   * {@link FXAllocations}.
+   *
+   * @param stage The stage, if null, the measurement ends as soon as the tasks
+   * queued by the interaction have been executed.
+   * @param interaction The interaction.
+   * @return The allocations.
+   */
+  public static FXAllocations measureAllocations(Stage stage, Runnable interaction) {
+    return FXAllocations.measure(stage, interaction);
+  }
+
+  private static Duration waitTimeout() {
+    return Duration.millis(FXHelper.getWaitTimeout());
+  }
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutionException;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * The number of bytes allocated on the JavaFX application thread during an
+ * interaction, as measured by
+ * {@link FX#measureAllocations(java.lang.Runnable)}. The allocations are taken
+ * from {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * on the JavaFX application thread, before the interaction and after the UI
+ * has become idle again, hence they include everything the thread did
+ * meanwhile, e.g., event handling, CSS and layout.
+ * <p>
+ * To keep the measurement itself out of the result, the {@link FXWatchdog} is
+ * paused, and the allocations of an empty interaction, measured the same way
+ * right before, are subtracted. Work that other code queues on the JavaFX
+ * application thread meanwhile, e.g., the work of other tests running
+ * concurrently, or animations and timers of the UI, cannot be told apart and
+ * is counted, too. So, budgets should leave some headroom, and tests with
+ * tight budgets should not run concurrently with other UI tests.</p>
+ * <pre>
+ * FX.measureAllocations(() -&gt; FX.lookup("#filter").keyType("abc"))
+ *         .assertAllocatedBelow(512 * 1024);
+ * </pre>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXAllocations {
+
+  private final long bytes;
+
+  FXAllocations(long bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * Run the given interaction and measure the bytes allocated on the JavaFX
+   * application thread meanwhile, until the scene of the given stage is idle.
+   * If called on the JavaFX application thread, the interaction is measured
+   * directly.
+   *
+   * @param stage The stage, may be null.
+   * @param interaction The interaction.
+   * @return The allocations.
+   * @throws FXUnitException If the JVM does not support measuring thread
+   * allocations.
+   */
+  static FXAllocations measure(Stage stage, Runnable interaction) {
+    if (interaction == null) {
+      throw new NullPointerException("interaction must not be null.");
+    }
+    final com.sun.management.ThreadMXBean threads = getThreadMXBean();
+    if (Platform.isFxApplicationThread()) {
+      final long before = threads.getCurrentThreadAllocatedBytes();
+      interaction.run();
+      return new FXAllocations(threads.getCurrentThreadAllocatedBytes() - before);
+    }
+
+    final Scene scene = stage == null ? null : stage.getScene();
+    FXWatchdog.pause();
+    try {
+      final long baseline = allocatedDuring(threads, scene, () -> {
+        // the empty interaction, i.e., the overhead of the measurement.
+      });
+      return new FXAllocations(Math.max(0, allocatedDuring(threads, scene, interaction) - baseline));
+    } finally {
+      FXWatchdog.resume();
+    }
+  }
+
+  /**
+   * Run the given interaction, wait until the scene is idle, and return the
+   * bytes allocated on the JavaFX application thread meanwhile.
+   */
+  private static long allocatedDuring(com.sun.management.ThreadMXBean threads, Scene scene, Runnable interaction) {
+    final long[] samples = new long[2];
+    sample(threads, samples, 0);
+    interaction.run();
+    FXHelper.waitForIdle(scene);
+    sample(threads, samples, 1);
+    return samples[1] - samples[0];
+  }
+
+  private static void sample(com.sun.management.ThreadMXBean threads, long[] samples, int index) {
+    try {
+      FXHelper.runAndWait(() -> samples[index] = threads.getCurrentThreadAllocatedBytes());
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot measure allocations.", ex);
+    }
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadMXBean() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+            || !threads.isThreadAllocatedMemorySupported()) {
+      throw new FXUnitException("Measuring thread allocations is not supported by this JVM.");
+    }
+    if (!threads.isThreadAllocatedMemoryEnabled()) {
+      threads.setThreadAllocatedMemoryEnabled(true);
+    }
+    return threads;
+  }
+
+  /**
+   * Returns the number of bytes allocated on the JavaFX application thread.
+   *
+   * @return The bytes.
+   */
+  public long getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Assert that less than the given number of bytes has been allocated on the
+   * JavaFX application thread.
+   *
+   * @param budget The allocation budget in bytes.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXAllocations assertAllocatedBelow(long budget) {
+    if (bytes >= budget) {
+      throw new AssertionError("Allocations on the JavaFX application thread should be below " + budget
+              + " bytes, but are " + bytes + " bytes.");
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "FXAllocations[bytes=" + bytes + "]";
+  }
+}
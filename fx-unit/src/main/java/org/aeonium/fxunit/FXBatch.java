@@ -0,0 +1,474 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * A script of actions and assertions that is executed in order, in a single
+ * task on the JavaFX application thread, instead of one thread handoff per
+ * step. Create it with {@link FX#batch(java.util.function.Consumer)}:
+ * <pre>
+ * FX.batch(b -&gt; b
+ *         .find("#name").setText("fx-unit").hasText("fx-unit")
+ *         .find("#ok").fire()
+ *         .pulse()
+ *         .find("#result").isVisible());
+ * </pre>
+ * {@link #find(java.lang.String)} selects the node that the following steps
+ * operate on; nodes are looked up when the step is executed, so steps may
+ * refer to nodes created by previous steps.
+ * <p>
+ * Failing assertion steps do not stop the batch: their errors are collected and
+ * reported together in one AssertionError at the end. A failing action stops
+ * the batch, and is reported along with the assertion errors collected so
+ * far.</p>
+ * <p>
+ * {@link #pulse()} splits the batch into groups: each group is executed as one
+ * task, and between two groups, the scene is given the chance to run through
+ * layout and rendering pulses until it is idle, see
+ * {@link FXHelper#waitForIdle(javafx.scene.Scene)}. If the batch is executed
+ * on the JavaFX application thread, the groups are executed immediately one
+ * after another.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXBatch {
+
+  private final Stage stage;
+  private final List<List<Step>> groups = new ArrayList<>();
+  private List<Step> steps = new ArrayList<>();
+  private int stepCount;
+
+  private FX target;
+
+  FXBatch(Stage stage) {
+    this.stage = stage;
+    this.groups.add(steps);
+  }
+
+  /**
+   * Select the node with the given ID in the scene under test, as target of
+   * the following steps.
+   *
+   * @param id The node ID selector.
+   * @return This batch.
+   * @see FX#lookup(javafx.stage.Stage, java.lang.String)
+   */
+  public FXBatch find(String id) {
+    return action("find(" + id + ")", () -> target = FX.lookup(stage, id));
+  }
+
+  /**
+   * Click on the selected node.
+   *
+   * @return This batch.
+   * @see FX#click()
+   */
+  public FXBatch click() {
+    return action("click()", () -> target().click());
+  }
+
+  /**
+   * Expand the selected TitledPane.
+   *
+   * @return This batch.
+   * @see FX#expand()
+   */
+  public FXBatch expand() {
+    return action("expand()", () -> target().expand());
+  }
+
+  /**
+   * Expand the n-th pane of the selected Accordion.
+   *
+   * @param index The index of the pane.
+   * @return This batch.
+   * @see FX#expand(int)
+   */
+  public FXBatch expand(int index) {
+    return action("expand(" + index + ")", () -> target().expand(index));
+  }
+
+  /**
+   * Fire the selected node.
+   *
+   * @return This batch.
+   * @see FX#fire()
+   */
+  public FXBatch fire() {
+    return action("fire()", () -> target().fire());
+  }
+
+  /**
+   * Focus the selected node, and assert that it has the focus.
+   *
+   * @return This batch.
+   * @see FX#focus()
+   */
+  public FXBatch focus() {
+    return action("focus()", () -> target().focus());
+  }
+
+  /**
+   * Select the n-th item of the selected control.
+   *
+   * @param index The index.
+   * @return This batch.
+   * @see FX#select(int)
+   */
+  public FXBatch select(int index) {
+    return action("select(" + index + ")", () -> target().select(index));
+  }
+
+  /**
+   * Set the text of the selected node.
+   *
+   * @param text The text.
+   * @return This batch.
+   * @see FX#setText(java.lang.String)
+   */
+  public FXBatch setText(String text) {
+    return action("setText(" + text + ")", () -> target().setText(text));
+  }
+
+  /**
+   * Set the value of the selected node.
+   *
+   * @param <T> The value type.
+   * @param value The value.
+   * @return This batch.
+   * @see FX#setValue(java.lang.Object)
+   */
+  public <T> FXBatch setValue(T value) {
+    return action("setValue(" + value + ")", () -> target().setValue(value));
+  }
+
+  /**
+   * Run an arbitrary action, e.g., <code>menuItem::fire</code>.
+   *
+   * @param action The action.
+   * @return This batch.
+   */
+  public FXBatch run(Runnable action) {
+    if (action == null) {
+      throw new NullPointerException("action must not be null.");
+    }
+    return action("run()", action);
+  }
+
+  /**
+   * Run an arbitrary action on the selected node.
+   *
+   * @param action The action.
+   * @return This batch.
+   */
+  public FXBatch perform(Consumer<FX> action) {
+    if (action == null) {
+      throw new NullPointerException("action must not be null.");
+    }
+    return action("perform()", () -> action.accept(target()));
+  }
+
+  /**
+   * Assert that the selected node has the given number of child nodes.
+   *
+   * @param count The child node count.
+   * @return This batch.
+   * @see FX#hasChildren(int)
+   */
+  public FXBatch hasChildren(int count) {
+    return assertion("hasChildren(" + count + ")", () -> target().hasChildren(count));
+  }
+
+  /**
+   * Assert that the selected node has the given number of items.
+   *
+   * @param count The item count.
+   * @return This batch.
+   * @see FX#hasItems(int)
+   */
+  public FXBatch hasItems(int count) {
+    return assertion("hasItems(" + count + ")", () -> target().hasItems(count));
+  }
+
+  /**
+   * Assert that the selected node has the given CSS style class assigned.
+   *
+   * @param styleClass The style class.
+   * @return This batch.
+   * @see FX#hasStyleClass(java.lang.String)
+   */
+  public FXBatch hasStyleClass(String styleClass) {
+    return assertion("hasStyleClass(" + styleClass + ")", () -> target().hasStyleClass(styleClass));
+  }
+
+  /**
+   * Assert that the selected node does not have the given CSS style class
+   * assigned.
+   *
+   * @param styleClass The style class.
+   * @return This batch.
+   * @see FX#hasNotStyleClass(java.lang.String)
+   */
+  public FXBatch hasNotStyleClass(String styleClass) {
+    return assertion("hasNotStyleClass(" + styleClass + ")", () -> target().hasNotStyleClass(styleClass));
+  }
+
+  /**
+   * Assert that the selected node has the given text.
+   *
+   * @param text The text.
+   * @return This batch.
+   * @see FX#hasText(java.lang.String)
+   */
+  public FXBatch hasText(String text) {
+    return assertion("hasText(" + text + ")", () -> target().hasText(text));
+  }
+
+  /**
+   * Assert that the selected node is disabled.
+   *
+   * @return This batch.
+   * @see FX#isDisabled()
+   */
+  public FXBatch isDisabled() {
+    return assertion("isDisabled()", () -> target().isDisabled());
+  }
+
+  /**
+   * Assert that the selected node is enabled.
+   *
+   * @return This batch.
+   * @see FX#isEnabled()
+   */
+  public FXBatch isEnabled() {
+    return assertion("isEnabled()", () -> target().isEnabled());
+  }
+
+  /**
+   * Assert that the selected node is focused.
+   *
+   * @return This batch.
+   * @see FX#isFocused()
+   */
+  public FXBatch isFocused() {
+    return assertion("isFocused()", () -> target().isFocused());
+  }
+
+  /**
+   * Assert that the selected node is selected.
+   *
+   * @return This batch.
+   * @see FX#isSelected()
+   */
+  public FXBatch isSelected() {
+    return assertion("isSelected()", () -> target().isSelected());
+  }
+
+  /**
+   * Assert that the selected node is not selected.
+   *
+   * @return This batch.
+   * @see FX#isNotSelected()
+   */
+  public FXBatch isNotSelected() {
+    return assertion("isNotSelected()", () -> target().isNotSelected());
+  }
+
+  /**
+   * Assert that the selected node is visible.
+   *
+   * @return This batch.
+   * @see FX#isVisible()
+   */
+  public FXBatch isVisible() {
+    return assertion("isVisible()", () -> target().isVisible());
+  }
+
+  /**
+   * Assert that the selected node is not visible.
+   *
+   * @return This batch.
+   * @see FX#isNotVisible()
+   */
+  public FXBatch isNotVisible() {
+    return assertion("isNotVisible()", () -> target().isNotVisible());
+  }
+
+  /**
+   * Run an arbitrary assertion on the selected node. An AssertionError thrown
+   * by the assertion is collected like those of the other assertion steps.
+   *
+   * @param assertion The assertion.
+   * @return This batch.
+   */
+  public FXBatch check(Consumer<FX> assertion) {
+    if (assertion == null) {
+      throw new NullPointerException("assertion must not be null.");
+    }
+    return assertion("check()", () -> assertion.accept(target()));
+  }
+
+  /**
+   * End the current group of steps: the following steps are executed in a new
+   * task, after the scene has become idle.
+   *
+   * @return This batch.
+   */
+  public FXBatch pulse() {
+    if (!steps.isEmpty()) {
+      steps = new ArrayList<>();
+      groups.add(steps);
+    }
+    return this;
+  }
+
+  /**
+   * Returns the number of steps of this batch.
+   *
+   * @return The step count.
+   */
+  public int size() {
+    return stepCount;
+  }
+
+  private FX target() {
+    if (target == null) {
+      throw new IllegalStateException("No node selected. Call find(id) first.");
+    }
+    return target;
+  }
+
+  private FXBatch action(String name, Runnable runnable) {
+    return add(new Step(++stepCount, name, runnable, false));
+  }
+
+  private FXBatch assertion(String name, Runnable runnable) {
+    return add(new Step(++stepCount, name, runnable, true));
+  }
+
+  private FXBatch add(Step step) {
+    steps.add(step);
+    return this;
+  }
+
+  /**
+   * Execute all steps.
+   *
+   * @throws AssertionError If assertions failed.
+   */
+  void execute() {
+    final List<Throwable> errors = new ArrayList<>();
+    final Scene scene = stage.getScene();
+    boolean first = true;
+    for (List<Step> group : groups) {
+      if (group.isEmpty()) {
+        continue;
+      }
+      if (!first) {
+        FXHelper.waitForIdle(scene);
+      }
+      first = false;
+      final boolean[] aborted = new boolean[1];
+      try {
+        FXHelper.runAndWait(() -> aborted[0] = execute(group, errors));
+      } catch (ExecutionException ex) {
+        throw new FXUnitException("Cannot execute batch", ex.getCause());
+      }
+      if (aborted[0]) {
+        break;
+      }
+    }
+    target = null;
+    report(errors);
+  }
+
+  /**
+   * Execute the given steps, collecting the errors.
+   *
+   * @return true, if an action failed and the batch has to be aborted.
+   */
+  private static boolean execute(List<Step> group, List<Throwable> errors) {
+    for (Step step : group) {
+      try {
+        step.runnable.run();
+      } catch (AssertionError | RuntimeException ex) {
+        errors.add(step.wrap(ex));
+        if (!step.assertion) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void report(List<Throwable> errors) {
+    if (errors.isEmpty()) {
+      return;
+    }
+    final Throwable last = errors.get(errors.size() - 1);
+    if (errors.size() == 1 && !(last instanceof AssertionError)) {
+      throw (RuntimeException) last;
+    }
+    final StringBuilder message = new StringBuilder();
+    message.append(errors.size()).append(errors.size() == 1 ? " step" : " steps").append(" of batch failed:");
+    for (Throwable error : errors) {
+      message.append(System.lineSeparator()).append("  ").append(error.getMessage());
+    }
+    final AssertionError error = new AssertionError(message.toString());
+    errors.forEach(error::addSuppressed);
+    throw error;
+  }
+
+  @Override
+  public String toString() {
+    return "FXBatch[steps=" + stepCount + ", groups=" + groups.size() + "]";
+  }
+
+  /**
+   * A step of the batch.
+   */
+  private static final class Step {
+
+    private final int index;
+    private final String name;
+    private final Runnable runnable;
+    private final boolean assertion;
+
+    private Step(int index, String name, Runnable runnable, boolean assertion) {
+      this.index = index;
+      this.name = name;
+      this.runnable = runnable;
+      this.assertion = assertion;
+    }
+
+    private Throwable wrap(Throwable ex) {
+      final String message = "Step " + index + ", " + name + ": " + ex.getMessage();
+      return ex instanceof AssertionError
+              ? new AssertionError(message, ex)
+              : new FXUnitException(message, ex);
+    }
+  }
+}
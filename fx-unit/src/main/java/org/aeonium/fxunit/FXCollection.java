@@ -18,6 +18,7 @@
  */
 package org.aeonium.fxunit;
 
+import java.util.List;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 
@@ -43,6 +44,40 @@ public class FXCollection {
     }
   }
 
+  /**
+   * Returns the number of wrapped nodes.
+   *
+   * @return The number of nodes.
+   */
+  public int size() {
+    return this.nodes.size();
+  }
+
+  /**
+   * Assert that this collection wraps the given number of nodes.
+   *
+   * @param count The expected number of nodes.
+   * @return This instance.
+   */
+  public FXCollection hasSize(int count) {
+    if (this.nodes.size() != count) {
+      throw new AssertionError("Expected " + count + " nodes, but found " + this.nodes.size());
+    }
+    return this;
+  }
+
+  /**
+   * Capture immutable snapshots of all wrapped nodes, in a single pass on the
+   * JavaFX application thread. The snapshots may be asserted from any thread,
+   * e.g., with <code>snapshot().parallelStream()</code>.
+   *
+   * @return The snapshots, in the order of the wrapped nodes.
+   * @see FXSnapshot
+   */
+  public List<FXSnapshot> snapshot() {
+    return FXSnapshot.captureAll(this.nodes);
+  }
+
   public FXCollection hasChildren(int count) {
     for (Node node : this.nodes) {
       new FX(node).hasChildren(count);
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javafx.util.Callback;
+
+/**
+ * Creates controllers and injects values into their fields. The constructor and
+ * the fields of a controller class are resolved once, into a constructor lambda
+ * and field setter method handles, and reused for all further controllers of
+ * this class. For dependency injection containers, a controller factory can be
+ * set, that is used instead of the no-arg constructor.
+ * <p>
+ * The controllers of {@link FXUnit#load(java.net.URL, java.lang.Class)}, of
+ * <code>fx:controller</code> declarations and of the generated
+ * {@link FXMLFactory FXML factories} are all created here.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXControllers {
+
+  private static final ClassValue<Supplier<Object>> CONSTRUCTORS = new ClassValue<>() {
+    @Override
+    protected Supplier<Object> computeValue(Class<?> type) {
+      return constructor(type);
+    }
+  };
+
+  private static final ClassValue<Map<String, MethodHandle>> SETTERS = new ClassValue<>() {
+    @Override
+    protected Map<String, MethodHandle> computeValue(Class<?> type) {
+      return setters(type);
+    }
+  };
+
+  private static volatile Callback<Class<?>, Object> controllerFactory;
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXControllers() {
+    // no op.
+  }
+
+  /**
+   * Create a controller of the given class, with the controller factory, if
+   * set, otherwise with the no-arg constructor of the class.
+   *
+   * @param <T> The controller type.
+   * @param type The controller class.
+   * @return The new controller.
+   * @throws FXUnitException If the controller cannot be created, or its
+   * constructor throws an exception.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T create(Class<T> type) {
+    if (type == null) {
+      throw new NullPointerException("Controller class must not be null.");
+    }
+    final Callback<Class<?>, Object> factory = controllerFactory;
+    if (factory != null) {
+      final Object controller = factory.call(type);
+      if (controller != null) {
+        return (T) controller;
+      }
+    }
+    final Supplier<Object> constructor = CONSTRUCTORS.get(type);
+    try {
+      return (T) constructor.get();
+    } catch (FXUnitException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      // the constructor failed, report it like the FXMLLoader does:
+      throw new FXUnitException("Cannot create controller " + type.getName(), ex);
+    }
+  }
+
+  /**
+   * Set the value of a field of the given controller, e.g., a private
+   * <code>@FXML</code> field.
+   *
+   * @param controller The controller.
+   * @param name The name of the field, declared by the controller's class or
+   * one of its super classes.
+   * @param value The value.
+   * @throws FXUnitException If there is no such field or the value cannot be
+   * assigned.
+   */
+  public static void inject(Object controller, String name, Object value) {
+    final MethodHandle setter = SETTERS.get(controller.getClass()).get(name);
+    if (setter == null) {
+      throw new FXUnitException("No field '" + name + "' in " + controller.getClass().getName());
+    }
+    try {
+      setter.invokeExact(controller, value);
+    } catch (ClassCastException ex) {
+      throw new FXUnitException("Cannot assign " + value + " to field '" + name + "' of " + controller.getClass().getName(), ex);
+    } catch (Throwable ex) {
+      throw new FXUnitException("Cannot inject field '" + name + "' of " + controller.getClass().getName(), ex);
+    }
+  }
+
+  /**
+   * Returns the controller factory.
+   *
+   * @return The controller factory, may be null.
+   */
+  public static Callback<Class<?>, Object> getControllerFactory() {
+    return controllerFactory;
+  }
+
+  /**
+   * Set a controller factory, e.g., of a dependency injection container. If it
+   * returns null for a class, the no-arg constructor is used.
+   *
+   * @param aControllerFactory The controller factory, null to use the no-arg
+   * constructors only.
+   */
+  public static void setControllerFactory(Callback<Class<?>, Object> aControllerFactory) {
+    controllerFactory = aControllerFactory;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Supplier<Object> constructor(Class<?> type) {
+    final MethodHandle constructor;
+    final MethodHandles.Lookup lookup;
+    try {
+      lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+      constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+    } catch (IllegalAccessException ex) {
+      // the package is not opened to fx-unit, fall back to reflection:
+      try {
+        final Constructor<?> declared = type.getDeclaredConstructor();
+        return invoker(type, MethodHandles.lookup().unreflectConstructor(makeAccessible(declared)));
+      } catch (NoSuchMethodException | IllegalAccessException e) {
+        e.addSuppressed(ex);
+        return () -> {
+          throw new FXUnitException("Cannot create controller " + type.getName(), e);
+        };
+      }
+    } catch (NoSuchMethodException ex) {
+      return () -> {
+        throw new FXUnitException("Cannot create controller " + type.getName(), ex);
+      };
+    }
+
+    try {
+      return (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+              MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+              constructor, MethodType.methodType(type)).getTarget().invoke();
+    } catch (Throwable ex) {
+      // e.g., hidden classes, fall back to the method handle
+      return invoker(type, constructor);
+    }
+  }
+
+  private static Supplier<Object> invoker(Class<?> type, MethodHandle constructor) {
+    final MethodHandle generic = constructor.asType(MethodType.methodType(Object.class));
+    return () -> {
+      try {
+        return generic.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new FXUnitException("Cannot create controller " + type.getName(), e);
+      }
+    };
+  }
+
+  private static Map<String, MethodHandle> setters(Class<?> type) {
+    final Map<String, MethodHandle> setters = new HashMap<>();
+    for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+      MethodHandles.Lookup lookup;
+      boolean reflective = false;
+      try {
+        lookup = MethodHandles.privateLookupIn(current, MethodHandles.lookup());
+      } catch (IllegalAccessException ex) {
+        // the package is not opened to fx-unit, fall back to reflection:
+        lookup = MethodHandles.lookup();
+        reflective = true;
+      }
+      for (Field field : current.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || setters.containsKey(field.getName())) {
+          continue;
+        }
+        try {
+          setters.put(field.getName(), lookup.unreflectSetter(reflective ? makeAccessible(field) : field)
+                  .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        } catch (IllegalAccessException ex) {
+          // not injectable
+        }
+      }
+    }
+    return setters;
+  }
+
+  /**
+   * Suppress the access checks of the given member, if its module allows it.
+   * Otherwise, it stays as it is, and only public members of exported packages
+   * are accessible.
+   */
+  private static <T extends AccessibleObject> T makeAccessible(T member) {
+    try {
+      member.setAccessible(true);
+    } catch (RuntimeException ex) {
+      // InaccessibleObjectException or SecurityException
+    }
+    return member;
+  }
+}
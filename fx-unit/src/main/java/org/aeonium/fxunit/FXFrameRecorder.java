@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * Records the frame times of a scene into {@link FXFrameStats}: as animation
+ * timer, it takes the time at the beginning of each pulse and records the
+ * interval since the beginning of the previous one, and as post layout pulse
+ * listener of the scene, it records the pulse time until CSS and layout of the
+ * scene are done. While running, the timer keeps the pulses going, so idle
+ * frames are recorded, too. Rendering itself runs on the render thread, and is
+ * not part of the pulse time.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class FXFrameRecorder extends AnimationTimer implements Runnable {
+
+  private final FXFrameStats stats = new FXFrameStats();
+  private long previousPulseStart;
+  private long pulseStart;
+
+  private FXFrameRecorder() {
+    // no op.
+  }
+
+  /**
+   * Run the given interaction on the calling thread and record the frame times
+   * of the given stage's scene meanwhile, until the scene is idle again.
+   *
+   * @param stage The stage.
+   * @param interaction The interaction.
+   * @return The frame times.
+   * @throws FXUnitException If there is no scene to measure, or if called on
+   * the JavaFX application thread, which cannot render while the interaction
+   * runs.
+   */
+  static FXFrameStats measure(Stage stage, Runnable interaction) {
+    if (interaction == null) {
+      throw new NullPointerException("interaction must not be null.");
+    }
+    final Scene scene = stage == null ? null : stage.getScene();
+    if (scene == null) {
+      throw new FXUnitException("No scene to measure, please show a UI first.");
+    }
+    if (Platform.isFxApplicationThread()) {
+      throw new FXUnitException("Cannot measure rendering on the JavaFX application thread.");
+    }
+
+    final FXFrameRecorder recorder = new FXFrameRecorder();
+    FXWatchdog.pause();
+    try {
+      runAndWait(() -> {
+        scene.addPostLayoutPulseListener(recorder);
+        recorder.start();
+      });
+      try {
+        interaction.run();
+        FXHelper.waitForIdle(scene);
+      } finally {
+        runAndWait(() -> {
+          recorder.stop();
+          scene.removePostLayoutPulseListener(recorder);
+        });
+      }
+    } finally {
+      FXWatchdog.resume();
+    }
+    return recorder.stats;
+  }
+
+  private static void runAndWait(Runnable runnable) {
+    try {
+      FXHelper.runAndWait(runnable);
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot record frames.", ex);
+    }
+  }
+
+  @Override
+  public void handle(long now) {
+    pulseStart = System.nanoTime();
+    if (previousPulseStart != 0) {
+      stats.record(pulseStart - previousPulseStart);
+    }
+    previousPulseStart = pulseStart;
+  }
+
+  @Override
+  public void run() {
+    if (pulseStart != 0) {
+      stats.getPulseTimes().record(System.nanoTime() - pulseStart);
+      pulseStart = 0;
+    }
+  }
+}
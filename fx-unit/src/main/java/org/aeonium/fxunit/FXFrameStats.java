@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javafx.util.Duration;
+
+/**
+ * The frame times recorded by {@link FX#measureRendering(java.lang.Runnable)},
+ * i.e., the intervals between the starts of consecutive pulses, as histogram
+ * with a resolution of {@value #RESOLUTION_MICROS} µs up to
+ * {@value #RANGE_MILLIS} ms. At the default pulse rate, a frame takes about
+ * 16.7 ms; a pulse that runs too long delays the next one, so dropped frames
+ * show up as frame times of a multiple of that. Longer frames are counted in
+ * an overflow bucket, but still taken into account for the maximum. The
+ * {@link #getPulseTimes() pulse times}, i.e., the time the JavaFX application
+ * thread spent per pulse on animations, CSS and layout of the measured scene,
+ * are recorded alongside. The histograms are allocated up front, recording a
+ * frame does not allocate.
+ * <pre>
+ * FX.measureRendering(() -&gt; FX.lookup("#expand").click())
+ *         .assertFrameTimeP99Below(Duration.millis(20));
+ * </pre>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXFrameStats {
+
+  /**
+   * The resolution of the histogram in µs.
+   */
+  public static final int RESOLUTION_MICROS = 10;
+
+  /**
+   * The range of the histogram in ms.
+   */
+  public static final int RANGE_MILLIS = 100;
+
+  private static final long RESOLUTION_NANOS = TimeUnit.MICROSECONDS.toNanos(RESOLUTION_MICROS);
+
+  private final int[] buckets = new int[RANGE_MILLIS * 1000 / RESOLUTION_MICROS + 1];
+  private final FXFrameStats pulseTimes;
+  private int frames;
+  private long totalNanos;
+  private long maxNanos;
+
+  /**
+   * Create an empty histogram, with an empty histogram of the pulse times.
+   */
+  FXFrameStats() {
+    this.pulseTimes = new FXFrameStats(null);
+  }
+
+  private FXFrameStats(FXFrameStats pulseTimes) {
+    this.pulseTimes = pulseTimes;
+  }
+
+  /**
+   * Record the time of a frame.
+   *
+   * @param nanos The frame time in ns.
+   */
+  void record(long nanos) {
+    final long bucket = Math.max(0, nanos) / RESOLUTION_NANOS;
+    buckets[(int) Math.min(bucket, buckets.length - 1)]++;
+    frames++;
+    totalNanos += nanos;
+    if (nanos > maxNanos) {
+      maxNanos = nanos;
+    }
+  }
+
+  /**
+   * Returns the number of recorded frames.
+   *
+   * @return The frame count.
+   */
+  public int getFrames() {
+    return frames;
+  }
+
+  /**
+   * Returns the pulse times, i.e., the time the JavaFX application thread
+   * spent per pulse on animations, CSS and layout of the measured scene. A
+   * pulse time close to the frame time means the pulse barely made it in time.
+   * Rendering itself runs on the render thread, and is not part of the pulse
+   * time.
+   *
+   * @return The pulse times, or this instance, if these are the pulse times.
+   */
+  public FXFrameStats getPulseTimes() {
+    return pulseTimes == null ? this : pulseTimes;
+  }
+
+  /**
+   * Returns the frame time of the given percentile, as the upper bound of its
+   * histogram bucket, but at most the maximum frame time.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The frame time, {@link Duration#ZERO} if no frame has been
+   * recorded.
+   */
+  public Duration getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100, but is " + percentile);
+    }
+    if (frames == 0) {
+      return Duration.ZERO;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * frames));
+    long count = 0;
+    for (int i = 0; i < buckets.length - 1; i++) {
+      count += buckets[i];
+      if (count >= rank) {
+        return toDuration(Math.min((i + 1) * RESOLUTION_NANOS, maxNanos));
+      }
+    }
+    return toDuration(maxNanos);
+  }
+
+  /**
+   * Returns the median frame time.
+   *
+   * @return The frame time.
+   */
+  public Duration getP50() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Returns the 99th percentile of the frame times.
+   *
+   * @return The frame time.
+   */
+  public Duration getP99() {
+    return getPercentile(99);
+  }
+
+  /**
+   * Returns the maximum frame time.
+   *
+   * @return The frame time.
+   */
+  public Duration getMax() {
+    return toDuration(maxNanos);
+  }
+
+  /**
+   * Returns the mean frame time.
+   *
+   * @return The frame time, {@link Duration#ZERO} if no frame has been
+   * recorded.
+   */
+  public Duration getMean() {
+    return frames == 0 ? Duration.ZERO : toDuration(totalNanos / frames);
+  }
+
+  /**
+   * Returns the frame counts of the histogram buckets: the count of bucket
+   * <i>i</i> is the number of frames that took from <i>i</i> to <i>i + 1</i>
+   * times the {@link #RESOLUTION_MICROS resolution}, the last bucket counts all
+   * longer frames.
+   *
+   * @return A copy of the bucket counts.
+   */
+  public int[] getBuckets() {
+    return Arrays.copyOf(buckets, buckets.length);
+  }
+
+  /**
+   * Assert that the 99th percentile of the frame times is below the given
+   * duration.
+   *
+   * @param duration The maximum frame time.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXFrameStats assertFrameTimeP99Below(Duration duration) {
+    return assertBelow("99th percentile", getP99(), duration);
+  }
+
+  /**
+   * Assert that the median frame time is below the given duration.
+   *
+   * @param duration The maximum frame time.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXFrameStats assertFrameTimeP50Below(Duration duration) {
+    return assertBelow("median", getP50(), duration);
+  }
+
+  /**
+   * Assert that all frame times are below the given duration.
+   *
+   * @param duration The maximum frame time.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXFrameStats assertFrameTimeMaxBelow(Duration duration) {
+    return assertBelow("maximum", getMax(), duration);
+  }
+
+  /**
+   * Assert that at least the given number of frames has been rendered, e.g.,
+   * to make sure an animation has actually been measured.
+   *
+   * @param minFrames The minimum frame count.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXFrameStats assertFramesAtLeast(int minFrames) {
+    if (frames < minFrames) {
+      throw new AssertionError("At least " + minFrames + " frames expected, but " + frames + " have been rendered.");
+    }
+    return this;
+  }
+
+  private FXFrameStats assertBelow(String name, Duration actual, Duration duration) {
+    if (duration == null) {
+      throw new NullPointerException("duration must not be null.");
+    }
+    if (actual.greaterThanOrEqualTo(duration)) {
+      throw new AssertionError("Frame time " + name + " should be below " + format(duration) + ", but is "
+              + format(actual) + ": " + this);
+    }
+    return this;
+  }
+
+  private static Duration toDuration(long nanos) {
+    return Duration.millis(nanos / 1e6);
+  }
+
+  private static String format(Duration duration) {
+    return String.format(Locale.ROOT, "%.2f ms", duration.toMillis());
+  }
+
+  @Override
+  public String toString() {
+    return "FXFrameStats[frames=" + frames + ", p50=" + format(getP50()) + ", p99=" + format(getP99())
+            + ", max=" + format(getMax())
+            + (pulseTimes == null ? "" : ", pulseTimes=" + pulseTimes) + "]";
+  }
+}
@@ -20,12 +20,18 @@ package org.aeonium.fxunit;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.Accordion;
 import javafx.scene.control.Labeled;
 import javafx.scene.control.Tab;
@@ -43,10 +49,64 @@ import javafx.stage.Stage;
 public final class FXHelper {
 
   /**
-   * Delay in milliseconds, defaults to 200. Maybe you need to adjust this.
+   * Delay in milliseconds, defaults to 200. Maybe you need to adjust this. The
+   * delay is only used if {@link #isFixedDelays() fixed delays} are enabled.
    */
   private static int delay = 200;
 
+  /**
+   * Whether to sleep for a fixed {@link #delay} after UI actions, instead of
+   * waiting for the UI to become idle. Defaults to the system property
+   * <code>fxunit.fixedDelays</code>, i.e., false.
+   */
+  private static boolean fixedDelays = Boolean.getBoolean("fxunit.fixedDelays");
+
+  /**
+   * Maximum time in milliseconds to wait for the UI to become idle, defaults to
+   * the system property <code>fxunit.idle.timeout</code> or 5000.
+   */
+  private static long idleTimeout = Long.getLong("fxunit.idle.timeout", 5000);
+
+  /**
+   * Maximum time in milliseconds to wait for a condition, e.g., in
+   * {@link FX#waitForText(java.lang.String)}, defaults to the system property
+   * <code>fxunit.wait.timeout</code> or 10000.
+   */
+  private static long waitTimeout = Long.getLong("fxunit.wait.timeout", 10000);
+
+  /**
+   * Whether {@link #typeKey(javafx.scene.Node, java.lang.String)} fires the key
+   * events for a whole string in bulk, instead of character by character with
+   * a delay after each. Defaults to the system property
+   * <code>fxunit.typing.bulk</code>, or true.
+   */
+  private static boolean bulkTyping = Boolean.parseBoolean(System.getProperty("fxunit.typing.bulk", "true"));
+
+  /**
+   * Number of characters after which bulk typing yields, i.e., lets the scene
+   * run through pulses until it is idle, before it continues. Defaults to the
+   * system property <code>fxunit.typing.yield</code>, or 0, i.e., the whole
+   * string is typed in one go.
+   */
+  private static int typingYieldInterval = Integer.getInteger("fxunit.typing.yield", 0);
+
+  /**
+   * Strings of the ASCII characters, to not allocate one per typed character.
+   */
+  private static final String[] CHARACTERS = new String[128];
+
+  static {
+    for (char c = 0; c < CHARACTERS.length; c++) {
+      CHARACTERS[c] = String.valueOf(c);
+    }
+  }
+
+  /**
+   * Number of consecutive pulses without layout work that are required to
+   * consider a scene idle.
+   */
+  private static final int QUIET_PULSES = 2;
+
   /**
    * Private contructor, there is no need to instantiate this class.
    */
@@ -58,11 +118,16 @@ public final class FXHelper {
    * Pause the current thread for 1s.
    */
   public static void sleep() {
+    final FXTrace.DelayEvent event = FXTrace.beginDelay("sleep", 1000);
+    final long start = System.nanoTime();
     try {
       Thread.sleep(1000);
     } catch (InterruptedException ex) {
       Logger.getLogger(FXHelper.class.getName()).log(Level.SEVERE, null, ex);
       Thread.currentThread().interrupt();
+    } finally {
+      FXMetrics.recordSleep(start);
+      event.commit();
     }
   }
 
@@ -73,7 +138,7 @@ public final class FXHelper {
    */
   public static void clearText(Labeled labeled) {
     invokeOnFXThread(() -> labeled.setText(""));
-    doDelay();
+    doDelay(labeled);
   }
   
   public static void expand(TitledPane pane){
@@ -81,7 +146,7 @@ public final class FXHelper {
       throw new NullPointerException("No titled pane given.");
     }
     invokeOnFXThread(() -> pane.setExpanded(true));
-    doDelay();
+    doDelay(pane);
   }
   
   public static void expand(Accordion accordion, int index){
@@ -92,7 +157,7 @@ public final class FXHelper {
       throw new IndexOutOfBoundsException("Accordion index is out of bounds: " + index);
     }
     invokeOnFXThread(() -> expand(accordion.getPanes().get(index)));
-    doDelay();
+    doDelay(accordion);
   }
 
   /**
@@ -122,41 +187,30 @@ public final class FXHelper {
   public static void focus(Node node) {
 
     invokeOnFXThread(node::requestFocus);
-    doDelay();
+    doDelay(node);
   }
   
-  public static KeyCode getKeycode(Character c){
-    KeyCode keyCode = null;
-    final String t = c.toString();
-    switch (t) {
-      case " ":
-        keyCode = KeyCode.SPACE;
-        break;
-      case ".":
-        keyCode = KeyCode.PERIOD;
-        break;
-      case ",":
-        keyCode = KeyCode.COMMAND;
-        break;
-      case ":":
-        keyCode = KeyCode.COLON;
-        break;
-      case ";":
-        keyCode = KeyCode.SEMICOLON;
-        break;
-      case "-":
-        keyCode = KeyCode.MINUS;
-        break;
-      case "_":
-        keyCode = KeyCode.UNDERSCORE;
-        break;
-      case "+":
-        keyCode = KeyCode.PLUS;
-        break;
-      default:
-        keyCode = KeyCode.getKeyCode(t.toUpperCase());
-        break;
-    }
+  /**
+   * Returns the key code that types the given character with the
+   * {@link FXKeyboardLayout#getDefault() default keyboard layout}, e.g.,
+   * DIGIT1 for '!'. The modifiers, like SHIFT, are provided by the layout.
+   *
+   * @param c The character.
+   * @return The key code.
+   * @throws FXUnitException If the layout has no key for the character.
+   */
+  public static KeyCode getKeycode(Character c) {
+    return getKeycode(c, FXKeyboardLayout.getDefault());
+  }
+
+  /**
+   * Returns the key code that types the given character with the given
+   * layout, without boxing the character.
+   *
+   * @throws FXUnitException If the layout has no key for the character.
+   */
+  static KeyCode getKeycode(char c, FXKeyboardLayout layout) {
+    final KeyCode keyCode = layout.getKeyCode(c);
     if (keyCode == null) {
       throw new FXUnitException("No keycode found for " + c);
     }
@@ -178,7 +232,8 @@ public final class FXHelper {
     if (Platform.isFxApplicationThread()) {
       runnable.run();
     } else {
-      Platform.runLater(runnable);
+      FXMetrics.recordHop();
+      FXScheduler.schedule(runnable);
     }
   }
 
@@ -200,11 +255,15 @@ public final class FXHelper {
       runnable.run();
     } else {
       FutureTask<Void> future = new FutureTask<>(runnable, null);
-      Platform.runLater(future);
+      final long start = System.nanoTime();
+      FXMetrics.recordHop();
+      FXScheduler.schedule(future);
       try {
         future.get();
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordBlocked(start);
       }
     }
   }
@@ -215,35 +274,86 @@ public final class FXHelper {
       throw new NullPointerException("No Tab found with ID '" + id + "'");
     }
     tabPane.getSelectionModel().select(findTab);
-    doDelay();
+    doDelay(tabPane);
   }
 
   /**
-   * Shut down a test stage, i.e., hide it an release it's content.
+   * Shut down a test stage, i.e., hide it an release it's content. If
+   * {@link FXLeakDetector#isEnabled() leak checks} are enabled, wait until the
+   * stage is hidden, and assert that its scene and root node get garbage
+   * collected.
    *
    * @param stage The stage to be closed.
+   * @throws AssertionError If the scene or root node is still reachable, with
+   * leak checks enabled.
    */
   public static void shutdownStage(Stage stage) {
     if (stage == null) {
       return;
     }
+    final FXLeakDetector detector = FXLeakDetector.isEnabled() && !Platform.isFxApplicationThread()
+            ? watchScene(stage) : null;
     FXHelper.invokeOnFXThread(() -> {
       stage.hide();
       stage.setScene(null);
     });
+    if (detector != null) {
+      waitForIdle(null);
+      detector.assertCollected();
+    }
+  }
+
+  private static FXLeakDetector watchScene(Stage stage) {
+    final Scene scene = stage.getScene();
+    return new FXLeakDetector()
+            .watch("root", scene == null ? null : scene.getRoot())
+            .watch("scene", scene);
   }
 
   /**
    * Send key events to the target node that simulate the typing of the given
-   * character sequence.
+   * character sequence, i.e., send a sequence of
+   * KEY_PRESSED-KEY_TYPED-KEY_RELEASED events per character.
+   * <p>
+   * In {@link #isBulkTyping() bulk typing} mode, the events for all characters
+   * are fired in one task on the JavaFX application thread, optionally
+   * yielding every {@link #getTypingYieldInterval() n} characters, and the
+   * method waits once for the UI to become idle at the end. Otherwise, the
+   * characters are typed one by one with
+   * {@link #typeKey(javafx.scene.Node, java.lang.Character)}. The sequence of
+   * events is the same in both modes.</p>
    *
    * @param target The target node
    * @param t The character sequence
+   * @throws FXUnitException If the layout has no key for a character, before
+   * any character is typed.
    */
   public static void typeKey(Node target, String t) {
-    for (char c : t.toCharArray()) {
-      typeKey(target, c);
+    final FXKeyboardLayout layout = FXKeyboardLayout.getDefault();
+    for (int i = 0; i < t.length(); i++) {
+      getKeycode(t.charAt(i), layout);
+    }
+    if (!bulkTyping || t.isEmpty()) {
+      for (char c : t.toCharArray()) {
+        typeKey(target, c);
+      }
+      return;
     }
+
+    final int chunk = typingYieldInterval > 0 ? typingYieldInterval : t.length();
+    for (int start = 0; start < t.length(); start += chunk) {
+      if (start > 0) {
+        doDelay(target);
+      }
+      final int from = start;
+      final int to = Math.min(t.length(), start + chunk);
+      invokeOnFXThread(() -> {
+        for (int i = from; i < to; i++) {
+          fireKeyTyped(target, t.charAt(i), layout);
+        }
+      });
+    }
+    doDelay(target);
   }
 
   /**
@@ -253,17 +363,31 @@ public final class FXHelper {
    *
    * @param target The target node
    * @param c The character
+   * @throws FXUnitException If the layout has no key for the character.
    */
   public static void typeKey(Node target, Character c) {
-    final String t = c.toString();
-    final KeyCode keyCode = getKeycode(c);
+    final FXKeyboardLayout layout = FXKeyboardLayout.getDefault();
+    getKeycode(c, layout);
 
-    invokeOnFXThread(() -> {
-      Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_PRESSED, t, t, keyCode, false, false, false, false));
-      Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_TYPED, t, t, keyCode, false, false, false, false));
-      Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_RELEASED, t, t, keyCode, false, false, false, false));
-    });
-    doDelay();
+    invokeOnFXThread(() -> fireKeyTyped(target, c, layout));
+    doDelay(target);
+  }
+
+  /**
+   * Fire the key events for the given character, with the key code and
+   * modifiers of the given layout. The character must be part of the layout.
+   */
+  private static void fireKeyTyped(Node target, char c, FXKeyboardLayout layout) {
+    final String t = c < CHARACTERS.length ? CHARACTERS[c] : String.valueOf(c);
+    final KeyCode keyCode = layout.getKeyCode(c);
+    final int modifiers = layout.getModifiers(c);
+    final boolean shift = (modifiers & FXKeyboardLayout.SHIFT) != 0;
+    final boolean control = (modifiers & FXKeyboardLayout.CONTROL) != 0;
+    final boolean alt = (modifiers & FXKeyboardLayout.ALT) != 0;
+    final boolean meta = (modifiers & FXKeyboardLayout.META) != 0;
+    Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_PRESSED, t, t, keyCode, shift, control, alt, meta));
+    Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_TYPED, t, t, keyCode, shift, control, alt, meta));
+    Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_RELEASED, t, t, keyCode, shift, control, alt, meta));
   }
 
   /**
@@ -282,29 +406,182 @@ public final class FXHelper {
 
     final String t = keyCode.toString();
     if (t.length() == 1 && Character.isAlphabetic(t.codePointAt(0))) {
-      typeKey(target, t.charAt(0));
+      typeKey(target, Character.toLowerCase(t.charAt(0)));
     } else {
       invokeOnFXThread(() -> {
         Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_PRESSED, null, null, keyCode, false, false, false, false));
         Event.fireEvent(target, new KeyEvent(KeyEvent.KEY_RELEASED, null, null, keyCode, false, false, false, false));
       });
-      doDelay();
+      doDelay(target);
+    }
+  }
+
+  /**
+   * Wait for the UI of the given node to become idle, see
+   * {@link #waitForIdle(javafx.scene.Scene)}, or sleep for <i>n</i>
+   * milliseconds specified by {@link #delay} if {@link #isFixedDelays() fixed
+   * delays} are enabled. Does nothing if executing on the JavaFX applicaton
+   * thread.
+   *
+   * @param node The node that has been acted on, may be null.
+   */
+  private static void doDelay(Node node) {
+    if (Platform.isFxApplicationThread()) {
+      return;
     }
+    if (fixedDelays) {
+      if (delay > 0) {
+        sleep(delay);
+      }
+    } else {
+      waitForIdle(node == null ? null : node.getScene());
+    }
+  }
+
+  /**
+   * Sleep for the given time, if NOT executing on the JavaFX applicaton thread.
+   *
+   * @param millis The time in ms.
+   */
+  static void sleep(long millis) {
+    if (millis > 0 && !Platform.isFxApplicationThread()) {
+      final FXTrace.DelayEvent event = FXTrace.beginDelay("sleep", millis);
+      final long start = System.nanoTime();
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException ex) {
+        Logger.getLogger(FXHelper.class.getName()).log(Level.INFO, null, ex);
+        Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordSleep(start);
+        event.commit();
+      }
+    }
+  }
+
+  /**
+   * Wait for the scene of the current testing stage to become idle.
+   *
+   * @see #waitForIdle(javafx.scene.Scene)
+   */
+  public static void waitForIdle() {
+    final Stage stage = FXUnit.getStage();
+    waitForIdle(stage == null ? null : stage.getScene());
   }
 
   /**
-   * Sleep for <i>n</i> milliseconds specified by {@link #delay} if NOT executing on
-   * the JavaFX applicaton thread.
+   * Wait for the given scene to become idle, i.e., wait until all tasks that
+   * have been queued with {@link Platform#runLater(java.lang.Runnable)} have
+   * been executed, and the scene has run through {@value #QUIET_PULSES}
+   * consecutive pulses without pending layout work. Pending CSS is not checked
+   * by itself, as JavaFX does not expose it; CSS is applied in the same pulse,
+   * before the layout, and style changes that affect the layout are caught by
+   * the layout check. Animations that affect the layout, like expanding a
+   * TitledPane, keep the scene busy. The
+   * method returns as soon as the scene is idle, at the latest after the
+   * {@link #getIdleTimeout() idle timeout}. Does nothing if executing on the
+   * JavaFX applicaton thread.
+   *
+   * @param scene The scene, if null, only the runLater queue is drained.
    */
-  private static void doDelay() {
-    if (delay > 0 && !Platform.isFxApplicationThread()) {
+  public static void waitForIdle(Scene scene) {
+    if (Platform.isFxApplicationThread()) {
+      return;
+    }
+    final FXTrace.DelayEvent event = FXTrace.beginDelay("idle", idleTimeout);
+    final long start = System.nanoTime();
+    try {
+      awaitIdle(scene);
+    } finally {
+      FXMetrics.recordWait(start);
+      event.commit();
+    }
+  }
+
+  private static void awaitIdle(Scene scene) {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+    if (scene != null) {
+      final Semaphore pulses = new Semaphore(0);
+      final AtomicInteger quietPulses = new AtomicInteger();
+      final Runnable preLayout = () -> {
+        if (scene.getRoot() != null && scene.getRoot().isNeedsLayout()) {
+          quietPulses.set(-1);
+        }
+      };
+      final Runnable postLayout = () -> {
+        if (quietPulses.get() < 0 || (scene.getRoot() != null && scene.getRoot().isNeedsLayout())) {
+          quietPulses.set(0);
+        } else {
+          quietPulses.incrementAndGet();
+        }
+        pulses.release();
+      };
+      // set before the removal is queued, so that a registration that is still
+      // queued after a timeout does not add the listeners anymore:
+      final AtomicBoolean done = new AtomicBoolean();
       try {
-        Thread.sleep(delay);
+        if (!drainQueue(() -> {
+          if (done.get()) {
+            return;
+          }
+          scene.addPreLayoutPulseListener(preLayout);
+          scene.addPostLayoutPulseListener(postLayout);
+          Platform.requestNextPulse();
+        }, deadline)) {
+          return;
+        }
+        while (quietPulses.get() < QUIET_PULSES) {
+          final long remaining = deadline - System.nanoTime();
+          if (remaining <= 0 || !pulses.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+            Logger.getLogger(FXHelper.class.getName()).log(Level.FINE, "Scene did not become idle within {0} ms.", idleTimeout);
+            break;
+          }
+          Platform.requestNextPulse();
+        }
       } catch (InterruptedException ex) {
         Logger.getLogger(FXHelper.class.getName()).log(Level.INFO, null, ex);
         Thread.currentThread().interrupt();
+      } finally {
+        done.set(true);
+        try {
+          Platform.runLater(() -> {
+            scene.removePreLayoutPulseListener(preLayout);
+            scene.removePostLayoutPulseListener(postLayout);
+          });
+        } catch (IllegalStateException ex) {
+          // the toolkit has exited, nothing left to clean up.
+          Logger.getLogger(FXHelper.class.getName()).log(Level.FINE, null, ex);
+        }
       }
     }
+    drainQueue(() -> {
+      // no op, just wait for previously queued tasks.
+    }, deadline);
+  }
+
+  /**
+   * Put the given runnable on the JavaFX application thread and wait until it
+   * has been executed, i.e., until all tasks queued before have been executed.
+   *
+   * @param runnable The runnable.
+   * @param deadline The deadline, in terms of {@link System#nanoTime()}.
+   * @return true, if the runnable has been executed before the deadline, false
+   * if it timed out or the toolkit is not running.
+   */
+  private static boolean drainQueue(Runnable runnable, long deadline) {
+    final FutureTask<Void> future = new FutureTask<>(runnable, null);
+    try {
+      // pass through the scheduler, then through the runLater queue:
+      FXScheduler.schedule(() -> Platform.runLater(future));
+      future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      return true;
+    } catch (InterruptedException ex) {
+      Logger.getLogger(FXHelper.class.getName()).log(Level.INFO, null, ex);
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException | IllegalStateException ex) {
+      Logger.getLogger(FXHelper.class.getName()).log(Level.FINE, null, ex);
+    }
+    return false;
   }
 
   /**
@@ -325,4 +602,122 @@ public final class FXHelper {
     delay = aDelay;
   }
 
+  /**
+   * Check whether fixed delays are used after UI actions, instead of waiting
+   * for the UI to become idle.
+   *
+   * @return true, if fixed delays are used.
+   */
+  public static boolean isFixedDelays() {
+    return fixedDelays;
+  }
+
+  /**
+   * Set whether to use fixed delays after UI actions (the fallback mode),
+   * instead of waiting for the UI to become idle (the default).
+   *
+   * @param aFixedDelays true for fixed delays.
+   */
+  public static void setFixedDelays(boolean aFixedDelays) {
+    fixedDelays = aFixedDelays;
+  }
+
+  /**
+   * Get the maximum time to wait for a condition, e.g., in
+   * {@link FX#waitForText(java.lang.String)}.
+   *
+   * @return The timeout in ms.
+   */
+  public static long getWaitTimeout() {
+    return waitTimeout;
+  }
+
+  /**
+   * Set the maximum time to wait for a condition.
+   *
+   * @param aWaitTimeout The timeout in ms.
+   */
+  public static void setWaitTimeout(long aWaitTimeout) {
+    waitTimeout = aWaitTimeout;
+  }
+
+  /**
+   * Check whether {@link #typeKey(javafx.scene.Node, java.lang.String)} types
+   * strings in bulk.
+   *
+   * @return true, if bulk typing is enabled.
+   */
+  public static boolean isBulkTyping() {
+    return bulkTyping;
+  }
+
+  /**
+   * Set whether {@link #typeKey(javafx.scene.Node, java.lang.String)} types
+   * strings in bulk (the default), or character by character.
+   *
+   * @param aBulkTyping true for bulk typing.
+   */
+  public static void setBulkTyping(boolean aBulkTyping) {
+    bulkTyping = aBulkTyping;
+  }
+
+  /**
+   * Get the number of characters after which bulk typing lets the UI become
+   * idle, before it continues.
+   *
+   * @return The number of characters, 0 if bulk typing does not yield.
+   */
+  public static int getTypingYieldInterval() {
+    return typingYieldInterval;
+  }
+
+  /**
+   * Set the number of characters after which bulk typing lets the UI become
+   * idle, before it continues.
+   *
+   * @param aTypingYieldInterval The number of characters, 0 to never yield.
+   */
+  public static void setTypingYieldInterval(int aTypingYieldInterval) {
+    if (aTypingYieldInterval < 0) {
+      throw new IllegalArgumentException("Typing yield interval cannot be less than 0");
+    }
+    typingYieldInterval = aTypingYieldInterval;
+  }
+
+  /**
+   * Get the maximum time to wait for the UI to become idle.
+   *
+   * @return The timeout in ms.
+   */
+  public static long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Set the maximum time to wait for the UI to become idle.
+   *
+   * @param anIdleTimeout The timeout in ms.
+   */
+  public static void setIdleTimeout(long anIdleTimeout) {
+    idleTimeout = anIdleTimeout;
+  }
+
+  /**
+   * Get the time the JavaFX application thread has spent on work submitted by
+   * FXUnit, e.g., showing stages and UI actions, since the start or the last
+   * {@link #resetFXThreadBusyTime() reset}.
+   *
+   * @return The busy time in ms.
+   */
+  public static double getFXThreadBusyTime() {
+    return FXScheduler.getBusyTime() / 1e6;
+  }
+
+  /**
+   * Reset the JavaFX application thread busy time to 0.
+   */
+  public static void resetFXThreadBusyTime() {
+    FXScheduler.resetBusyTime();
+  }
+
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.robot.Robot;
+import javafx.stage.Window;
+
+/**
+ * A pipeline for synthetic key and mouse input: the operations are queued and
+ * then {@link #flush() flushed} in a single task on the JavaFX application
+ * thread, using the robot of the {@link FXUnitContext#getRobot() test context}.
+ * Afterwards, the flush waits until the resulting key pressed/released and
+ * mouse pressed/released events have been dispatched, instead of sleeping for a
+ * fixed time. The events are counted in all windows that are showing when the
+ * operations are executed, e.g., also in a popup of the target node. Events that
+ * go to a window opened during the flush are missed, hence the wait is bounded
+ * by {@value #DISPATCH_TIMEOUT_MILLIS} ms, or the
+ * {@link FXHelper#getIdleTimeout() idle timeout} if that is shorter, and a
+ * warning is logged when it elapses.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class FXInput {
+
+  private static final Logger LOG = Logger.getLogger(FXInput.class.getName());
+
+  /**
+   * The modifier keys, in the order of the {@link FXKeyboardLayout} modifier
+   * bits.
+   */
+  private static final KeyCode[] MODIFIERS = {KeyCode.SHIFT, KeyCode.CONTROL, KeyCode.ALT, KeyCode.META};
+
+  /**
+   * The maximum time to wait for the dispatch of the input events, in
+   * milliseconds.
+   */
+  static final long DISPATCH_TIMEOUT_MILLIS = 1000;
+
+  private final FXUnitContext context;
+  private final Node target;
+  private final List<Consumer<Robot>> operations = new ArrayList<>();
+  private int expectedEvents;
+
+  /**
+   * Create a new pipeline.
+   *
+   * @param context The context that provides the robot.
+   * @param target The target node, whose window receives the events, may be
+   * null.
+   */
+  FXInput(FXUnitContext context, Node target) {
+    this.context = context;
+    this.target = target;
+  }
+
+  /**
+   * Create a new pipeline for the current context.
+   *
+   * @param target The target node, may be null.
+   * @return The pipeline.
+   */
+  static FXInput of(Node target) {
+    return new FXInput(FXUnitContext.current(), target);
+  }
+
+  FXInput keyPress(KeyCode code) {
+    return add(robot -> robot.keyPress(code), 1);
+  }
+
+  FXInput keyRelease(KeyCode code) {
+    return add(robot -> robot.keyRelease(code), 1);
+  }
+
+  FXInput keyType(KeyCode code) {
+    return add(robot -> robot.keyType(code), 2);
+  }
+
+  /**
+   * Type the given text with the keys of the
+   * {@link FXKeyboardLayout#getDefault() default keyboard layout}, holding down
+   * the modifiers, e.g., SHIFT, as required by the layout.
+   *
+   * @param text The text.
+   * @return This pipeline.
+   * @throws FXUnitException If the layout has no key for a character, before
+   * any key of the text is queued.
+   */
+  FXInput keyType(String text) {
+    final FXKeyboardLayout layout = FXKeyboardLayout.getDefault();
+    for (int i = 0; i < text.length(); i++) {
+      FXHelper.getKeycode(text.charAt(i), layout);
+    }
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      final KeyCode keyCode = layout.getKeyCode(c);
+      final int modifiers = layout.getModifiers(c);
+      for (int m = 0; m < MODIFIERS.length; m++) {
+        if ((modifiers & (1 << m)) != 0) {
+          keyPress(MODIFIERS[m]);
+        }
+      }
+      keyType(keyCode);
+      for (int m = MODIFIERS.length - 1; m >= 0; m--) {
+        if ((modifiers & (1 << m)) != 0) {
+          keyRelease(MODIFIERS[m]);
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Move the mouse to the center of the target node, at the time the
+   * operation is executed.
+   *
+   * @return This pipeline.
+   */
+  FXInput mouseMoveToTarget() {
+    if (target == null) {
+      throw new NullPointerException("No target node.");
+    }
+    return add(robot -> {
+      final Bounds bounds = target.localToScreen(target.getBoundsInLocal());
+      if (bounds == null) {
+        throw new IllegalStateException(target + " is not showing, cannot move the mouse to it.");
+      }
+      robot.mouseMove(bounds.getCenterX(), bounds.getCenterY());
+    }, 0);
+  }
+
+  FXInput mouseClick(MouseButton button) {
+    return add(robot -> robot.mouseClick(button), 2);
+  }
+
+  private FXInput add(Consumer<Robot> operation, int events) {
+    operations.add(operation);
+    expectedEvents += events;
+    return this;
+  }
+
+  /**
+   * Execute the queued operations in one task on the JavaFX application
+   * thread, and wait until the events have been dispatched. Does not wait, if
+   * executing on the JavaFX application thread.
+   */
+  void flush() {
+    if (operations.isEmpty()) {
+      return;
+    }
+    final List<Consumer<Robot>> queued = new ArrayList<>(operations);
+    final int expected = expectedEvents;
+    operations.clear();
+    expectedEvents = 0;
+
+    final Semaphore dispatched = new Semaphore(0);
+    final EventHandler<Event> counter = event -> {
+      final Object type = event.getEventType();
+      if (type == KeyEvent.KEY_PRESSED || type == KeyEvent.KEY_RELEASED
+              || type == MouseEvent.MOUSE_PRESSED || type == MouseEvent.MOUSE_RELEASED) {
+        dispatched.release();
+      }
+    };
+    final Window[] window = new Window[1];
+    final List<Window> windows = new ArrayList<>();
+    FXMetrics.recordInput(expected);
+    try {
+      FXHelper.runAndWait(() -> {
+        window[0] = getWindow();
+        if (window[0] != null && expected > 0) {
+          windows.addAll(Window.getWindows());
+          for (Window showing : windows) {
+            showing.addEventFilter(Event.ANY, counter);
+          }
+        }
+        final Robot robot = context.getRobot();
+        for (Consumer<Robot> operation : queued) {
+          operation.accept(robot);
+        }
+      });
+    } catch (ExecutionException ex) {
+      LOG.log(Level.SEVERE, null, ex);
+      throw new RuntimeException(ex);
+    }
+
+    if (Platform.isFxApplicationThread()) {
+      removeFilters(windows, counter);
+      return;
+    }
+    if (!windows.isEmpty()) {
+      final long timeout = Math.min(DISPATCH_TIMEOUT_MILLIS, FXHelper.getIdleTimeout());
+      final long start = System.nanoTime();
+      try {
+        if (!dispatched.tryAcquire(expected, timeout, TimeUnit.MILLISECONDS)) {
+          LOG.log(Level.WARNING, "Only {0} of {1} input events have been dispatched within {2} ms, "
+                  + "the others may have gone to a window that opened meanwhile.",
+                  new Object[]{dispatched.availablePermits(), expected, timeout});
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordWait(start);
+        Platform.runLater(() -> removeFilters(windows, counter));
+      }
+    } else {
+      FXHelper.waitForIdle(window[0] == null ? null : window[0].getScene());
+    }
+  }
+
+  private Window getWindow() {
+    if (target == null) {
+      return null;
+    }
+    final Scene scene = target.getScene();
+    return scene == null ? null : scene.getWindow();
+  }
+
+  private static void removeFilters(List<Window> windows, EventHandler<Event> counter) {
+    for (Window window : windows) {
+      window.removeEventFilter(Event.ANY, counter);
+    }
+  }
+}
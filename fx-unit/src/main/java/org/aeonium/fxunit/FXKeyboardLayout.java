@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import javafx.scene.input.KeyCode;
+
+/**
+ * A keyboard layout, i.e., a table that maps characters to the key code and
+ * the modifiers (e.g., SHIFT) that type the character. Layouts are read once
+ * from the class path resource
+ * <code>/org/aeonium/fxunit/keyboard/&lt;name&gt;.properties</code>, see
+ * <code>us.properties</code> for the format, and kept in a compact, paged
+ * array table, so that lookups do not allocate.
+ * <p>
+ * The {@link #getDefault() default layout} is used by
+ * {@link FXHelper#typeKey(javafx.scene.Node, java.lang.String)} and
+ * {@link FX#keyType(java.lang.String)}. It is the layout named by the system
+ * property <code>fxunit.keyboard.layout</code>, or "us".</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXKeyboardLayout {
+
+  /**
+   * Modifier bit of {@link #getModifiers(char)}: the character is typed with
+   * the shift key held down.
+   */
+  public static final int SHIFT = 1;
+
+  /**
+   * Modifier bit of {@link #getModifiers(char)}: the character is typed with
+   * the control key held down.
+   */
+  public static final int CONTROL = 1 << 1;
+
+  /**
+   * Modifier bit of {@link #getModifiers(char)}: the character is typed with
+   * the alt key held down.
+   */
+  public static final int ALT = 1 << 2;
+
+  /**
+   * Modifier bit of {@link #getModifiers(char)}: the character is typed with
+   * the meta key held down.
+   */
+  public static final int META = 1 << 3;
+
+  private static final String[] MODIFIER_NAMES = {"SHIFT", "CONTROL", "ALT", "META"};
+  private static final KeyCode[] KEY_CODES = KeyCode.values();
+  private static final int CODE_BITS = 9;
+  private static final int CODE_MASK = (1 << CODE_BITS) - 1;
+
+  private static final Map<String, FXKeyboardLayout> LAYOUTS = new ConcurrentHashMap<>();
+  private static volatile FXKeyboardLayout defaultLayout;
+
+  private final String name;
+
+  /**
+   * The table, paged by the high byte of the character. An entry holds the
+   * key code ordinal + 1 in the low bits and the modifiers above, 0 means not
+   * mapped.
+   */
+  private final short[][] pages = new short[256][];
+
+  private FXKeyboardLayout(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Returns the layout with the given name, loads it on first use.
+   *
+   * @param name The layout name, e.g., "us".
+   * @return The layout.
+   * @throws FXUnitException If there is no such layout or it is invalid.
+   */
+  public static FXKeyboardLayout forName(String name) {
+    if (name == null) {
+      throw new NullPointerException("name must not be null.");
+    }
+    return LAYOUTS.computeIfAbsent(name, FXKeyboardLayout::load);
+  }
+
+  /**
+   * Returns the default layout.
+   *
+   * @return The default layout.
+   */
+  public static FXKeyboardLayout getDefault() {
+    FXKeyboardLayout layout = defaultLayout;
+    if (layout == null) {
+      layout = forName(System.getProperty("fxunit.keyboard.layout", "us"));
+      defaultLayout = layout;
+    }
+    return layout;
+  }
+
+  /**
+   * Set the default layout.
+   *
+   * @param layout The layout, null to reset to the layout of the system
+   * property <code>fxunit.keyboard.layout</code>.
+   */
+  public static void setDefault(FXKeyboardLayout layout) {
+    defaultLayout = layout;
+  }
+
+  private static FXKeyboardLayout load(String name) {
+    final String resource = "keyboard/" + name + ".properties";
+    final Properties properties = new Properties();
+    try (InputStream in = FXKeyboardLayout.class.getResourceAsStream(resource)) {
+      if (in == null) {
+        throw new FXUnitException("No keyboard layout found: " + name);
+      }
+      properties.load(in);
+    } catch (IOException ex) {
+      throw new FXUnitException("Cannot read keyboard layout " + name, ex);
+    }
+
+    final FXKeyboardLayout layout = new FXKeyboardLayout(name);
+    for (String key : properties.stringPropertyNames()) {
+      if (key.length() != 1) {
+        throw new FXUnitException("Invalid keyboard layout " + name + ", not a single character: " + key);
+      }
+      layout.put(key.charAt(0), properties.getProperty(key).trim());
+    }
+    return layout;
+  }
+
+  private void put(char c, String value) {
+    int modifiers = 0;
+    final String[] parts = value.split("\\+");
+    for (int i = 0; i < parts.length - 1; i++) {
+      modifiers |= modifier(parts[i].trim());
+    }
+    final KeyCode keyCode;
+    try {
+      keyCode = KeyCode.valueOf(parts[parts.length - 1].trim());
+    } catch (IllegalArgumentException ex) {
+      throw new FXUnitException("Invalid keyboard layout " + name + ", unknown key code: " + value, ex);
+    }
+
+    short[] page = pages[c >>> 8];
+    if (page == null) {
+      page = new short[256];
+      pages[c >>> 8] = page;
+    }
+    page[c & 0xFF] = (short) ((keyCode.ordinal() + 1) | (modifiers << CODE_BITS));
+  }
+
+  private int modifier(String modifierName) {
+    for (int i = 0; i < MODIFIER_NAMES.length; i++) {
+      if (MODIFIER_NAMES[i].equals(modifierName)) {
+        return 1 << i;
+      }
+    }
+    throw new FXUnitException("Invalid keyboard layout " + name + ", unknown modifier: " + modifierName);
+  }
+
+  private int entry(char c) {
+    final short[] page = pages[c >>> 8];
+    return page == null ? 0 : page[c & 0xFF];
+  }
+
+  /**
+   * Returns the name of this layout.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Check whether this layout has a key for the given character.
+   *
+   * @param c The character.
+   * @return true, if the character can be typed.
+   */
+  public boolean contains(char c) {
+    return entry(c) != 0;
+  }
+
+  /**
+   * Returns the key code that types the given character, together with the
+   * {@link #getModifiers(char) modifiers}.
+   *
+   * @param c The character.
+   * @return The key code, or null if the character is not part of this
+   * layout.
+   */
+  public KeyCode getKeyCode(char c) {
+    final int entry = entry(c);
+    return entry == 0 ? null : KEY_CODES[(entry & CODE_MASK) - 1];
+  }
+
+  /**
+   * Returns the modifiers that have to be held down to type the given
+   * character, a combination of {@link #SHIFT}, {@link #CONTROL},
+   * {@link #ALT} and {@link #META}.
+   *
+   * @param c The character.
+   * @return The modifiers, 0 if none or if the character is not part of this
+   * layout.
+   */
+  public int getModifiers(char c) {
+    return entry(c) >>> CODE_BITS;
+  }
+
+  @Override
+  public String toString() {
+    return "FXKeyboardLayout[" + name + "]";
+  }
+}
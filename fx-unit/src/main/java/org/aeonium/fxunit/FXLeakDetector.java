@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+/**
+ * Detects UIs that cannot be garbage collected after they have been closed,
+ * e.g., because a controller is still registered as listener of a static
+ * model. The detector holds weak references to the watched objects only, and
+ * {@link #assertCollected()} fails if any of them is still reachable after
+ * repeated garbage collections within the {@link #getTimeout() timeout}.
+ * <pre>
+ * new FXLeakDetector()
+ *         .watch("controller", controller)
+ *         .assertCollected();
+ * </pre>
+ * <p>
+ * The check is opt-in: with the system property <code>fxunit.leakCheck</code>
+ * set to true, {@link FXUnitContext#closeStage()} and
+ * {@link FXHelper#shutdownStage(javafx.stage.Stage)} check the root node,
+ * controller and scene they have closed. The scene of a stage that has been
+ * returned to the {@link FXStagePool} is reused, hence it is not checked. With
+ * the system property <code>fxunit.leakCheck.heapDump</code> set to true, a
+ * failing check writes a heap dump of the live objects next to the
+ * {@link FXMetrics} reports, so the path of references that keeps an object
+ * alive can be inspected with a heap analyzer.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXLeakDetector {
+
+  private static final Logger LOG = Logger.getLogger(FXLeakDetector.class.getName());
+
+  private static final long GC_INTERVAL = 50;
+
+  private static volatile boolean enabled = Boolean.getBoolean("fxunit.leakCheck");
+  private static volatile long timeout = Long.getLong("fxunit.leakCheck.timeout", 2000);
+  private static volatile boolean heapDump = Boolean.getBoolean("fxunit.leakCheck.heapDump");
+
+  private final Map<String, WeakReference<Object>> references = new LinkedHashMap<>();
+  private final Map<String, String> descriptions = new LinkedHashMap<>();
+
+  /**
+   * Create a detector without watched objects.
+   */
+  public FXLeakDetector() {
+    // no op.
+  }
+
+  /**
+   * Check whether {@link FXUnitContext#closeStage()} and
+   * {@link FXHelper#shutdownStage(javafx.stage.Stage)} check for leaks, see
+   * the system property <code>fxunit.leakCheck</code>, defaults to false.
+   *
+   * @return true, if enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether {@link FXUnitContext#closeStage()} and
+   * {@link FXHelper#shutdownStage(javafx.stage.Stage)} check for leaks.
+   *
+   * @param aEnabled true, to check for leaks.
+   */
+  public static void setEnabled(boolean aEnabled) {
+    enabled = aEnabled;
+  }
+
+  /**
+   * Returns the maximum time to wait for the watched objects to be collected,
+   * defaults to the system property <code>fxunit.leakCheck.timeout</code> or
+   * 2000.
+   *
+   * @return The timeout in ms.
+   */
+  public static long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Set the maximum time to wait for the watched objects to be collected.
+   *
+   * @param aTimeout The timeout in ms.
+   */
+  public static void setTimeout(long aTimeout) {
+    timeout = aTimeout;
+  }
+
+  /**
+   * Check whether a failing check writes a heap dump, see the system property
+   * <code>fxunit.leakCheck.heapDump</code>, defaults to false.
+   *
+   * @return true, if heap dumps are written.
+   */
+  public static boolean isHeapDump() {
+    return heapDump;
+  }
+
+  /**
+   * Set whether a failing check writes a heap dump.
+   *
+   * @param aHeapDump true, to write heap dumps.
+   */
+  public static void setHeapDump(boolean aHeapDump) {
+    heapDump = aHeapDump;
+  }
+
+  /**
+   * Watch the given object, by a weak reference.
+   *
+   * @param name The name of the object, e.g., "controller".
+   * @param object The object, ignored if null.
+   * @return This instance, for call chaining ("fluent API").
+   */
+  public FXLeakDetector watch(String name, Object object) {
+    if (object != null) {
+      references.put(name, new WeakReference<>(object));
+      descriptions.put(name, describe(object));
+    }
+    return this;
+  }
+
+  /**
+   * Stop watching the object of the given name.
+   *
+   * @param name The name.
+   */
+  void unwatch(String name) {
+    references.remove(name);
+    descriptions.remove(name);
+  }
+
+  /**
+   * Returns the object of the given name, if it is still reachable.
+   *
+   * @param name The name.
+   * @return The object, or null.
+   */
+  Object get(String name) {
+    final WeakReference<Object> reference = references.get(name);
+    return reference == null ? null : reference.get();
+  }
+
+  /**
+   * Assert that all watched objects get garbage collected: request garbage
+   * collections until they are, at most for the {@link #getTimeout() timeout}.
+   *
+   * @throws AssertionError If any of the objects is still reachable.
+   * @throws FXUnitException If called on the JavaFX application thread, which
+   * may hold the objects while it is blocked.
+   */
+  public void assertCollected() {
+    if (Platform.isFxApplicationThread()) {
+      throw new FXUnitException("Cannot check for leaks on the JavaFX application thread.");
+    }
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+    List<String> reachable = getReachable();
+    while (!reachable.isEmpty() && System.nanoTime() < deadline) {
+      System.gc();
+      FXHelper.sleep(GC_INTERVAL);
+      reachable = getReachable();
+    }
+    if (reachable.isEmpty()) {
+      return;
+    }
+
+    final StringBuilder message = new StringBuilder("Still reachable after ").append(timeout).append(" ms:");
+    for (String name : reachable) {
+      message.append(' ').append(name).append(" (").append(descriptions.get(name)).append(')');
+    }
+    if (heapDump) {
+      final Path file = dumpHeap();
+      if (file != null) {
+        message.append(". Heap dump: ").append(file.toAbsolutePath());
+      }
+    }
+    throw new AssertionError(message.toString());
+  }
+
+  private List<String> getReachable() {
+    final List<String> reachable = new ArrayList<>();
+    references.forEach((name, reference) -> {
+      if (reference.get() != null) {
+        reachable.add(name);
+      }
+    });
+    return reachable;
+  }
+
+  private static String describe(Object object) {
+    final String id = object instanceof Node node && node.getId() != null ? "#" + node.getId() : "";
+    return object.getClass().getName() + id + "@" + Integer.toHexString(System.identityHashCode(object));
+  }
+
+  /**
+   * Write a heap dump of the live objects into the report directory.
+   *
+   * @return The heap dump file, or null if it cannot be written.
+   */
+  private static Path dumpHeap() {
+    try {
+      final Path directory = FXMetrics.getReportDirectory();
+      Files.createDirectories(directory);
+      final Path file = directory.resolve("fxunit-leak-" + System.currentTimeMillis() + ".hprof");
+      ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(file.toString(), true);
+      return file;
+    } catch (IOException | RuntimeException ex) {
+      LOG.log(Level.WARNING, "Cannot write heap dump.", ex);
+      return null;
+    }
+  }
+}
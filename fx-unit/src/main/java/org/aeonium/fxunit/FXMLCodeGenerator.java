@@ -0,0 +1,1020 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javafx.beans.DefaultProperty;
+import javafx.beans.NamedArg;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.Parent;
+import javax.lang.model.SourceVersion;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.ProcessingInstruction;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Build time code generator, that compiles FXML documents into
+ * {@link FXMLFactory} classes. The generated factories build the same scene
+ * graph as the FXMLLoader, inject the nodes and event handlers into the
+ * controller and initialize it, without parsing XML and without reflection.
+ * <p>
+ * The generator covers the common subset of FXML: imports, instance elements
+ * with no-arg or <code>@NamedArg</code> constructors, property attributes and
+ * elements, static properties, <code>fx:id</code>, <code>fx:controller</code>,
+ * event handler methods, resource keys (<code>%key</code>) and relative
+ * locations (<code>@path</code>). Like the FXMLLoader, the factories inject the
+ * <code>location</code> and <code>resources</code> fields of the controller,
+ * call its <code>initialize()</code> method only if it is public or annotated
+ * with <code>@FXML</code>, and fail with a {@link javafx.fxml.LoadException} on
+ * a resource key without resources. Documents using other features, e.g.,
+ * <code>fx:include</code>, <code>fx:define</code>, expression bindings or
+ * scripts, or private event handler or initialize methods, are skipped and
+ * keep being loaded by the FXMLLoader. The factories are written to the
+ * package of the FXML document, so that they can access package private
+ * members of controllers in the same package directly. Controllers are created
+ * and private fields are injected by the {@link FXControllers}.</p>
+ * <p>
+ * Each factory carries the {@link FXMLFactories#hash(byte[]) hash} of the
+ * document it has been generated from, so that a factory that is out of date
+ * is not used.</p>
+ * <p>
+ * Usage, e.g., by the Maven profile <code>fxml-codegen</code>:</p>
+ * <pre>
+ * java org.aeonium.fxunit.FXMLCodeGenerator &lt;resource dir&gt; &lt;source dir&gt; [&lt;classes dir&gt;]
+ * </pre>
+ * <p>
+ * With a classes directory, the generated sources are compiled into it and
+ * the factories are registered in its
+ * <code>META-INF/services/org.aeonium.fxunit.FXMLFactory</code> file.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXMLCodeGenerator {
+
+  private static final Logger LOG = Logger.getLogger(FXMLCodeGenerator.class.getName());
+
+  private static final String FX_NAMESPACE = "http://javafx.com/fxml";
+  private static final String SERVICES = "META-INF/services/" + FXMLFactory.class.getName();
+  private static final String SUFFIX = "FXMLFactory";
+
+  private final ClassLoader classLoader;
+
+  /**
+   * Create a generator that resolves classes with the context class loader.
+   */
+  public FXMLCodeGenerator() {
+    this(Thread.currentThread().getContextClassLoader());
+  }
+
+  /**
+   * Create a generator that resolves classes with the given class loader.
+   *
+   * @param classLoader The class loader, with the controllers and the JavaFX
+   * classes.
+   */
+  public FXMLCodeGenerator(ClassLoader classLoader) {
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * Generate factories for all FXML documents in a resource directory.
+   *
+   * @param args The resource directory, the source output directory and,
+   * optionally, the classes output directory.
+   * @throws IOException If reading or writing fails.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: FXMLCodeGenerator <resource dir> <source dir> [<classes dir>]");
+    }
+    final Path sourceDir = Path.of(args[1]);
+    final List<String> classNames = new FXMLCodeGenerator().generateAll(Path.of(args[0]), sourceDir);
+    if (args.length > 2) {
+      final Path classesDir = Path.of(args[2]);
+      compile(sourceDir, classNames, classesDir);
+      writeServices(classesDir, classNames);
+    } else {
+      writeServices(sourceDir, classNames);
+    }
+    LOG.log(Level.INFO, "Generated {0} FXML factories.", classNames.size());
+  }
+
+  /**
+   * Generate the factories for all FXML documents in the given resource
+   * directory. Unsupported documents are skipped with a warning.
+   *
+   * @param resourceDir The resource directory, i.e., the class path root of the
+   * FXML documents.
+   * @param sourceDir The directory to write the Java sources to.
+   * @return The names of the generated classes.
+   * @throws IOException If reading or writing fails.
+   */
+  public List<String> generateAll(Path resourceDir, Path sourceDir) throws IOException {
+    final List<Path> documents;
+    try (Stream<Path> files = Files.walk(resourceDir)) {
+      documents = files.filter(file -> file.toString().endsWith(".fxml")).sorted().collect(Collectors.toList());
+    }
+
+    final List<String> classNames = new ArrayList<>();
+    for (Path document : documents) {
+      final String location = resourceDir.relativize(document).toString().replace('\\', '/');
+      final String source;
+      try (InputStream in = Files.newInputStream(document)) {
+        source = generate(location, in);
+      } catch (FXUnitException ex) {
+        LOG.log(Level.WARNING, "Skipping {0}: {1}", new Object[]{location, ex.getMessage()});
+        continue;
+      }
+      final String className = getClassName(location);
+      final Path file = sourceDir.resolve(className.replace('.', '/') + ".java");
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source, StandardCharsets.UTF_8);
+      classNames.add(className);
+    }
+    return classNames;
+  }
+
+  /**
+   * Generate the source of the factory for the given FXML document.
+   *
+   * @param location The resource path of the document.
+   * @param in The content of the document.
+   * @return The Java source.
+   * @throws IOException If reading fails.
+   * @throws FXUnitException If the document uses unsupported features.
+   */
+  public String generate(String location, InputStream in) throws IOException {
+    final byte[] content = in.readAllBytes();
+    final Document document;
+    try {
+      final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setNamespaceAware(true);
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      final DocumentBuilder builder = factory.newDocumentBuilder();
+      builder.setErrorHandler(new DefaultHandler());
+      document = builder.parse(new ByteArrayInputStream(content));
+    } catch (ParserConfigurationException | SAXException ex) {
+      throw new FXUnitException("Cannot parse " + location + ".", ex);
+    }
+    return new Generation(location, FXMLFactories.hash(content)).generate(document);
+  }
+
+  /**
+   * Returns the name of the factory class for the given FXML document.
+   *
+   * @param location The resource path of the document.
+   * @return The fully qualified class name.
+   */
+  public static String getClassName(String location) {
+    final int slash = location.lastIndexOf('/');
+    final String packageName = slash < 0 ? "" : location.substring(0, slash).replace('/', '.');
+    if (!packageName.isEmpty() && !SourceVersion.isName(packageName)) {
+      throw new FXUnitException("Not a valid package: " + packageName);
+    }
+    String name = location.substring(slash + 1);
+    name = name.substring(0, name.length() - ".fxml".length()).replaceAll("[^A-Za-z0-9_$]", "_");
+    if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+      name = "_" + name;
+    }
+    return packageName.isEmpty() ? name + SUFFIX : packageName + "." + name + SUFFIX;
+  }
+
+  private static void compile(Path sourceDir, List<String> classNames, Path classesDir) throws IOException {
+    if (classNames.isEmpty()) {
+      return;
+    }
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new FXUnitException("No Java compiler available, please run the generator with a JDK.");
+    }
+    final List<Path> sources = classNames.stream()
+            .map(name -> sourceDir.resolve(name.replace('.', '/') + ".java"))
+            .collect(Collectors.toList());
+    final String classPath = System.getProperty("java.class.path") + java.io.File.pathSeparator + classesDir;
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8)) {
+      final boolean success = compiler.getTask(null, fileManager, null,
+              List.of("-d", classesDir.toString(), "-classpath", classPath, "-proc:none", "-nowarn"),
+              null, fileManager.getJavaFileObjectsFromPaths(sources)).call();
+      if (!success) {
+        throw new FXUnitException("Cannot compile the generated FXML factories.");
+      }
+    }
+  }
+
+  private static void writeServices(Path dir, List<String> classNames) throws IOException {
+    final Path file = dir.resolve(SERVICES);
+    Files.createDirectories(file.getParent());
+    Files.write(file, classNames, StandardCharsets.UTF_8);
+  }
+
+  private static FXUnitException unsupported(String message) {
+    return new FXUnitException("Unsupported FXML: " + message);
+  }
+
+  private static String capitalize(String name) {
+    return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+  }
+
+  private static String quote(String value) {
+    final StringBuilder sb = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"' -> sb.append("\\\"");
+        case '\\' -> sb.append("\\\\");
+        case '\n' -> sb.append("\\n");
+        case '\r' -> sb.append("\\r");
+        case '\t' -> sb.append("\\t");
+        default -> {
+          if (c < 0x20 || c > 0x7e) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+        }
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  /**
+   * Converts camel case enum names to upper case with underscores, like the
+   * FXMLLoader, e.g., <code>topLeft</code> to <code>TOP_LEFT</code>.
+   */
+  private static String toAllCaps(String value) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (i > 0 && Character.isUpperCase(c) && Character.isLowerCase(value.charAt(i - 1))) {
+        sb.append('_');
+      }
+      sb.append(Character.toUpperCase(c));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A node of the generated scene graph: the local variable and its type.
+   */
+  private record Instance(String variable, Class<?> type) {
+
+  }
+
+  /**
+   * The generation of one factory class.
+   */
+  private final class Generation {
+
+    private final String location;
+    private final String hash;
+    private final String className;
+    private final String packageName;
+    private final Map<String, String> imports = new HashMap<>();
+    private final List<String> importedPackages = new ArrayList<>(List.of("java.lang"));
+    private final Map<String, Class<?>> classes = new HashMap<>();
+    private final StringBuilder body = new StringBuilder();
+
+    private Class<?> controllerClass;
+    private boolean injects;
+    private boolean resolves;
+    private boolean translates;
+    private int count;
+
+    private Generation(String location, String hash) {
+      this.location = location;
+      this.hash = hash;
+      this.className = getClassName(location);
+      final int dot = className.lastIndexOf('.');
+      this.packageName = dot < 0 ? "" : className.substring(0, dot);
+    }
+
+    private String generate(Document document) {
+      for (Node node = document.getFirstChild(); node != null; node = node.getNextSibling()) {
+        if (node instanceof ProcessingInstruction pi) {
+          if (!"import".equals(pi.getTarget())) {
+            throw unsupported("<?" + pi.getTarget() + "?>");
+          }
+          addImport(pi.getData().trim());
+        }
+      }
+
+      final Instance root = instance(document.getDocumentElement(), true);
+      if (!Parent.class.isAssignableFrom(root.type())) {
+        throw unsupported("root " + root.type().getName() + " is not a Parent");
+      }
+
+      if (controllerClass != null) {
+        if (Initializable.class.isAssignableFrom(controllerClass)) {
+          line("controller.initialize(location, resources);");
+        } else {
+          // like the FXMLLoader, which ignores an initialize() method that is
+          // neither public nor annotated:
+          inject("location", "location", java.net.URL.class);
+          inject("resources", "resources", ResourceBundle.class);
+          final Method initialize = findInitialize(controllerClass);
+          if (initialize != null) {
+            if (!isAccessible(initialize)) {
+              throw unsupported("initialize() of " + controllerClass.getName() + " is not accessible");
+            }
+            line("controller.initialize();");
+          }
+        }
+      } else if (!injects) {
+        line("if (controllerObject instanceof javafx.fxml.Initializable) {");
+        line("  ((javafx.fxml.Initializable) controllerObject).initialize(location, resources);");
+        line("}");
+      }
+      line("return " + root.variable() + ";");
+      return source();
+    }
+
+    private String source() {
+      final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+      final String file = location.substring(location.lastIndexOf('/') + 1);
+      final StringBuilder sb = new StringBuilder();
+      if (!packageName.isEmpty()) {
+        sb.append("package ").append(packageName).append(";\n\n");
+      }
+      sb.append("/**\n");
+      sb.append(" * Builds the scene graph of ").append(file).append(".\n");
+      sb.append(" * Generated by the ").append(FXMLCodeGenerator.class.getName()).append(", do not edit.\n");
+      sb.append(" */\n");
+      sb.append("public final class ").append(simpleName).append(" implements ").append(FXMLFactory.class.getName()).append(" {\n\n");
+
+      sb.append("  @Override\n");
+      sb.append("  public String getLocation() {\n");
+      sb.append("    return ").append(quote(location)).append(";\n");
+      sb.append("  }\n\n");
+
+      sb.append("  @Override\n");
+      sb.append("  public String getHash() {\n");
+      sb.append("    return ").append(quote(hash)).append(";\n");
+      sb.append("  }\n\n");
+
+      sb.append("  @Override\n");
+      sb.append("  public boolean supports(Class<?> controllerClass) {\n");
+      if (controllerClass != null || injects) {
+        sb.append("    return controllerClass == null;\n");
+      } else {
+        sb.append("    return controllerClass == null || javafx.fxml.Initializable.class.isAssignableFrom(controllerClass);\n");
+      }
+      sb.append("  }\n\n");
+
+      sb.append("  @Override\n");
+      sb.append("  public Object createController() {\n");
+      if (controllerClass != null) {
+        sb.append("    return ").append(FXControllers.class.getName()).append(".create(").append(controllerClass.getCanonicalName()).append(".class);\n");
+      } else {
+        sb.append("    return null;\n");
+      }
+      sb.append("  }\n\n");
+
+      sb.append("  @Override\n");
+      sb.append("  @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+      sb.append("  public javafx.scene.Parent create(Object controllerObject, java.net.URL location, java.util.ResourceBundle resources)\n");
+      sb.append("          throws java.io.IOException {\n");
+      if (controllerClass != null) {
+        final String name = controllerClass.getCanonicalName();
+        sb.append("    final ").append(name).append(" controller = (").append(name).append(") controllerObject;\n");
+      }
+      sb.append(body);
+      sb.append("  }\n");
+
+      if (resolves) {
+        sb.append("\n");
+        sb.append("  @SuppressWarnings(\"deprecation\")\n");
+        sb.append("  private static String resolve(java.net.URL location, String path) {\n");
+        sb.append("    try {\n");
+        sb.append("      return new java.net.URL(location, path).toExternalForm();\n");
+        sb.append("    } catch (java.net.MalformedURLException ex) {\n");
+        sb.append("      throw new IllegalArgumentException(ex);\n");
+        sb.append("    }\n");
+        sb.append("  }\n");
+      }
+      if (translates) {
+        sb.append("\n");
+        sb.append("  private static String resource(java.util.ResourceBundle resources, String key) throws javafx.fxml.LoadException {\n");
+        sb.append("    if (resources == null) {\n");
+        sb.append("      throw new javafx.fxml.LoadException(\"No resources specified.\");\n");
+        sb.append("    }\n");
+        sb.append("    if (!resources.containsKey(key)) {\n");
+        sb.append("      throw new javafx.fxml.LoadException(\"Resource \\\"\" + key + \"\\\" not found.\");\n");
+        sb.append("    }\n");
+        sb.append("    return resources.getString(key);\n");
+        sb.append("  }\n");
+      }
+      sb.append("}\n");
+      return sb.toString();
+    }
+
+    private void line(String code) {
+      body.append("    ").append(code).append('\n');
+    }
+
+    private void addImport(String name) {
+      if (name.endsWith(".*")) {
+        importedPackages.add(name.substring(0, name.length() - 2));
+      } else {
+        imports.put(name.substring(name.lastIndexOf('.') + 1), name);
+      }
+    }
+
+    private Class<?> resolveClass(String name) {
+      return classes.computeIfAbsent(name, key -> {
+        Class<?> type = null;
+        if (key.contains(".")) {
+          type = loadClass(key);
+        } else if (imports.containsKey(key)) {
+          type = loadClass(imports.get(key));
+        } else {
+          for (String importedPackage : importedPackages) {
+            type = loadClass(importedPackage + "." + key);
+            if (type != null) {
+              break;
+            }
+          }
+        }
+        if (type == null) {
+          throw unsupported("cannot resolve class " + key);
+        }
+        return type;
+      });
+    }
+
+    private Class<?> loadClass(String name) {
+      try {
+        return Class.forName(name, false, classLoader);
+      } catch (ClassNotFoundException | LinkageError ex) {
+        return null;
+      }
+    }
+
+    private Instance instance(Element element, boolean root) {
+      if (isFX(element.getNamespaceURI())) {
+        throw unsupported("fx:" + element.getLocalName());
+      }
+      final Class<?> type = resolveClass(element.getLocalName());
+      if (!isAccessible(type)) {
+        throw unsupported(type.getName() + " is not accessible");
+      }
+
+      String fxId = null;
+      final Map<String, String> properties = new LinkedHashMap<>();
+      final Map<String, String> staticProperties = new LinkedHashMap<>();
+      final Map<String, String> handlers = new LinkedHashMap<>();
+      final NamedNodeMap attributes = element.getAttributes();
+      for (int i = 0; i < attributes.getLength(); i++) {
+        final Attr attribute = (Attr) attributes.item(i);
+        final String name = attribute.getLocalName();
+        final String value = attribute.getValue();
+        if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+          continue;
+        }
+        if (isFX(attribute.getNamespaceURI())) {
+          if ("id".equals(name)) {
+            fxId = value;
+          } else if ("controller".equals(name) && root) {
+            setController(value);
+          } else {
+            throw unsupported("fx:" + name);
+          }
+        } else if (name.contains(".")) {
+          staticProperties.put(name, value);
+        } else if (name.startsWith("on") && value.startsWith("#")) {
+          handlers.put(name, value.substring(1));
+        } else {
+          properties.put(name, value);
+        }
+      }
+
+      final Instance instance = new Instance("n" + count++, type);
+      line("final " + type.getCanonicalName() + " " + instance.variable() + " = " + construct(type, properties) + ";");
+
+      if (fxId != null) {
+        if (javafx.scene.Node.class.isAssignableFrom(type) && !properties.containsKey("id")) {
+          properties.put("id", fxId);
+        }
+        inject(instance, fxId);
+      }
+      for (Map.Entry<String, String> property : properties.entrySet()) {
+        setProperty(instance, property.getKey(), property.getValue());
+      }
+      for (Map.Entry<String, String> property : staticProperties.entrySet()) {
+        setStaticProperty(instance, property.getKey(), property.getValue());
+      }
+      for (Map.Entry<String, String> handler : handlers.entrySet()) {
+        setHandler(instance, handler.getKey(), handler.getValue());
+      }
+
+      for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child instanceof Element childElement) {
+          if (isPropertyElement(childElement)) {
+            propertyElement(instance, childElement);
+          } else {
+            final DefaultProperty defaultProperty = type.getAnnotation(DefaultProperty.class);
+            if (defaultProperty == null) {
+              throw unsupported(type.getName() + " has no default property");
+            }
+            addInstances(instance, defaultProperty.value(), List.of(instance(childElement, false)));
+          }
+        } else if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+          if (!child.getNodeValue().isBlank()) {
+            throw unsupported("text content of " + type.getName());
+          }
+        }
+      }
+      return instance;
+    }
+
+    private boolean isFX(String namespace) {
+      return namespace != null && namespace.startsWith(FX_NAMESPACE);
+    }
+
+    private boolean isPropertyElement(Element element) {
+      final String name = element.getLocalName();
+      return !isFX(element.getNamespaceURI()) && Character.isLowerCase(name.charAt(name.lastIndexOf('.') + 1));
+    }
+
+    private void setController(String name) {
+      final Class<?> type = loadClass(name);
+      if (type == null) {
+        throw unsupported("cannot resolve controller " + name);
+      }
+      if (!isAccessible(type)) {
+        throw unsupported("controller " + name + " is not accessible");
+      }
+      controllerClass = type;
+    }
+
+    /**
+     * Returns the constructor call, using the no-arg constructor or the
+     * <code>@NamedArg</code> constructor that matches most of the given
+     * properties. The properties passed to the constructor are removed.
+     */
+    private String construct(Class<?> type, Map<String, String> properties) {
+      try {
+        if (isAccessible(type.getConstructor())) {
+          return "new " + type.getCanonicalName() + "()";
+        }
+      } catch (NoSuchMethodException ex) {
+        // try the @NamedArg constructors
+      }
+
+      Constructor<?> best = null;
+      int bestMatches = 0;
+      for (Constructor<?> constructor : type.getConstructors()) {
+        int matches = 0;
+        boolean named = true;
+        for (Parameter parameter : constructor.getParameters()) {
+          final NamedArg namedArg = parameter.getAnnotation(NamedArg.class);
+          if (namedArg == null) {
+            named = false;
+            break;
+          }
+          if (properties.containsKey(namedArg.value())) {
+            matches++;
+          }
+        }
+        if (named && (matches > bestMatches
+                || best != null && matches == bestMatches && constructor.getParameterCount() < best.getParameterCount())) {
+          best = constructor;
+          bestMatches = matches;
+        }
+      }
+      if (best == null || !isAccessible(best)) {
+        throw unsupported("no suitable constructor for " + type.getName());
+      }
+
+      final List<String> arguments = new ArrayList<>();
+      for (Parameter parameter : best.getParameters()) {
+        final NamedArg namedArg = parameter.getAnnotation(NamedArg.class);
+        final String value = properties.remove(namedArg.value());
+        if (value != null) {
+          arguments.add(requireLiteral(parameter.getType(), value, namedArg.value()));
+        } else if (!namedArg.defaultValue().isEmpty()) {
+          arguments.add(requireLiteral(parameter.getType(), namedArg.defaultValue(), namedArg.value()));
+        } else {
+          arguments.add(defaultLiteral(parameter.getType()));
+        }
+      }
+      return "new " + type.getCanonicalName() + "(" + String.join(", ", arguments) + ")";
+    }
+
+    private void inject(Instance instance, String fxId) {
+      if (controllerClass == null) {
+        injects = true;
+        return;
+      }
+      inject(fxId, instance.variable(), instance.type());
+    }
+
+    /**
+     * Inject the value of the given expression into the field of the
+     * controller with the given name, if the FXMLLoader would do so.
+     */
+    private void inject(String name, String expression, Class<?> type) {
+      final Field field = findField(controllerClass, name);
+      if (field == null || !isInjectable(field)) {
+        return;
+      }
+      if (Modifier.isFinal(field.getModifiers())) {
+        throw unsupported("field " + name + " of " + controllerClass.getName() + " is final");
+      }
+      if (!field.getType().isAssignableFrom(type)) {
+        throw unsupported("field " + name + " of " + controllerClass.getName() + " is not a " + type.getName());
+      }
+      if (isAccessible(field)) {
+        line("controller." + name + " = " + expression + ";");
+      } else {
+        line(FXControllers.class.getName() + ".inject(controller, " + quote(name) + ", " + expression + ");");
+      }
+    }
+
+    private void setProperty(Instance instance, String name, String value) {
+      final Method getter = findGetter(instance.type(), name);
+      final List<Method> setters = findSetters(instance.type(), name, false);
+      if (getter != null) {
+        setters.sort((a, b) -> Boolean.compare(!a.getParameterTypes()[0].equals(getter.getReturnType()), !b.getParameterTypes()[0].equals(getter.getReturnType())));
+      }
+      for (Method setter : setters) {
+        final String literal = literal(setter.getParameterTypes()[0], value);
+        if (literal != null) {
+          line(instance.variable() + "." + setter.getName() + "(" + literal + ");");
+          return;
+        }
+      }
+      if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+        final Class<?> elementType = getElementType(getter);
+        for (String item : value.split(",")) {
+          line(instance.variable() + "." + getter.getName() + "().add(" + requireLiteral(elementType, item.trim(), name) + ");");
+        }
+        return;
+      }
+      throw unsupported("property " + name + "=\"" + value + "\" of " + instance.type().getName());
+    }
+
+    private void setStaticProperty(Instance instance, String name, String value) {
+      final int dot = name.lastIndexOf('.');
+      final Class<?> owner = resolveClass(name.substring(0, dot));
+      final String property = name.substring(dot + 1);
+      for (Method setter : findSetters(owner, property, true)) {
+        final String literal = literal(setter.getParameterTypes()[1], value);
+        if (setter.getParameterTypes()[0].isAssignableFrom(instance.type()) && literal != null) {
+          line(owner.getCanonicalName() + "." + setter.getName() + "(" + instance.variable() + ", " + literal + ");");
+          return;
+        }
+      }
+      throw unsupported("static property " + name + "=\"" + value + "\"");
+    }
+
+    private void setHandler(Instance instance, String name, String methodName) {
+      if (controllerClass == null) {
+        throw unsupported("event handler " + name + " without controller");
+      }
+      final List<Method> setters = findSetters(instance.type(), name, false);
+      if (setters.size() != 1) {
+        throw unsupported("event handler property " + name + " of " + instance.type().getName());
+      }
+      final Class<?> eventType = getTypeArgument(setters.get(0).getGenericParameterTypes()[0]);
+      Method method = findMethod(controllerClass, methodName, 1);
+      if (method == null || eventType == null || !method.getParameterTypes()[0].isAssignableFrom(eventType)) {
+        method = findMethod(controllerClass, methodName, 0);
+      }
+      if (method == null || !isInjectable(method) || !isAccessible(method)) {
+        throw unsupported("event handler " + methodName + " of " + controllerClass.getName() + " is not accessible");
+      }
+      final String call = "controller." + methodName + (method.getParameterCount() == 1 ? "(event)" : "()");
+      line(instance.variable() + "." + setters.get(0).getName() + "(event -> " + call + ");");
+    }
+
+    private void propertyElement(Instance instance, Element element) {
+      final String name = element.getLocalName();
+      if (name.contains(".")) {
+        throw unsupported("static property element " + name);
+      }
+      final NamedNodeMap attributes = element.getAttributes();
+      for (int i = 0; i < attributes.getLength(); i++) {
+        if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attributes.item(i).getNamespaceURI())) {
+          throw unsupported("attributes of property element " + name);
+        }
+      }
+
+      final List<Instance> values = new ArrayList<>();
+      for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+        if (child instanceof Element childElement) {
+          if (isPropertyElement(childElement)) {
+            throw unsupported("property element " + childElement.getLocalName() + " in property element " + name);
+          }
+          values.add(instance(childElement, false));
+        }
+      }
+      if (values.isEmpty()) {
+        final String text = element.getTextContent().trim();
+        if (!text.isEmpty()) {
+          setProperty(instance, name, text);
+        }
+      } else {
+        addInstances(instance, name, values);
+      }
+    }
+
+    private void addInstances(Instance instance, String name, List<Instance> values) {
+      final Method getter = findGetter(instance.type(), name);
+      if (getter != null && List.class.isAssignableFrom(getter.getReturnType())) {
+        final Class<?> elementType = getElementType(getter);
+        for (Instance value : values) {
+          if (elementType != null && !elementType.isAssignableFrom(value.type())) {
+            throw unsupported(value.type().getName() + " in " + name + " of " + instance.type().getName());
+          }
+          line(instance.variable() + "." + getter.getName() + "().add(" + value.variable() + ");");
+        }
+        return;
+      }
+      if (values.size() == 1) {
+        for (Method setter : findSetters(instance.type(), name, false)) {
+          if (setter.getParameterTypes()[0].isAssignableFrom(values.get(0).type())) {
+            line(instance.variable() + "." + setter.getName() + "(" + values.get(0).variable() + ");");
+            return;
+          }
+        }
+      }
+      throw unsupported("property " + name + " of " + instance.type().getName());
+    }
+
+    private String requireLiteral(Class<?> type, String value, String name) {
+      final String literal = literal(type, value);
+      if (literal == null) {
+        throw unsupported("value \"" + value + "\" of " + name);
+      }
+      return literal;
+    }
+
+    /**
+     * Returns the Java expression for the given attribute value, or null if it
+     * cannot be converted to the given type.
+     */
+    private String literal(Class<?> type, String value) {
+      if (value.startsWith("\\")) {
+        value = value.substring(1);
+      } else if (value.startsWith("$")) {
+        throw unsupported("expression " + value);
+      } else if (value.startsWith("%")) {
+        if (!type.isAssignableFrom(String.class)) {
+          return null;
+        }
+        translates = true;
+        return "resource(resources, " + quote(value.substring(1)) + ")";
+      } else if (value.startsWith("@")) {
+        if (!type.isAssignableFrom(String.class)) {
+          return null;
+        }
+        resolves = true;
+        return "resolve(location, " + quote(value.substring(1)) + ")";
+      }
+
+      try {
+        if (type.isAssignableFrom(String.class)) {
+          return quote(value);
+        } else if (type == boolean.class || type == Boolean.class) {
+          return Boolean.toString(Boolean.parseBoolean(value));
+        } else if (type == int.class || type == Integer.class) {
+          return Integer.toString(Integer.parseInt(value));
+        } else if (type == long.class || type == Long.class) {
+          return Long.parseLong(value) + "L";
+        } else if (type == short.class || type == Short.class) {
+          return "(short) " + Short.parseShort(value);
+        } else if (type == byte.class || type == Byte.class) {
+          return "(byte) " + Byte.parseByte(value);
+        } else if (type == double.class || type == Double.class) {
+          return doubleLiteral(Double.parseDouble(value), "Double", "");
+        } else if (type == float.class || type == Float.class) {
+          return doubleLiteral(Float.parseFloat(value), "Float", "f");
+        } else if (type == char.class || type == Character.class) {
+          if (value.length() != 1) {
+            return null;
+          }
+          final String quoted = quote(value);
+          return "'" + ("'".equals(value) ? "\\'" : quoted.substring(1, quoted.length() - 1)) + "'";
+        }
+      } catch (NumberFormatException ex) {
+        return null;
+      }
+
+      if (type.isEnum()) {
+        for (Object constant : type.getEnumConstants()) {
+          final String name = ((Enum<?>) constant).name();
+          if (name.equals(value) || name.equals(toAllCaps(value))) {
+            return type.getCanonicalName() + "." + name;
+          }
+        }
+        return null;
+      }
+      try {
+        final Method valueOf = type.getMethod("valueOf", String.class);
+        if (Modifier.isStatic(valueOf.getModifiers()) && type.isAssignableFrom(valueOf.getReturnType()) && isAccessible(valueOf)) {
+          return type.getCanonicalName() + ".valueOf(" + quote(value) + ")";
+        }
+      } catch (NoSuchMethodException ex) {
+        // not convertible
+      }
+      return null;
+    }
+
+    private String doubleLiteral(double value, String type, String suffix) {
+      if (Double.isNaN(value)) {
+        return type + ".NaN";
+      } else if (Double.isInfinite(value)) {
+        return type + (value > 0 ? ".POSITIVE_INFINITY" : ".NEGATIVE_INFINITY");
+      }
+      return (suffix.isEmpty() ? Double.toString(value) : Float.toString((float) value)) + suffix;
+    }
+
+    private String defaultLiteral(Class<?> type) {
+      if (type == boolean.class) {
+        return "false";
+      } else if (type == char.class) {
+        return "'\\0'";
+      } else if (type.isPrimitive()) {
+        return "(" + type.getName() + ") 0";
+      }
+      return "null";
+    }
+
+    private Method findGetter(Class<?> type, String name) {
+      for (String prefix : new String[]{"get", "is"}) {
+        try {
+          final Method getter = type.getMethod(prefix + capitalize(name));
+          if (!Modifier.isStatic(getter.getModifiers())) {
+            return getter;
+          }
+        } catch (NoSuchMethodException ex) {
+          // try the next prefix
+        }
+      }
+      return null;
+    }
+
+    private List<Method> findSetters(Class<?> type, String name, boolean isStatic) {
+      final String setterName = "set" + capitalize(name);
+      final List<Method> setters = new ArrayList<>();
+      for (Method method : type.getMethods()) {
+        if (method.getName().equals(setterName) && Modifier.isStatic(method.getModifiers()) == isStatic
+                && method.getParameterCount() == (isStatic ? 2 : 1) && !method.isBridge()) {
+          setters.add(method);
+        }
+      }
+      return setters;
+    }
+
+    private Class<?> getElementType(Method getter) {
+      final Type returnType = getter.getGenericReturnType();
+      if (returnType instanceof ParameterizedType parameterized && parameterized.getActualTypeArguments().length == 1) {
+        return getTypeArgument(returnType);
+      }
+      return Object.class;
+    }
+
+    private Class<?> getTypeArgument(Type type) {
+      if (!(type instanceof ParameterizedType parameterized)) {
+        return null;
+      }
+      Type argument = parameterized.getActualTypeArguments()[0];
+      if (argument instanceof WildcardType wildcard) {
+        argument = wildcard.getLowerBounds().length > 0 ? wildcard.getLowerBounds()[0] : wildcard.getUpperBounds()[0];
+      }
+      if (argument instanceof ParameterizedType argumentType) {
+        argument = argumentType.getRawType();
+      }
+      return argument instanceof Class<?> argumentClass ? argumentClass : null;
+    }
+
+    private Field findField(Class<?> type, String name) {
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        try {
+          return current.getDeclaredField(name);
+        } catch (NoSuchFieldException ex) {
+          // try the super class
+        }
+      }
+      return null;
+    }
+
+    private Method findMethod(Class<?> type, String name, int parameterCount) {
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        for (Method method : current.getDeclaredMethods()) {
+          if (method.getName().equals(name) && method.getParameterCount() == parameterCount && !method.isBridge()) {
+            return method;
+          }
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Returns the initialize() method the FXMLLoader would call, i.e., the one
+     * of the most specific class that is injectable, or null.
+     */
+    private Method findInitialize(Class<?> type) {
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        for (Method method : current.getDeclaredMethods()) {
+          if (method.getName().equals("initialize") && method.getParameterCount() == 0 && !method.isBridge()
+                  && isInjectable(method)) {
+            return method;
+          }
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Checks whether the FXMLLoader would use the given member, i.e., it is not
+     * static, and it is a public member of a public class or annotated with
+     * <code>@FXML</code>.
+     */
+    private boolean isInjectable(Member member) {
+      final int modifiers = member.getModifiers();
+      if (Modifier.isStatic(modifiers)) {
+        return false;
+      }
+      return Modifier.isPublic(modifiers) && Modifier.isPublic(member.getDeclaringClass().getModifiers())
+              || ((java.lang.reflect.AnnotatedElement) member).isAnnotationPresent(FXML.class);
+    }
+
+    private boolean isAccessible(Class<?> type) {
+      for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+        if (!Modifier.isPublic(current.getModifiers()) && !isSamePackage(current)) {
+          return false;
+        }
+        if (Modifier.isPrivate(current.getModifiers())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isAccessible(Member member) {
+      final int modifiers = member.getModifiers();
+      if (!isAccessible(member.getDeclaringClass()) || Modifier.isPrivate(modifiers)) {
+        return false;
+      }
+      return Modifier.isPublic(modifiers) || isSamePackage(member.getDeclaringClass());
+    }
+
+    private boolean isSamePackage(Class<?> type) {
+      return type.getPackageName().equals(packageName);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the generated {@link FXMLFactory FXML factories} on the class
+ * path. A factory is only used, if the FXML document at the requested URL has
+ * the hash the factory has been generated from, otherwise the document has
+ * been edited since, and it is loaded by the FXMLLoader. Using the factories
+ * can be disabled by the system property
+ * <code>fxunit.fxmlFactories=false</code>, e.g., to compare them with the
+ * FXMLLoader.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXMLFactories {
+
+  private static final Map<String, Optional<FXMLFactory>> BY_URL = new ConcurrentHashMap<>();
+
+  private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("fxunit.fxmlFactories", "true"));
+  private static volatile Map<String, FXMLFactory> factories;
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXMLFactories() {
+    // no op.
+  }
+
+  /**
+   * Returns the factory for the FXML document at the given URL.
+   *
+   * @param url The URL of the FXML document.
+   * @return The factory, null if there is none or if factories are disabled.
+   */
+  public static FXMLFactory getFactory(URL url) {
+    if (!enabled || url == null) {
+      return null;
+    }
+    return BY_URL.computeIfAbsent(url.toExternalForm(), key -> Optional.ofNullable(lookup(url))).orElse(null);
+  }
+
+  /**
+   * Returns the factory for the FXML document at the given URL, if it supports
+   * the given controller class.
+   *
+   * @param url The URL of the FXML document.
+   * @param controllerClass The controller class, null if the controller is
+   * declared in the FXML document.
+   * @return The factory, or null.
+   */
+  static FXMLFactory getFactory(URL url, Class<?> controllerClass) {
+    final FXMLFactory factory = getFactory(url);
+    return factory != null && factory.supports(controllerClass) ? factory : null;
+  }
+
+  private static FXMLFactory lookup(URL url) {
+    final String path = url.getPath();
+    for (Map.Entry<String, FXMLFactory> entry : getFactories().entrySet()) {
+      if (path.endsWith("/" + entry.getKey())) {
+        return isCurrent(entry.getValue(), url) ? entry.getValue() : null;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Check whether the given factory has been generated from the current
+   * content of the FXML document at the given URL.
+   *
+   * @param factory The factory.
+   * @param url The URL of the FXML document.
+   * @return true, if the hashes match.
+   */
+  static boolean isCurrent(FXMLFactory factory, URL url) {
+    final String hash;
+    try (InputStream in = url.openStream()) {
+      hash = hash(in.readAllBytes());
+    } catch (IOException ex) {
+      Logger.getLogger(FXMLFactories.class.getName()).log(Level.FINE, "Cannot read " + url, ex);
+      return false;
+    }
+    if (!hash.equals(factory.getHash())) {
+      Logger.getLogger(FXMLFactories.class.getName()).log(Level.WARNING,
+              "The generated {0} is out of date, loading {1} with the FXMLLoader. Regenerate the factories, e.g., with -Pfxml-codegen.",
+              new Object[]{factory.getClass().getName(), url});
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the hash of the given FXML document, i.e., its SHA-256 digest as
+   * hex string.
+   *
+   * @param content The content of the document.
+   * @return The hash.
+   */
+  public static String hash(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not available.", ex);
+    }
+  }
+
+  private static Map<String, FXMLFactory> getFactories() {
+    Map<String, FXMLFactory> current = factories;
+    if (current == null) {
+      current = new ConcurrentHashMap<>();
+      try {
+        for (FXMLFactory factory : ServiceLoader.load(FXMLFactory.class)) {
+          current.put(factory.getLocation(), factory);
+        }
+      } catch (ServiceConfigurationError ex) {
+        Logger.getLogger(FXMLFactories.class.getName()).log(Level.WARNING, "Cannot load FXML factories.", ex);
+      }
+      factories = current;
+    }
+    return current;
+  }
+
+  /**
+   * Check whether generated factories are used.
+   *
+   * @return true, if enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether to use generated factories instead of the FXMLLoader.
+   *
+   * @param anEnabled true to use generated factories.
+   */
+  public static void setEnabled(boolean anEnabled) {
+    enabled = anEnabled;
+  }
+
+  /**
+   * Forget the factories found so far, so that they are looked up again.
+   */
+  public static void reload() {
+    factories = null;
+    BY_URL.clear();
+  }
+}
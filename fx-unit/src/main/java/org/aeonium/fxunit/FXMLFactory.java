@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ResourceBundle;
+import javafx.scene.Parent;
+
+/**
+ * Factory that builds the scene graph of an FXML document in plain Java, i.e.,
+ * without parsing the XML and without reflection. Factories are generated at
+ * build time by the {@link FXMLCodeGenerator} and registered as services, the
+ * load and show methods of {@link FXUnitContext} use them instead of the
+ * {@link javafx.fxml.FXMLLoader}, if available.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public interface FXMLFactory {
+
+  /**
+   * Returns the resource path of the FXML document, e.g.,
+   * <code>org/aeonium/fxunit/testUI/FXML.fxml</code>.
+   *
+   * @return The resource path.
+   */
+  String getLocation();
+
+  /**
+   * Returns the {@link FXMLFactories#hash(byte[]) hash} of the FXML document
+   * this factory has been generated from. The factory is only used, if the
+   * document found at the location still has this hash.
+   *
+   * @return The hash.
+   */
+  String getHash();
+
+  /**
+   * Check whether this factory can build the UI for the given controller
+   * class, otherwise the FXMLLoader has to be used.
+   *
+   * @param controllerClass The controller class passed to the load method, null
+   * if the controller is declared in the FXML document.
+   * @return true, if supported.
+   */
+  boolean supports(Class<?> controllerClass);
+
+  /**
+   * Create the controller declared in the FXML document.
+   *
+   * @return The controller, null if the document does not declare one.
+   */
+  Object createController();
+
+  /**
+   * Build the scene graph, inject the nodes and event handlers into the
+   * controller and initialize it.
+   *
+   * @param controller The controller, may be null.
+   * @param location The location of the FXML document.
+   * @param resources The resource bundle, may be null.
+   * @return The root node.
+   * @throws IOException If the document cannot be loaded, like with the
+   * FXMLLoader, e.g., a {@link javafx.fxml.LoadException} if it uses resource
+   * keys, but there are no resources.
+   */
+  Parent create(Object controller, URL location, ResourceBundle resources) throws IOException;
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.fxml.FXMLLoader;
+
+/**
+ * Cache for FXML documents that are loaded over and over again during a test
+ * run. For each URL, the cache keeps the content of the FXML document, so that
+ * further loads parse it from memory. All loaders share a class loader that
+ * caches the classes resolved from the FXML imports, including the failed
+ * lookups of wildcard imports, which are the most expensive part of resolving
+ * element types. The cache is bounded, the least recently used documents are
+ * evicted first. Documents loaded from files are reloaded when the file's
+ * timestamp changes. The size defaults to the system property
+ * <code>fxunit.fxmlCache.size</code> or 64, a size of 0 disables the cache.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXMLTemplateCache {
+
+  private static final Map<String, Template> TEMPLATES = new LinkedHashMap<>(16, 0.75f, true);
+  private static final AtomicLong HITS = new AtomicLong();
+  private static final AtomicLong MISSES = new AtomicLong();
+
+  private static volatile int capacity = Integer.getInteger("fxunit.fxmlCache.size", 64);
+  private static volatile CachingClassLoader classLoader;
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXMLTemplateCache() {
+    // no op.
+  }
+
+  /**
+   * Load the FXML document from the location of the given loader, using the
+   * cached content, if available.
+   *
+   * @param <T> The type of the root node.
+   * @param loader The loader, with location and, optionally, controller and
+   * resources set.
+   * @return The root node.
+   * @throws IOException If the document cannot be read or parsed.
+   */
+  public static <T> T load(FXMLLoader loader) throws IOException {
+    final URL url = loader.getLocation();
+    if (url == null || capacity <= 0) {
+      return loader.load();
+    }
+    if (loader.getClassLoader() == FXMLLoader.getDefaultClassLoader()) {
+      loader.setClassLoader(getClassLoader());
+    }
+    try (InputStream in = new ByteArrayInputStream(getTemplate(url).content)) {
+      return loader.load(in);
+    }
+  }
+
+  private static Template getTemplate(URL url) throws IOException {
+    final String key = url.toExternalForm();
+    final long lastModified = lastModified(url);
+    synchronized (TEMPLATES) {
+      final Template template = TEMPLATES.get(key);
+      if (template != null && template.lastModified == lastModified) {
+        HITS.incrementAndGet();
+        return template;
+      }
+    }
+    MISSES.incrementAndGet();
+    final Template template;
+    try (InputStream in = url.openStream()) {
+      template = new Template(in.readAllBytes(), lastModified);
+    }
+    synchronized (TEMPLATES) {
+      TEMPLATES.put(key, template);
+      while (TEMPLATES.size() > capacity) {
+        TEMPLATES.remove(TEMPLATES.keySet().iterator().next());
+      }
+    }
+    return template;
+  }
+
+  /**
+   * Returns the timestamp of file resources, 0 for all others, e.g., for
+   * resources in JAR files, which do not change during a test run.
+   */
+  private static long lastModified(URL url) throws IOException {
+    if (!"file".equals(url.getProtocol())) {
+      return 0;
+    }
+    final URLConnection connection = url.openConnection();
+    try {
+      return connection.getLastModified();
+    } finally {
+      connection.getInputStream().close();
+    }
+  }
+
+  private static ClassLoader getClassLoader() {
+    final ClassLoader parent = FXMLLoader.getDefaultClassLoader();
+    CachingClassLoader current = classLoader;
+    if (current == null || current.getParent() != parent) {
+      current = new CachingClassLoader(parent);
+      classLoader = current;
+    }
+    return current;
+  }
+
+  /**
+   * Remove all cached documents and classes.
+   */
+  public static void clear() {
+    synchronized (TEMPLATES) {
+      TEMPLATES.clear();
+    }
+    classLoader = null;
+  }
+
+  /**
+   * Get the number of loads that used a cached document.
+   *
+   * @return The number of cache hits.
+   */
+  public static long getHits() {
+    return HITS.get();
+  }
+
+  /**
+   * Get the number of loads that had to read the document.
+   *
+   * @return The number of cache misses.
+   */
+  public static long getMisses() {
+    return MISSES.get();
+  }
+
+  /**
+   * Get the number of cached documents.
+   *
+   * @return The number of cached documents.
+   */
+  public static int getSize() {
+    synchronized (TEMPLATES) {
+      return TEMPLATES.size();
+    }
+  }
+
+  /**
+   * Get the maximum number of cached documents.
+   *
+   * @return The capacity.
+   */
+  public static int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Set the maximum number of cached documents, 0 disables the cache.
+   *
+   * @param aCapacity The capacity.
+   */
+  public static void setCapacity(int aCapacity) {
+    capacity = aCapacity;
+    synchronized (TEMPLATES) {
+      while (TEMPLATES.size() > Math.max(0, aCapacity)) {
+        TEMPLATES.remove(TEMPLATES.keySet().iterator().next());
+      }
+    }
+  }
+
+  /**
+   * Reset the hit and miss counters.
+   */
+  public static void resetStatistics() {
+    HITS.set(0);
+    MISSES.set(0);
+  }
+
+  private static final class Template {
+
+    private final byte[] content;
+    private final long lastModified;
+
+    private Template(byte[] content, long lastModified) {
+      this.content = content;
+      this.lastModified = lastModified;
+    }
+  }
+
+  /**
+   * Class loader that remembers the classes loaded by its parent, as well as
+   * the class names that could not be found.
+   */
+  private static final class CachingClassLoader extends ClassLoader {
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Map<String, Object> classes = new ConcurrentHashMap<>();
+
+    private CachingClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      final Object cached = classes.get(name);
+      if (cached instanceof Class<?> type) {
+        return type;
+      }
+      if (cached == NOT_FOUND) {
+        throw new ClassNotFoundException(name);
+      }
+      try {
+        final Class<?> type = getParent().loadClass(name);
+        classes.put(name, type);
+        return type;
+      } catch (ClassNotFoundException ex) {
+        classes.put(name, NOT_FOUND);
+        throw ex;
+      }
+    }
+  }
+}
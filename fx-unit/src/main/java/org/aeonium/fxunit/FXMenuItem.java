@@ -53,11 +53,16 @@ public class FXMenuItem {
    */
   public FXMenuItem delay(int millis) {
     if (!Platform.isFxApplicationThread()) {
+      final FXTrace.DelayEvent event = FXTrace.beginDelay("sleep", millis);
+      final long start = System.nanoTime();
       try {
         Thread.sleep(millis);
       } catch (InterruptedException ex) {
         Logger.getLogger(FX.class.getName()).log(Level.SEVERE, null, ex);
         Thread.currentThread().interrupt();
+      } finally {
+        FXMetrics.recordSleep(start);
+        event.commit();
       }
     } else {
       LOG.warning("Delaying on the FX application thread? Seriously?");
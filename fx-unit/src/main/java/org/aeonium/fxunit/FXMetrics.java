@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers of the work a test puts on the JavaFX application
+ * thread, and of the time it spends waiting for it: every
+ * {@link FXUnitContext} has metrics of its own, and everything recorded for a
+ * context is recorded for its parent, too, so the metrics of a test class
+ * include the ones of its tests. The metrics are recorded for the
+ * {@link FXUnitContext#current() current context} of the calling thread:
+ * <ul>
+ * <li>the hops, i.e., the tasks handed over to the JavaFX application thread,
+ * e.g., by {@link FXHelper#runAndWait(java.lang.Runnable)}, and the time they
+ * took to run on the JavaFX application thread,</li>
+ * <li>the time blocked while waiting for the completion of such tasks,</li>
+ * <li>the time waiting for the UI to become idle, for a condition, or for
+ * synthetic input events to be dispatched,</li>
+ * <li>the time of fixed delays, e.g., {@link FX#delay(int)},</li>
+ * <li>and the number of synthetic input events.</li>
+ * </ul>
+ * <p>
+ * Recording uses {@link LongAdder}s only, so the metrics are enabled by
+ * default; the system property <code>fxunit.metrics</code> set to false turns
+ * them off. The {@link FXUnitExtension} writes the metrics of each test class
+ * and its tests as JSON file <code>&lt;class name&gt;-fxunit.json</code> into
+ * the directory given by the system property <code>fxunit.metrics.dir</code>,
+ * by default next to the surefire reports in
+ * <code>target/surefire-reports</code>.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXMetrics {
+
+  private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("fxunit.metrics", "true"));
+
+  private final FXMetrics parent;
+  private final LongAdder hops = new LongAdder();
+  private final LongAdder fxThreadNanos = new LongAdder();
+  private final LongAdder blockedNanos = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder sleepNanos = new LongAdder();
+  private final LongAdder inputEvents = new LongAdder();
+
+  /**
+   * Create the metrics of a context.
+   *
+   * @param parent The metrics of the parent context, may be null.
+   */
+  FXMetrics(FXMetrics parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Returns the metrics of the {@link FXUnitContext#current() current context}.
+   *
+   * @return The metrics, never null.
+   */
+  public static FXMetrics current() {
+    return FXUnitContext.current().getMetrics();
+  }
+
+  /**
+   * Check whether metrics are recorded, see the system property
+   * <code>fxunit.metrics</code>, defaults to true.
+   *
+   * @return true, if enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether to record metrics.
+   *
+   * @param aEnabled true, to record metrics.
+   */
+  public static void setEnabled(boolean aEnabled) {
+    enabled = aEnabled;
+  }
+
+  /**
+   * Returns the directory for the JSON reports, given by the system property
+   * <code>fxunit.metrics.dir</code>, defaults to
+   * <code>target/surefire-reports</code>.
+   *
+   * @return The directory.
+   */
+  static Path getReportDirectory() {
+    return Paths.get(System.getProperty("fxunit.metrics.dir", "target/surefire-reports"));
+  }
+
+  /**
+   * Record a task handed over to the JavaFX application thread.
+   */
+  static void recordHop() {
+    if (enabled) {
+      for (FXMetrics metrics = current(); metrics != null; metrics = metrics.parent) {
+        metrics.hops.increment();
+      }
+    }
+  }
+
+  /**
+   * Record the time blocked while waiting for a task on the JavaFX application
+   * thread, since the given start.
+   *
+   * @param start The start, see {@link System#nanoTime()}.
+   */
+  static void recordBlocked(long start) {
+    if (enabled) {
+      final long nanos = System.nanoTime() - start;
+      for (FXMetrics metrics = current(); metrics != null; metrics = metrics.parent) {
+        metrics.blockedNanos.add(nanos);
+      }
+    }
+  }
+
+  /**
+   * Record the time waiting for the UI, since the given start.
+   *
+   * @param start The start, see {@link System#nanoTime()}.
+   */
+  static void recordWait(long start) {
+    if (enabled) {
+      final long nanos = System.nanoTime() - start;
+      for (FXMetrics metrics = current(); metrics != null; metrics = metrics.parent) {
+        metrics.waitNanos.add(nanos);
+      }
+    }
+  }
+
+  /**
+   * Record the time of a fixed delay, since the given start.
+   *
+   * @param start The start, see {@link System#nanoTime()}.
+   */
+  static void recordSleep(long start) {
+    if (enabled) {
+      final long nanos = System.nanoTime() - start;
+      for (FXMetrics metrics = current(); metrics != null; metrics = metrics.parent) {
+        metrics.sleepNanos.add(nanos);
+      }
+    }
+  }
+
+  /**
+   * Record the given number of synthetic input events.
+   *
+   * @param events The number of events.
+   */
+  static void recordInput(int events) {
+    if (enabled) {
+      for (FXMetrics metrics = current(); metrics != null; metrics = metrics.parent) {
+        metrics.inputEvents.add(events);
+      }
+    }
+  }
+
+  /**
+   * Record the run time of a task of this context on the JavaFX application
+   * thread. Unlike the other methods, this one is called on the JavaFX
+   * application thread, on behalf of the context that scheduled the task.
+   *
+   * @param nanos The run time in ns.
+   */
+  void recordFXThread(long nanos) {
+    if (enabled) {
+      for (FXMetrics metrics = this; metrics != null; metrics = metrics.parent) {
+        metrics.fxThreadNanos.add(nanos);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of tasks handed over to the JavaFX application thread.
+   *
+   * @return The number of hops.
+   */
+  public long getHops() {
+    return hops.sum();
+  }
+
+  /**
+   * Returns the time the tasks took to run on the JavaFX application thread.
+   *
+   * @return The time in ns.
+   */
+  public long getFXThreadTime() {
+    return fxThreadNanos.sum();
+  }
+
+  /**
+   * Returns the time blocked while waiting for tasks on the JavaFX application
+   * thread to complete.
+   *
+   * @return The time in ns.
+   */
+  public long getBlockedTime() {
+    return blockedNanos.sum();
+  }
+
+  /**
+   * Returns the time waiting for the UI to become idle, for conditions, or for
+   * input events to be dispatched.
+   *
+   * @return The time in ns.
+   */
+  public long getWaitTime() {
+    return waitNanos.sum();
+  }
+
+  /**
+   * Returns the time of fixed delays.
+   *
+   * @return The time in ns.
+   */
+  public long getSleepTime() {
+    return sleepNanos.sum();
+  }
+
+  /**
+   * Returns the number of synthetic input events.
+   *
+   * @return The number of events.
+   */
+  public long getInputEvents() {
+    return inputEvents.sum();
+  }
+
+  /**
+   * Reset all counters and timers of these metrics (not the ones of the
+   * parent).
+   */
+  public void reset() {
+    hops.reset();
+    fxThreadNanos.reset();
+    blockedNanos.reset();
+    waitNanos.reset();
+    sleepNanos.reset();
+    inputEvents.reset();
+  }
+
+  /**
+   * Returns the metrics as JSON object, with times in ms.
+   *
+   * @return The JSON.
+   */
+  String toJson() {
+    return String.format(Locale.ROOT,
+            "{\"hops\": %d, \"fxThreadMillis\": %.3f, \"blockedMillis\": %.3f, \"waitMillis\": %.3f, \"sleepMillis\": %.3f, \"inputEvents\": %d}",
+            getHops(), millis(getFXThreadTime()), millis(getBlockedTime()), millis(getWaitTime()),
+            millis(getSleepTime()), getInputEvents());
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Escape the given string for a JSON string literal.
+   *
+   * @param string The string.
+   * @return The escaped string.
+   */
+  static String escape(String string) {
+    final StringBuilder escaped = new StringBuilder(string.length());
+    for (int i = 0; i < string.length(); i++) {
+      final char c = string.charAt(i);
+      if (c == '"' || c == '\\') {
+        escaped.append('\\').append(c);
+      } else if (c < ' ') {
+        escaped.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+      } else {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT,
+            "FXMetrics[hops=%d, fxThread=%.1f ms, blocked=%.1f ms, wait=%.1f ms, sleep=%.1f ms, inputEvents=%d]",
+            getHops(), millis(getFXThreadTime()), millis(getBlockedTime()), millis(getWaitTime()),
+            millis(getSleepTime()), getInputEvents());
+  }
+}
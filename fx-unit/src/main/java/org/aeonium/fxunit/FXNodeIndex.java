@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+/**
+ * Index of the nodes of a scene by ID, type selector and style class, for fast
+ * lookups by ID selectors like <code>#okButton</code> and for the
+ * {@link FX#query(java.lang.String) queries}. The index is built on the first
+ * lookup in a scene, and then maintained by listeners to the child lists, the
+ * ID properties and the style classes of the nodes, so that each further
+ * lookup is a map access instead of a traversal of the scene graph. The index
+ * is only read and updated on the JavaFX application thread.
+ * <p>
+ * All other selectors, and IDs that are used by more than one node, are looked
+ * up by {@link Scene#lookup(java.lang.String)}, i.e., with the same result as
+ * without index. The index can be disabled by the system property
+ * <code>fxunit.nodeIndex=false</code>.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXNodeIndex {
+
+  private static final Object KEY = FXNodeIndex.class;
+  private static final Pattern ID_SELECTOR = Pattern.compile("#[\\w-]+");
+
+  private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("fxunit.nodeIndex", "true"));
+
+  private final Map<String, List<Node>> nodes = new HashMap<>();
+  private final Map<String, List<Node>> types = new HashMap<>();
+  private final Map<String, List<Node>> classes = new HashMap<>();
+  private final Map<List<String>, Node> styleClassOwners = new IdentityHashMap<>();
+  private final ListChangeListener<Node> childrenListener = this::childrenChanged;
+  private final ListChangeListener<String> styleClassListener = this::styleClassChanged;
+  private final ChangeListener<String> idListener = this::idChanged;
+  private final ChangeListener<Parent> rootListener = this::rootChanged;
+
+  private final Scene scene;
+
+  private FXNodeIndex(Scene scene) {
+    this.scene = scene;
+    scene.rootProperty().addListener(rootListener);
+    if (scene.getRoot() != null) {
+      add(scene.getRoot());
+    }
+  }
+
+  /**
+   * Look up a node of the given scene by selector, using the index for ID
+   * selectors.
+   *
+   * @param scene The scene.
+   * @param selector The CSS selector, e.g., an ID selector like
+   * <code>#okButton</code>.
+   * @return The first node that matches the selector, or null.
+   */
+  public static Node lookup(Scene scene, String selector) {
+    if (scene == null) {
+      throw new NullPointerException("scene must not be null.");
+    }
+    if (!enabled || selector == null || !ID_SELECTOR.matcher(selector).matches()) {
+      return scene.lookup(selector);
+    }
+    if (Platform.isFxApplicationThread()) {
+      return get(scene).find(scene, selector);
+    }
+
+    final Node[] result = new Node[1];
+    try {
+      FXHelper.runAndWait(() -> result[0] = get(scene).find(scene, selector));
+    } catch (IllegalStateException ex) {
+      // the toolkit is not running, i.e., the scene cannot change
+      return scene.lookup(selector);
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot look up " + selector, ex.getCause());
+    }
+    return result[0];
+  }
+
+  /**
+   * Returns the index of the given scene, and builds it, if necessary. Must be
+   * called on the JavaFX application thread.
+   */
+  static FXNodeIndex get(Scene scene) {
+    FXNodeIndex index = (FXNodeIndex) scene.getProperties().get(KEY);
+    if (index == null) {
+      index = new FXNodeIndex(scene);
+      scene.getProperties().put(KEY, index);
+    }
+    return index;
+  }
+
+  /**
+   * Check whether ID lookups use the index.
+   *
+   * @return true, if enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether ID lookups use the index.
+   *
+   * @param anEnabled true, to use the index.
+   */
+  public static void setEnabled(boolean anEnabled) {
+    enabled = anEnabled;
+  }
+
+  /**
+   * Returns the number of indexed IDs.
+   *
+   * @return The number of IDs.
+   */
+  int size() {
+    return nodes.size();
+  }
+
+  /**
+   * Returns the nodes with the given ID.
+   */
+  List<Node> byId(String id) {
+    return nodes.getOrDefault(id, List.of());
+  }
+
+  /**
+   * Returns the nodes with the given type selector, i.e., simple class name.
+   */
+  List<Node> byType(String type) {
+    return types.getOrDefault(type, List.of());
+  }
+
+  /**
+   * Returns the nodes with the given style class.
+   */
+  List<Node> byStyleClass(String styleClass) {
+    return classes.getOrDefault(styleClass, List.of());
+  }
+
+  /**
+   * Returns the scene of this index.
+   */
+  Scene getScene() {
+    return scene;
+  }
+
+  private Node find(Scene scene, String selector) {
+    final List<Node> candidates = nodes.get(selector.substring(1));
+    if (candidates == null) {
+      return null;
+    } else if (candidates.size() == 1) {
+      return candidates.get(0);
+    }
+    // duplicate IDs: the first one in traversal order
+    return scene.lookup(selector);
+  }
+
+  private void add(Node root) {
+    final ArrayDeque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      final Node node = stack.pop();
+      node.idProperty().addListener(idListener);
+      put(nodes, node.getId(), node);
+      put(types, node.getTypeSelector(), node);
+      node.getStyleClass().addListener(styleClassListener);
+      styleClassOwners.put(node.getStyleClass(), node);
+      for (String styleClass : node.getStyleClass()) {
+        put(classes, styleClass, node);
+      }
+      if (node instanceof Parent parent) {
+        parent.getChildrenUnmodifiable().addListener(childrenListener);
+        for (Node child : parent.getChildrenUnmodifiable()) {
+          stack.push(child);
+        }
+      }
+    }
+  }
+
+  private void remove(Node root) {
+    final ArrayDeque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      final Node node = stack.pop();
+      node.idProperty().removeListener(idListener);
+      remove(nodes, node.getId(), node);
+      remove(types, node.getTypeSelector(), node);
+      node.getStyleClass().removeListener(styleClassListener);
+      styleClassOwners.remove(node.getStyleClass());
+      for (String styleClass : node.getStyleClass()) {
+        remove(classes, styleClass, node);
+      }
+      if (node instanceof Parent parent) {
+        parent.getChildrenUnmodifiable().removeListener(childrenListener);
+        for (Node child : parent.getChildrenUnmodifiable()) {
+          stack.push(child);
+        }
+      }
+    }
+  }
+
+  private static void put(Map<String, List<Node>> map, String key, Node node) {
+    if (key != null) {
+      map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(node);
+    }
+  }
+
+  private static void remove(Map<String, List<Node>> map, String key, Node node) {
+    if (key == null) {
+      return;
+    }
+    final List<Node> candidates = map.get(key);
+    if (candidates != null && candidates.remove(node) && candidates.isEmpty()) {
+      map.remove(key);
+    }
+  }
+
+  private void childrenChanged(ListChangeListener.Change<? extends Node> change) {
+    while (change.next()) {
+      for (Node removed : change.getRemoved()) {
+        remove(removed);
+      }
+      for (Node added : change.getAddedSubList()) {
+        add(added);
+      }
+    }
+  }
+
+  private void idChanged(ObservableValue<? extends String> observable, String oldId, String newId) {
+    final Node node = (Node) ((ReadOnlyProperty<?>) observable).getBean();
+    remove(nodes, oldId, node);
+    put(nodes, newId, node);
+  }
+
+  private void styleClassChanged(ListChangeListener.Change<? extends String> change) {
+    final Node node = styleClassOwners.get(change.getList());
+    if (node == null) {
+      return;
+    }
+    while (change.next()) {
+      for (String removed : change.getRemoved()) {
+        remove(classes, removed, node);
+      }
+      for (String added : change.getAddedSubList()) {
+        put(classes, added, node);
+      }
+    }
+  }
+
+  private void rootChanged(ObservableValue<? extends Parent> observable, Parent oldRoot, Parent newRoot) {
+    if (oldRoot != null) {
+      remove(oldRoot);
+    }
+    if (newRoot != null) {
+      add(newRoot);
+    }
+  }
+}
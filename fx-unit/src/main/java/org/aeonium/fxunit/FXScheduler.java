@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+
+/**
+ * Schedules tasks on the JavaFX application thread fairly among the tests
+ * running concurrently: each {@link FXUnitContext} gets a queue of its own, and
+ * the queues are served round-robin, one task per queue and round. Between two
+ * rounds, other tasks queued with {@link Platform#runLater(java.lang.Runnable)}
+ * (e.g., pulses and event handling) get their turn. So, a test that queues a
+ * lot of work, or long running work, does not starve the other tests. Tasks of
+ * the same context are executed in the order of submission.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class FXScheduler {
+
+  private static final Logger LOG = Logger.getLogger(FXScheduler.class.getName());
+
+  private static final Map<FXUnitContext, ArrayDeque<Runnable>> QUEUES = new LinkedHashMap<>();
+  private static final AtomicLong BUSY_NANOS = new AtomicLong();
+  private static boolean scheduled;
+
+  private FXScheduler() {
+    // no op
+  }
+
+  /**
+   * Queue the given task for execution on the JavaFX application thread, on
+   * behalf of the {@link FXUnitContext#current() current context}.
+   *
+   * @param runnable The task.
+   * @throws IllegalStateException If the JavaFX toolkit is not running.
+   */
+  static void schedule(Runnable runnable) {
+    final FXUnitContext context = FXUnitContext.current();
+    synchronized (QUEUES) {
+      QUEUES.computeIfAbsent(context, c -> new ArrayDeque<>()).add(runnable);
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+    }
+    try {
+      Platform.runLater(FXScheduler::runRound);
+    } catch (IllegalStateException ex) {
+      synchronized (QUEUES) {
+        scheduled = false;
+        final ArrayDeque<Runnable> queue = QUEUES.get(context);
+        if (queue != null && queue.remove(runnable) && queue.isEmpty()) {
+          QUEUES.remove(context);
+        }
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Execute one task of each queue, then schedule the next round if there are
+   * tasks left.
+   */
+  private static void runRound() {
+    final List<FXUnitContext> contexts = new ArrayList<>();
+    final List<Runnable> round = new ArrayList<>();
+    synchronized (QUEUES) {
+      final Iterator<Map.Entry<FXUnitContext, ArrayDeque<Runnable>>> iterator = QUEUES.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final Map.Entry<FXUnitContext, ArrayDeque<Runnable>> entry = iterator.next();
+        final Runnable task = entry.getValue().poll();
+        if (task != null) {
+          contexts.add(entry.getKey());
+          round.add(task);
+        }
+        if (entry.getValue().isEmpty()) {
+          iterator.remove();
+        }
+      }
+    }
+    final long start = System.nanoTime();
+    long taskStart = start;
+    for (int i = 0; i < round.size(); i++) {
+      try {
+        round.get(i).run();
+      } catch (Throwable ex) {
+        // also errors, e.g., AssertionErrors, must not stop the round and the scheduling:
+        LOG.log(Level.SEVERE, ex.getMessage(), ex);
+      }
+      final long taskEnd = System.nanoTime();
+      contexts.get(i).getMetrics().recordFXThread(taskEnd - taskStart);
+      taskStart = taskEnd;
+    }
+    BUSY_NANOS.addAndGet(taskStart - start);
+    synchronized (QUEUES) {
+      if (QUEUES.isEmpty()) {
+        scheduled = false;
+        return;
+      }
+    }
+    Platform.runLater(FXScheduler::runRound);
+  }
+
+  /**
+   * Returns the time the JavaFX application thread spent on scheduled tasks.
+   *
+   * @return The busy time in ns.
+   */
+  static long getBusyTime() {
+    return BUSY_NANOS.get();
+  }
+
+  /**
+   * Reset the busy time to 0.
+   */
+  static void resetBusyTime() {
+    BUSY_NANOS.set(0);
+  }
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+/**
+ * A CSS selector, compiled into a tree of matchers. Supported are type
+ * selectors (the simple class name, like in JavaFX CSS) and the universal
+ * selector <code>*</code>, ID, style class and pseudo class selectors,
+ * descendant and child combinators, and groups of selectors separated by
+ * commas, e.g., <code>VBox &gt; .button:disabled, #okButton</code>.
+ * <p>
+ * Selectors are compiled once and cached. Queries run on the JavaFX
+ * application thread: if the rightmost part of a selector has an ID, a style
+ * class or a type, the candidates are taken from the {@link FXNodeIndex} and
+ * matched right to left, so that no subtree is walked at all, and the matches
+ * are sorted by their precomputed paths. A group with any other selector walks
+ * the scene graph once for all of its selectors, in scene graph order.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class FXSelector {
+
+  private static final Map<String, FXSelector> CACHE = new ConcurrentHashMap<>();
+
+  private final String text;
+  private final List<Complex> group;
+
+  private FXSelector(String text, List<Complex> group) {
+    this.text = text;
+    this.group = group;
+  }
+
+  /**
+   * Returns the compiled selector.
+   *
+   * @param selector The selector.
+   * @return The compiled selector.
+   * @throws FXUnitException If the selector is invalid.
+   */
+  static FXSelector compile(String selector) {
+    if (selector == null) {
+      throw new NullPointerException("Selector must not be null.");
+    }
+    return CACHE.computeIfAbsent(selector, FXSelector::parse);
+  }
+
+  /**
+   * Query all nodes of the given scene that match the given selector, in
+   * scene graph order.
+   *
+   * @param scene The scene.
+   * @param selector The selector.
+   * @return The matching nodes.
+   */
+  static List<Node> query(Scene scene, String selector) {
+    if (scene == null) {
+      throw new NullPointerException("scene must not be null.");
+    }
+    final FXSelector compiled = compile(selector);
+    if (Platform.isFxApplicationThread()) {
+      return compiled.select(scene);
+    }
+
+    final List<Node> result = new ArrayList<>();
+    try {
+      FXHelper.runAndWait(() -> result.addAll(compiled.select(scene)));
+    } catch (IllegalStateException ex) {
+      // the toolkit is not running, i.e., the scene cannot change
+      return compiled.select(scene);
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot query " + selector, ex.getCause());
+    }
+    return result;
+  }
+
+  /**
+   * Check whether the given node matches this selector.
+   *
+   * @param node The node.
+   * @return true, if it matches.
+   */
+  boolean matches(Node node) {
+    for (Complex complex : group) {
+      if (complex.matches(node, complex.compounds.size() - 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Select the matching nodes: if the index has candidates for every selector
+   * of the group, only these are matched, and then sorted into scene graph
+   * order; otherwise the scene graph is walked once for the whole group, which
+   * yields the matches in scene graph order.
+   */
+  private List<Node> select(Scene scene) {
+    final Parent root = scene.getRoot();
+    if (root == null) {
+      return List.of();
+    }
+
+    final FXNodeIndex index = FXNodeIndex.isEnabled() ? FXNodeIndex.get(scene) : null;
+    final List<List<Node>> candidates = new ArrayList<>(group.size());
+    for (Complex complex : group) {
+      final List<Node> list = index != null ? complex.last().candidates(index) : null;
+      if (list == null) {
+        final List<Node> nodes = new ArrayList<>();
+        walk(root, nodes);
+        return nodes;
+      }
+      candidates.add(list);
+    }
+
+    final Set<Node> result = new LinkedHashSet<>();
+    for (int i = 0; i < group.size(); i++) {
+      final Complex complex = group.get(i);
+      for (Node candidate : candidates.get(i)) {
+        if (complex.matches(candidate, complex.compounds.size() - 1)) {
+          result.add(candidate);
+        }
+      }
+    }
+    if (result.size() < 2) {
+      return new ArrayList<>(result);
+    }
+
+    // compute the path of each match once, not per comparison:
+    final List<Ordered> ordered = new ArrayList<>(result.size());
+    for (Node node : result) {
+      ordered.add(new Ordered(node, path(node)));
+    }
+    ordered.sort(Comparator.comparing(Ordered::path, FXSelector::comparePaths));
+    final List<Node> nodes = new ArrayList<>(ordered.size());
+    for (Ordered o : ordered) {
+      nodes.add(o.node());
+    }
+    return nodes;
+  }
+
+  private void walk(Parent root, Collection<Node> result) {
+    final ArrayDeque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      final Node node = stack.pop();
+      if (matches(node)) {
+        result.add(node);
+      }
+      if (node instanceof Parent parent) {
+        final List<Node> children = parent.getChildrenUnmodifiable();
+        for (int i = children.size() - 1; i >= 0; i--) {
+          stack.push(children.get(i));
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the child indices from the root to the given node.
+   */
+  private static int[] path(Node node) {
+    int depth = 0;
+    for (Node current = node; current.getParent() != null; current = current.getParent()) {
+      depth++;
+    }
+    final int[] path = new int[depth];
+    for (Node current = node; current.getParent() != null; current = current.getParent()) {
+      path[--depth] = current.getParent().getChildrenUnmodifiable().indexOf(current);
+    }
+    return path;
+  }
+
+  private static int comparePaths(int[] a, int[] b) {
+    for (int i = 0; i < Math.min(a.length, b.length); i++) {
+      if (a[i] != b[i]) {
+        return Integer.compare(a[i], b[i]);
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+
+  /**
+   * A match, decorated with its path for sorting.
+   */
+  private record Ordered(Node node, int[] path) {
+  }
+
+  private static FXSelector parse(String text) {
+    final List<Complex> group = new ArrayList<>();
+    for (String part : text.split(",", -1)) {
+      group.add(new Parser(text, part).parse());
+    }
+    return new FXSelector(text, group);
+  }
+
+  /**
+   * A sequence of compound selectors, joined by combinators.
+   */
+  private static final class Complex {
+
+    private final List<Compound> compounds = new ArrayList<>();
+    private final List<Boolean> childCombinators = new ArrayList<>();
+
+    private Compound last() {
+      return compounds.get(compounds.size() - 1);
+    }
+
+    /**
+     * Match right to left: the node matches the compound at the given index,
+     * and its parent or an ancestor matches the part before.
+     */
+    private boolean matches(Node node, int i) {
+      if (!compounds.get(i).matches(node)) {
+        return false;
+      }
+      if (i == 0) {
+        return true;
+      }
+      if (childCombinators.get(i - 1)) {
+        return node.getParent() != null && matches(node.getParent(), i - 1);
+      }
+      for (Node ancestor = node.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+        if (matches(ancestor, i - 1)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * A compound selector, e.g., <code>Button#ok.primary:focused</code>.
+   */
+  private static final class Compound {
+
+    private String type;
+    private String id;
+    private final List<String> styleClasses = new ArrayList<>();
+    private final List<PseudoClass> pseudoClasses = new ArrayList<>();
+
+    private boolean matches(Node node) {
+      if (type != null && !type.equals(node.getTypeSelector())) {
+        return false;
+      }
+      if (id != null && !id.equals(node.getId())) {
+        return false;
+      }
+      if (!styleClasses.isEmpty() && !node.getStyleClass().containsAll(styleClasses)) {
+        return false;
+      }
+      return pseudoClasses.isEmpty() || node.getPseudoClassStates().containsAll(pseudoClasses);
+    }
+
+    /**
+     * Returns the candidates from the index, the smallest of the ID, style
+     * class and type lists, or null if the compound has none of them.
+     */
+    private List<Node> candidates(FXNodeIndex index) {
+      List<Node> candidates = null;
+      if (id != null) {
+        candidates = index.byId(id);
+      }
+      for (String styleClass : styleClasses) {
+        final List<Node> byStyleClass = index.byStyleClass(styleClass);
+        if (candidates == null || byStyleClass.size() < candidates.size()) {
+          candidates = byStyleClass;
+        }
+      }
+      if (type != null) {
+        final List<Node> byType = index.byType(type);
+        if (candidates == null || byType.size() < candidates.size()) {
+          candidates = byType;
+        }
+      }
+      return candidates == null ? null : new ArrayList<>(candidates);
+    }
+  }
+
+  /**
+   * Parser for one selector of a group.
+   */
+  private static final class Parser {
+
+    private final String text;
+    private final String part;
+    private int pos;
+
+    private Parser(String text, String part) {
+      this.text = text;
+      this.part = part;
+    }
+
+    private Complex parse() {
+      final Complex complex = new Complex();
+      skipWhitespace();
+      complex.compounds.add(compound());
+      while (pos < part.length()) {
+        final boolean whitespace = skipWhitespace();
+        if (pos >= part.length()) {
+          break;
+        }
+        if (part.charAt(pos) == '>') {
+          pos++;
+          skipWhitespace();
+          complex.childCombinators.add(true);
+        } else if (whitespace) {
+          complex.childCombinators.add(false);
+        } else {
+          throw invalid();
+        }
+        complex.compounds.add(compound());
+      }
+      return complex;
+    }
+
+    private Compound compound() {
+      final Compound compound = new Compound();
+      final int start = pos;
+      if (pos < part.length() && part.charAt(pos) == '*') {
+        pos++;
+      } else if (pos < part.length() && isIdentifierChar(part.charAt(pos))) {
+        compound.type = identifier();
+      }
+      while (pos < part.length()) {
+        final char c = part.charAt(pos);
+        if (c == '#') {
+          pos++;
+          compound.id = identifier();
+        } else if (c == '.') {
+          pos++;
+          compound.styleClasses.add(identifier());
+        } else if (c == ':') {
+          pos++;
+          compound.pseudoClasses.add(PseudoClass.getPseudoClass(identifier()));
+        } else {
+          break;
+        }
+      }
+      if (pos == start) {
+        throw invalid();
+      }
+      return compound;
+    }
+
+    private String identifier() {
+      final int start = pos;
+      while (pos < part.length() && isIdentifierChar(part.charAt(pos))) {
+        pos++;
+      }
+      if (pos == start) {
+        throw invalid();
+      }
+      return part.substring(start, pos);
+    }
+
+    private boolean skipWhitespace() {
+      final int start = pos;
+      while (pos < part.length() && Character.isWhitespace(part.charAt(pos))) {
+        pos++;
+      }
+      return pos > start;
+    }
+
+    private static boolean isIdentifierChar(char c) {
+      return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    private FXUnitException invalid() {
+      return new FXUnitException("Invalid selector: " + text);
+    }
+  }
+}
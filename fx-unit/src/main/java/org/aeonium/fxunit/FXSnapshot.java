@@ -0,0 +1,532 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import javafx.application.Platform;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Labeled;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextInputControl;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableView;
+import static org.aeonium.fxunit.AssertFX.BUT_IS;
+import static org.aeonium.fxunit.AssertFX.TEXT_SHOULDBE;
+
+/**
+ * An immutable copy of the test relevant properties of a node and its
+ * descendants: ID, type, text, style classes, visible, disabled, managed,
+ * focused, editable and selected state, bounds in scene coordinates and item
+ * counts.
+ * <p>
+ * A snapshot is captured in one pass on the JavaFX application thread, see
+ * {@link FX#snapshot()} and {@link FXCollection#snapshot()}. Afterwards, it
+ * can be inspected and asserted from any thread, also in parallel, without
+ * further thread handoffs and without races against the UI. The assertion
+ * methods correspond to those of {@link FX}.</p>
+ * <p>
+ * Snapshots are kept small: IDs, types and style classes are interned, states
+ * are packed into a single byte, and bounds are stored as floats.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXSnapshot {
+
+  private static final byte VISIBLE = 1;
+  private static final byte DISABLED = 1 << 1;
+  private static final byte MANAGED = 1 << 2;
+  private static final byte FOCUSED = 1 << 3;
+  private static final byte EDITABLE = 1 << 4;
+  private static final byte SELECTED = 1 << 5;
+  private static final byte HAS_TEXT = 1 << 6;
+
+  private static final String[] NO_STYLE_CLASSES = new String[0];
+  private static final FXSnapshot[] NO_CHILDREN = new FXSnapshot[0];
+
+  private final String id;
+  private final String type;
+  private final String text;
+  private final String[] styleClasses;
+  private final byte flags;
+  private final int itemCount;
+  private final float minX;
+  private final float minY;
+  private final float width;
+  private final float height;
+  private final FXSnapshot[] children;
+
+  private FXSnapshot(Node node) {
+    this.id = node.getId() == null ? null : node.getId().intern();
+    this.type = node.getTypeSelector().intern();
+
+    final List<String> nodeStyleClasses = node.getStyleClass();
+    if (nodeStyleClasses.isEmpty()) {
+      this.styleClasses = NO_STYLE_CLASSES;
+    } else {
+      this.styleClasses = new String[nodeStyleClasses.size()];
+      for (int i = 0; i < this.styleClasses.length; i++) {
+        this.styleClasses[i] = nodeStyleClasses.get(i).intern();
+      }
+    }
+
+    byte state = 0;
+    if (node.isVisible()) {
+      state |= VISIBLE;
+    }
+    if (node.isDisabled()) {
+      state |= DISABLED;
+    }
+    if (node.isManaged()) {
+      state |= MANAGED;
+    }
+    if (node.isFocused()) {
+      state |= FOCUSED;
+    }
+    if (node instanceof ToggleButton toggleButton && toggleButton.isSelected()) {
+      state |= SELECTED;
+    }
+    if (node instanceof Labeled labeled) {
+      state |= HAS_TEXT;
+      this.text = labeled.getText();
+    } else if (node instanceof TextInputControl textInputControl) {
+      state |= HAS_TEXT;
+      if (textInputControl.isEditable()) {
+        state |= EDITABLE;
+      }
+      this.text = textInputControl.getText();
+    } else {
+      this.text = null;
+    }
+    this.flags = state;
+    this.itemCount = itemCount(node);
+
+    final Bounds bounds = node.localToScene(node.getBoundsInLocal());
+    this.minX = (float) bounds.getMinX();
+    this.minY = (float) bounds.getMinY();
+    this.width = (float) bounds.getWidth();
+    this.height = (float) bounds.getHeight();
+
+    if (node instanceof Parent parent && !parent.getChildrenUnmodifiable().isEmpty()) {
+      final List<Node> nodeChildren = parent.getChildrenUnmodifiable();
+      this.children = new FXSnapshot[nodeChildren.size()];
+      for (int i = 0; i < this.children.length; i++) {
+        this.children[i] = new FXSnapshot(nodeChildren.get(i));
+      }
+    } else {
+      this.children = NO_CHILDREN;
+    }
+  }
+
+  /**
+   * Returns the item count of the supported item controls, -1 for all other
+   * nodes. Like {@link AssertFX#assertHasItems(javafx.scene.control.TreeTableView, int)},
+   * a TreeTableView counts the children of the selected or the root item.
+   */
+  private static int itemCount(Node node) {
+    if (node instanceof ChoiceBox<?> choiceBox) {
+      return choiceBox.getItems() == null ? -1 : choiceBox.getItems().size();
+    } else if (node instanceof ComboBox<?> comboBox) {
+      return comboBox.getItems() == null ? -1 : comboBox.getItems().size();
+    } else if (node instanceof ListView<?> listView) {
+      return listView.getItems() == null ? -1 : listView.getItems().size();
+    } else if (node instanceof TableView<?> tableView) {
+      return tableView.getItems() == null ? -1 : tableView.getItems().size();
+    } else if (node instanceof TreeTableView<?> treeTableView) {
+      final TreeItem<?> selected = treeTableView.getSelectionModel().getSelectedItem();
+      if (selected != null) {
+        return selected.getChildren().size();
+      }
+      return treeTableView.getRoot() == null ? -1 : treeTableView.getRoot().getChildren().size();
+    }
+    return -1;
+  }
+
+  /**
+   * Capture a snapshot of the given node and its descendants on the JavaFX
+   * application thread.
+   *
+   * @param node The node, must not be null.
+   * @return The snapshot.
+   */
+  public static FXSnapshot capture(Node node) {
+    if (node == null) {
+      throw new NullPointerException("node must not be null.");
+    }
+    return captureAll(List.of(node)).get(0);
+  }
+
+  /**
+   * Capture snapshots of the given nodes and their descendants, all in a
+   * single pass on the JavaFX application thread.
+   *
+   * @param nodes The nodes, must not be null.
+   * @return The snapshots, in the order of the given nodes.
+   */
+  static List<FXSnapshot> captureAll(List<? extends Node> nodes) {
+    if (Platform.isFxApplicationThread()) {
+      return create(nodes);
+    }
+
+    final List<FXSnapshot> result = new ArrayList<>(nodes.size());
+    try {
+      FXHelper.runAndWait(() -> result.addAll(create(nodes)));
+    } catch (IllegalStateException ex) {
+      // the toolkit is not running, i.e., the nodes cannot change
+      return create(nodes);
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot capture a snapshot", ex.getCause());
+    }
+    return List.copyOf(result);
+  }
+
+  private static List<FXSnapshot> create(List<? extends Node> nodes) {
+    final FXSnapshot[] snapshots = new FXSnapshot[nodes.size()];
+    for (int i = 0; i < snapshots.length; i++) {
+      snapshots[i] = new FXSnapshot(nodes.get(i));
+    }
+    return List.of(snapshots);
+  }
+
+  /**
+   * Returns the ID of the node, or null.
+   *
+   * @return The ID.
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Returns the type of the node, i.e., its CSS type selector, which is the
+   * simple class name for the built in nodes.
+   *
+   * @return The type.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Returns the text of a Labeled or TextInputControl, or null.
+   *
+   * @return The text.
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Returns the CSS style classes of the node.
+   *
+   * @return The style classes, unmodifiable.
+   */
+  public List<String> getStyleClasses() {
+    return List.of(styleClasses);
+  }
+
+  /**
+   * Returns the bounds of the node in scene coordinates, in float precision.
+   *
+   * @return The bounds.
+   */
+  public Bounds getBounds() {
+    return new BoundingBox(minX, minY, width, height);
+  }
+
+  /**
+   * Returns the item count of a ChoiceBox, ComboBox, ListView, TableView or
+   * TreeTableView, -1 for other nodes.
+   *
+   * @return The item count.
+   */
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  /**
+   * Returns the snapshots of the child nodes.
+   *
+   * @return The children, unmodifiable.
+   */
+  public List<FXSnapshot> getChildren() {
+    return List.of(children);
+  }
+
+  /**
+   * Returns a stream of this snapshot and all descendants, in scene graph
+   * order. The stream may be processed in parallel.
+   *
+   * @return The stream.
+   */
+  public Stream<FXSnapshot> stream() {
+    return Stream.concat(Stream.of(this), Arrays.stream(children).flatMap(FXSnapshot::stream));
+  }
+
+  /**
+   * Find a descendant (or this snapshot) by ID. Throws an AssertionError if
+   * there is no such node.
+   *
+   * @param id The ID, with or without leading "#".
+   * @return The snapshot of the node.
+   */
+  public FXSnapshot find(String id) {
+    if (id == null) {
+      throw new NullPointerException("id must not be null.");
+    }
+    final String plain = id.startsWith("#") ? id.substring(1) : id;
+    return stream()
+            .filter(snapshot -> plain.equals(snapshot.id))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No node found for ID " + id));
+  }
+
+  private boolean is(byte flag) {
+    return (flags & flag) != 0;
+  }
+
+  /**
+   * Assert that the node had the given number of child nodes.
+   *
+   * @param count The required child node count.
+   * @return This snapshot.
+   */
+  public FXSnapshot hasChildren(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Children count cannot be less than 0");
+    }
+    if (children.length != count) {
+      throw new AssertionError(this + " should have " + count + " children, but actually has " + children.length);
+    }
+    return this;
+  }
+
+  /**
+   * Assert that the node had no child nodes.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isEmpty() {
+    return hasChildren(0);
+  }
+
+  /**
+   * Assert that the node had the given number of data items.
+   *
+   * @param count The item count.
+   * @return This snapshot.
+   * @see #getItemCount()
+   */
+  public FXSnapshot hasItems(int count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Item count cannot be less than 0");
+    }
+    if (itemCount < 0) {
+      throw new AssertionError(this + " should have " + count + " items, but has no items.");
+    }
+    if (itemCount != count) {
+      throw new AssertionError(this + " should have " + count + " items, but actually has " + itemCount);
+    }
+    return this;
+  }
+
+  /**
+   * Assert that the node had the given CSS style class assigned.
+   *
+   * @param styleClass The CSS style class.
+   * @return This snapshot.
+   */
+  public FXSnapshot hasStyleClass(String styleClass) {
+    if (!hasStyleClass0(styleClass)) {
+      throw new AssertionError(this + " should have CSS style class '" + styleClass + "', but does not.");
+    }
+    return this;
+  }
+
+  /**
+   * Assert that the node did not have the given CSS style class assigned.
+   *
+   * @param styleClass The CSS style class.
+   * @return This snapshot.
+   */
+  public FXSnapshot hasNotStyleClass(String styleClass) {
+    if (hasStyleClass0(styleClass)) {
+      throw new AssertionError(this + " should not have CSS style class '" + styleClass + "', but does.");
+    }
+    return this;
+  }
+
+  private boolean hasStyleClass0(String styleClass) {
+    if (styleClass == null) {
+      throw new IllegalArgumentException("styleClass must not be null");
+    }
+    if (styleClass.isBlank()) {
+      throw new IllegalArgumentException("styleClass must not be blank.");
+    }
+    for (String candidate : styleClasses) {
+      if (candidate.equals(styleClass)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Assert that the node was a Labeled or TextInputControl with the given
+   * text.
+   *
+   * @param text The text content to be tested for.
+   * @return This snapshot.
+   */
+  public FXSnapshot hasText(String text) {
+    if (!is(HAS_TEXT)) {
+      throw new AssertionError("hasText() is only supported on Labeled/TextInputControl and descendants. Node is a " + type);
+    }
+    if (text == null ? this.text != null : !text.equals(this.text)) {
+      throw new AssertionError(TEXT_SHOULDBE + text + BUT_IS + this.text);
+    }
+    return this;
+  }
+
+  /**
+   * Assert that the node was disabled.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isDisabled() {
+    return assertState(DISABLED, true, "disabled");
+  }
+
+  /**
+   * Assert that the node was enabled.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isEnabled() {
+    return assertState(DISABLED, false, "enabled");
+  }
+
+  /**
+   * Assert that the node was an editable TextInputControl.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isEditable() {
+    return assertState(EDITABLE, true, "editable");
+  }
+
+  /**
+   * Assert that the node was focused.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isFocused() {
+    return assertState(FOCUSED, true, "focused");
+  }
+
+  /**
+   * Assert that the node was managed.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isManaged() {
+    return assertState(MANAGED, true, "managed");
+  }
+
+  /**
+   * Assert that the node was not managed.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isNotManaged() {
+    return assertState(MANAGED, false, "not managed");
+  }
+
+  /**
+   * Assert that the node was a selected ToggleButton.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isSelected() {
+    return assertState(SELECTED, true, "selected");
+  }
+
+  /**
+   * Assert that the node was not a selected ToggleButton.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isNotSelected() {
+    return assertState(SELECTED, false, "not selected");
+  }
+
+  /**
+   * Assert that the node was visible.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isVisible() {
+    return assertState(VISIBLE, true, "visible");
+  }
+
+  /**
+   * Assert that the node was not visible.
+   *
+   * @return This snapshot.
+   */
+  public FXSnapshot isNotVisible() {
+    return assertState(VISIBLE, false, "not visible");
+  }
+
+  private FXSnapshot assertState(byte flag, boolean expected, String name) {
+    if (is(flag) != expected) {
+      throw new AssertionError("Node " + this + " should be " + name + ", but is not.");
+    }
+    return this;
+  }
+
+  /**
+   * Returns a description like the one of Node#toString(), e.g.,
+   * <code>Button[id=ok, styleClass=button]'OK'</code>.
+   *
+   * @return The description.
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder(type).append('[');
+    if (id != null) {
+      builder.append("id=").append(id).append(", ");
+    }
+    builder.append("styleClass=").append(String.join(" ", styleClasses)).append(']');
+    if (text != null) {
+      builder.append('\'').append(text).append('\'');
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+/**
+ * A bounded pool of reusable testing stages. Creating a stage and its scene
+ * for each test is expensive, hence a released stage keeps its scene, with an
+ * empty root node, until it is acquired again. Pooled stages are hidden, so they
+ * get no pulses, are not listed by {@link javafx.stage.Window#getWindows()}, and
+ * cannot take the focus from the UI under test. A stage is recycled as is, i.e.,
+ * a test that keeps a reference to a released stage sees it showing the next UI
+ * once it has been acquired again. The pool size defaults to
+ * the system property <code>fxunit.stagePool.size</code> or 4, a size of 0
+ * disables pooling. All methods that operate on stages must be called on the
+ * JavaFX application thread.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXStagePool {
+
+  private static final ArrayDeque<Stage> POOL = new ArrayDeque<>();
+  private static final AtomicLong HITS = new AtomicLong();
+  private static final AtomicLong MISSES = new AtomicLong();
+
+  private static volatile int capacity = Integer.getInteger("fxunit.stagePool.size", 4);
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXStagePool() {
+    // no op.
+  }
+
+  /**
+   * Get a testing stage showing the given root node, either from the pool, or a
+   * new (undecorated) one.
+   *
+   * @param root The root node to show.
+   * @param title The stage title.
+   * @return The stage, showing.
+   */
+  static Stage acquire(Parent root, String title) {
+    Stage stage = POOL.poll();
+    if (stage == null) {
+      MISSES.incrementAndGet();
+      stage = new Stage(StageStyle.UNDECORATED);
+      final Scene scene = new Scene(root);
+      FXTrace.tracePulses(scene);
+      stage.setScene(scene);
+    } else {
+      HITS.incrementAndGet();
+      stage.getScene().setRoot(root);
+      stage.sizeToScene();
+      stage.centerOnScreen();
+    }
+    stage.setTitle(title);
+    stage.show();
+    stage.toFront();
+    return stage;
+  }
+
+  /**
+   * Return the given stage to the pool, after resetting it: the root node is
+   * replaced by an empty one, which takes over the focus, so the focus owner
+   * of the released UI is not kept, the stylesheets and accelerators are
+   * cleared, and the stage is hidden. If the pool is full, the stage releases
+   * its scene, too.
+   *
+   * @param stage The stage, must have been acquired from this pool.
+   */
+  static void release(Stage stage) {
+    final Scene scene = stage.getScene();
+    if (POOL.size() >= capacity || scene == null || !stage.isShowing()) {
+      stage.hide();
+      stage.setScene(null);
+      return;
+    }
+    final Group root = new Group();
+    scene.setRoot(root);
+    root.requestFocus();
+    scene.getStylesheets().clear();
+    scene.setUserAgentStylesheet(null);
+    scene.getAccelerators().clear();
+    stage.hide();
+    stage.setTitle(null);
+    POOL.push(stage);
+  }
+
+  /**
+   * Hide and release all pooled stages.
+   */
+  public static void clear() {
+    FXHelper.invokeOnFXThread(() -> {
+      Stage stage;
+      while ((stage = POOL.poll()) != null) {
+        stage.hide();
+        stage.setScene(null);
+      }
+    });
+  }
+
+  /**
+   * Get the number of stages that have been taken from the pool.
+   *
+   * @return The number of pool hits.
+   */
+  public static long getHits() {
+    return HITS.get();
+  }
+
+  /**
+   * Get the number of stages that had to be created, because the pool was
+   * empty.
+   *
+   * @return The number of pool misses.
+   */
+  public static long getMisses() {
+    return MISSES.get();
+  }
+
+  /**
+   * Get the number of stages that currently are in the pool.
+   *
+   * @return The number of pooled stages.
+   */
+  public static int getSize() {
+    if (Platform.isFxApplicationThread()) {
+      return POOL.size();
+    }
+    final int[] size = new int[1];
+    try {
+      FXHelper.runAndWait(() -> size[0] = POOL.size());
+    } catch (ExecutionException ex) {
+      throw new FXUnitException("Cannot get the pool size.", ex);
+    }
+    return size[0];
+  }
+
+  /**
+   * Get the maximum number of pooled stages.
+   *
+   * @return The capacity.
+   */
+  public static int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Set the maximum number of pooled stages, 0 disables pooling.
+   *
+   * @param aCapacity The capacity.
+   */
+  public static void setCapacity(int aCapacity) {
+    capacity = aCapacity;
+  }
+
+  /**
+   * Reset the hit and miss counters.
+   */
+  public static void resetStatistics() {
+    HITS.set(0);
+    MISSES.set(0);
+  }
+}
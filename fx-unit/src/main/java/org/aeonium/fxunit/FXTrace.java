@@ -0,0 +1,446 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Emits JDK Flight Recorder events for the steps of a UI test, so a slow test
+ * can be inspected on a timeline: loading and showing UIs, {@link FX} actions
+ * like click, fire, select, setText, keyType and mouseMoveTo, {@link AssertFX}
+ * assertions, delays, and the layout pulses of the testing scenes. The events
+ * are named <code>org.aeonium.fxunit.*</code>, in the category "FXUnit". They
+ * are recorded whenever a flight recording is running, e.g., with the JVM
+ * option <code>-XX:StartFlightRecording</code>; without a recording, an event
+ * costs an enabled check only.
+ * <p>
+ * If the system property <code>fxunit.trace</code> is true, the
+ * {@link FXUnitExtension} records each test class and converts the recording
+ * with {@link #writeChromeTrace(java.nio.file.Path, java.nio.file.Path)} into
+ * the trace event format of Chrome, as file
+ * <code>&lt;class name&gt;-fxunit-trace.json</code> next to the
+ * {@link FXMetrics} report. Open it with <code>chrome://tracing</code> or
+ * Perfetto.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXTrace {
+
+  private static final String PREFIX = "org.aeonium.fxunit.";
+  private static final String CATEGORY = "FXUnit";
+
+  private static final List<Class<? extends Event>> EVENTS = List.of(TestEvent.class, LoadEvent.class,
+          ShowEvent.class, ActionEvent.class, AssertionEvent.class, DelayEvent.class, PulseEvent.class);
+
+  private static volatile boolean enabled = Boolean.getBoolean("fxunit.trace");
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXTrace() {
+    // no op.
+  }
+
+  /**
+   * Check whether the {@link FXUnitExtension} records a trace of each test
+   * class, see the system property <code>fxunit.trace</code>, defaults to
+   * false.
+   *
+   * @return true, if enabled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Set whether the {@link FXUnitExtension} records a trace of each test class.
+   *
+   * @param aEnabled true, to record traces.
+   */
+  public static void setEnabled(boolean aEnabled) {
+    enabled = aEnabled;
+  }
+
+  @Name(PREFIX + "Test")
+  @Label("Test")
+  @Category(CATEGORY)
+  static final class TestEvent extends Event {
+
+    @Label("Test Class")
+    String testClass;
+
+    @Label("Test")
+    String test;
+  }
+
+  @Name(PREFIX + "Load")
+  @Label("Load")
+  @Description("Loading of an FXML UI.")
+  @Category(CATEGORY)
+  static final class LoadEvent extends Event {
+
+    @Label("Location")
+    String location;
+  }
+
+  @Name(PREFIX + "Show")
+  @Label("Show")
+  @Description("Loading and showing of a UI in a testing stage.")
+  @Category(CATEGORY)
+  static final class ShowEvent extends Event {
+
+    @Label("Target")
+    String target;
+  }
+
+  @Name(PREFIX + "Action")
+  @Label("Action")
+  @Category(CATEGORY)
+  static final class ActionEvent extends Event {
+
+    @Label("Action")
+    String action;
+
+    @Label("Target")
+    String target;
+  }
+
+  @Name(PREFIX + "Assertion")
+  @Label("Assertion")
+  @Category(CATEGORY)
+  static final class AssertionEvent extends Event {
+
+    @Label("Assertion")
+    String assertion;
+
+    @Label("Passed")
+    boolean passed;
+  }
+
+  @Name(PREFIX + "Delay")
+  @Label("Delay")
+  @Description("A fixed delay, or waiting for the UI to become idle.")
+  @Category(CATEGORY)
+  static final class DelayEvent extends Event {
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Requested Delay (ms)")
+    long millis;
+  }
+
+  @Name(PREFIX + "Pulse")
+  @Label("Pulse")
+  @Description("CSS and layout of a testing scene in a pulse.")
+  @Category(CATEGORY)
+  static final class PulseEvent extends Event {
+
+    @Label("Window")
+    String window;
+  }
+
+  /**
+   * Begin a test event.
+   */
+  static TestEvent beginTest(String testClass, String test) {
+    final TestEvent event = new TestEvent();
+    if (event.isEnabled()) {
+      event.testClass = testClass;
+      event.test = test;
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Begin a load event.
+   */
+  static LoadEvent beginLoad(Object location) {
+    final LoadEvent event = new LoadEvent();
+    if (event.isEnabled()) {
+      event.location = String.valueOf(location);
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Begin a show event.
+   */
+  static ShowEvent beginShow(Object target) {
+    final ShowEvent event = new ShowEvent();
+    if (event.isEnabled()) {
+      event.target = target instanceof Node node ? describe(node) : String.valueOf(target);
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Begin an action event on the given node.
+   */
+  static ActionEvent beginAction(String action, Node target) {
+    final ActionEvent event = new ActionEvent();
+    if (event.isEnabled()) {
+      event.action = action;
+      event.target = describe(target);
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Begin a delay event.
+   *
+   * @param kind "sleep" for fixed delays, "idle" for waiting for the UI.
+   * @param millis The requested delay or timeout in ms.
+   */
+  static DelayEvent beginDelay(String kind, long millis) {
+    final DelayEvent event = new DelayEvent();
+    if (event.isEnabled()) {
+      event.kind = kind;
+      event.millis = millis;
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Begin an assertion event. The assertion sets {@link AssertionEvent#passed}
+   * when it succeeds.
+   */
+  static AssertionEvent beginAssertion(String assertion) {
+    final AssertionEvent event = new AssertionEvent();
+    if (event.isEnabled()) {
+      event.assertion = assertion;
+      event.begin();
+    }
+    return event;
+  }
+
+  /**
+   * Run the given action as action event on the given node.
+   *
+   * @param <T> The result type.
+   * @param action The name of the action.
+   * @param target The target node.
+   * @param body The action.
+   * @return The result of the action.
+   */
+  static <T> T action(String action, Node target, Supplier<T> body) {
+    final ActionEvent event = beginAction(action, target);
+    try {
+      return body.get();
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Run the given assertion as assertion event, which has passed if the
+   * assertion completes normally.
+   *
+   * @param assertion The name of the assertion.
+   * @param body The assertion.
+   */
+  static void assertion(String assertion, Runnable body) {
+    final AssertionEvent event = beginAssertion(assertion);
+    try {
+      body.run();
+      event.passed = true;
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Record the CSS and layout passes of the given scene as pulse events.
+   * Without a recording, this costs an enabled check per pulse.
+   *
+   * @param scene The scene.
+   */
+  static void tracePulses(Scene scene) {
+    final PulseEvent[] current = new PulseEvent[1];
+    scene.addPreLayoutPulseListener(() -> {
+      final PulseEvent event = new PulseEvent();
+      if (event.isEnabled()) {
+        event.begin();
+        current[0] = event;
+      }
+    });
+    scene.addPostLayoutPulseListener(() -> {
+      final PulseEvent event = current[0];
+      if (event != null) {
+        current[0] = null;
+        final Window window = scene.getWindow();
+        event.window = window instanceof Stage stage ? stage.getTitle() : String.valueOf(window);
+        event.commit();
+      }
+    });
+  }
+
+  private static String describe(Node node) {
+    if (node == null) {
+      return null;
+    }
+    final String id = node.getId();
+    return id == null ? node.getClass().getSimpleName() : node.getClass().getSimpleName() + "#" + id;
+  }
+
+  /**
+   * Start a flight recording of the FXUnit events.
+   *
+   * @return The recording.
+   */
+  static Recording startRecording() {
+    final Recording recording = new Recording();
+    recording.setName("FXUnit");
+    for (Class<? extends Event> eventClass : EVENTS) {
+      recording.enable(eventClass).withoutStackTrace().withThreshold(Duration.ZERO);
+    }
+    recording.start();
+    return recording;
+  }
+
+  /**
+   * Stop the given recording, convert it into the trace event format of Chrome
+   * and write it to the given file.
+   *
+   * @param recording The recording.
+   * @param trace The trace file.
+   * @throws IOException If the recording cannot be dumped, or the trace cannot
+   * be written.
+   */
+  static void stopRecording(Recording recording, Path trace) throws IOException {
+    final Path file = Files.createTempFile("fxunit", ".jfr");
+    try {
+      recording.stop();
+      recording.dump(file);
+      writeChromeTrace(file, trace);
+    } finally {
+      recording.close();
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Convert the FXUnit events of the given flight recording into the trace
+   * event format of Chrome: each event becomes a complete event ("X") on the
+   * track of its thread, with its fields as arguments.
+   *
+   * @param recording The JFR file.
+   * @param trace The trace file to write.
+   * @throws IOException If the recording cannot be read, or the trace cannot be
+   * written.
+   */
+  public static void writeChromeTrace(Path recording, Path trace) throws IOException {
+    final Map<Long, String> threads = new HashMap<>();
+    try (RecordingFile file = new RecordingFile(recording);
+            Writer writer = Files.newBufferedWriter(trace, StandardCharsets.UTF_8)) {
+      writer.write("{\"traceEvents\": [");
+      boolean first = true;
+      while (file.hasMoreEvents()) {
+        final RecordedEvent event = file.readEvent();
+        final String type = event.getEventType().getName();
+        if (!type.startsWith(PREFIX)) {
+          continue;
+        }
+        final RecordedThread thread = event.getThread();
+        final long tid = thread == null ? 0 : thread.getJavaThreadId();
+        if (thread != null) {
+          threads.putIfAbsent(tid, thread.getJavaName());
+        }
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+        writer.write("{\"name\": \"" + FXMetrics.escape(name(event)) + "\", \"cat\": \"" + FXMetrics.escape(type.substring(PREFIX.length()))
+                + "\", \"ph\": \"X\", \"ts\": " + micros(event.getStartTime())
+                + ", \"dur\": " + TimeUnit.NANOSECONDS.toMicros(event.getDuration().toNanos())
+                + ", \"pid\": 1, \"tid\": " + tid + ", \"args\": {" + args(event) + "}}");
+      }
+      for (Map.Entry<Long, String> thread : threads.entrySet()) {
+        writer.write(first ? "\n" : ",\n");
+        first = false;
+        writer.write("{\"name\": \"thread_name\", \"ph\": \"M\", \"pid\": 1, \"tid\": " + thread.getKey()
+                + ", \"args\": {\"name\": \"" + FXMetrics.escape(thread.getValue()) + "\"}}");
+      }
+      writer.write("\n]}\n");
+    }
+  }
+
+  private static String name(RecordedEvent event) {
+    final String label = event.getEventType().getLabel();
+    for (String field : new String[]{"action", "assertion", "test", "kind", "location", "target", "window"}) {
+      if (event.hasField(field) && event.getValue(field) != null) {
+        return label + " " + event.getValue(field);
+      }
+    }
+    return label;
+  }
+
+  private static String args(RecordedEvent event) {
+    final StringBuilder args = new StringBuilder();
+    event.getFields().stream()
+            .filter(field -> !List.of("startTime", "duration", "eventThread", "stackTrace").contains(field.getName()))
+            .forEach(field -> {
+              final Object value = event.getValue(field.getName());
+              if (value == null) {
+                return;
+              }
+              if (args.length() > 0) {
+                args.append(", ");
+              }
+              args.append('"').append(FXMetrics.escape(field.getName())).append("\": ");
+              if (value instanceof Number || value instanceof Boolean) {
+                args.append(value);
+              } else {
+                args.append('"').append(FXMetrics.escape(String.valueOf(value))).append('"');
+              }
+            });
+    return args.toString();
+  }
+
+  private static long micros(Instant instant) {
+    return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(instant.getNano());
+  }
+}
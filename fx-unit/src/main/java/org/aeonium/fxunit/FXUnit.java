@@ -18,22 +18,16 @@
  */
 package org.aeonium.fxunit;
 
-import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.ResourceBundle;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
-import javafx.stage.StageStyle;
 import org.aeonium.fxunit.DriverApp.FXUnitApp;
 
 /**
@@ -43,11 +37,28 @@ import org.aeonium.fxunit.DriverApp.FXUnitApp;
  */
 public class FXUnit {
 
-  private static final String LOCATION_IS_NOT_SET = "Location is not set. Please provide a valid URL.";
+  /**
+   * System property for the time in ms that {@link #init()} waits for the
+   * JavaFX toolkit to start.
+   */
+  public static final String INIT_TIMEOUT_PROPERTY = "fxunit.init.timeout";
+
+  /**
+   * Default time in ms that {@link #init()} waits for the JavaFX toolkit to
+   * start.
+   */
+  public static final long DEFAULT_INIT_TIMEOUT = 10000;
+
+  /**
+   * System property for running the JavaFX toolkit headless, on the Monocle
+   * platform with the software rendering pipeline.
+   */
+  public static final String HEADLESS_PROPERTY = "fxunit.headless";
+
+  private static final String MONOCLE_PLATFORM_FACTORY = "com.sun.glass.ui.monocle.MonoclePlatformFactory";
 
-  private static Object controller;
-  private static Parent root;
-  private static Stage stage;
+  private static Thread launchThread;
+  private static volatile Throwable launchError;
 
   /**
    * Returns the stage of the UI under test, after the FXML UI has been loaded
@@ -56,7 +67,7 @@ public class FXUnit {
    * @return
    */
   public static Stage getStage() {
-    return stage;
+    return FXUnitContext.current().getStage();
   }
 
   /**
@@ -67,9 +78,8 @@ public class FXUnit {
    * @param <T> The type of the controller.
    * @return The controller.
    */
-  @SuppressWarnings("unchecked")
   public static <T> T getController() {
-    return (T) controller;
+    return FXUnitContext.current().getController();
   }
 
   /**
@@ -79,7 +89,7 @@ public class FXUnit {
    * @return
    */
   public static Parent getRoot() {
-    return root;
+    return FXUnitContext.current().getRoot();
   }
 
   /**
@@ -91,102 +101,161 @@ public class FXUnit {
 
   /**
    * Initialize the JavaFX application framework - necessary for testing JavaFX
-   * GUIs.
+   * GUIs. The method blocks until the toolkit is up and running, but at most
+   * for the time given by the system property {@value #INIT_TIMEOUT_PROPERTY}
+   * (in ms, defaults to {@value #DEFAULT_INIT_TIMEOUT}). Once the toolkit is
+   * running, further calls return immediately.
+   * <p>
+   * The first call also starts the {@link FXWatchdog}, which posts a heartbeat
+   * to the JavaFX application thread every 10 ms for the rest of the JVM's
+   * life, and keeps the last 1000 stalls with their stack traces. Disable it
+   * with the system property <code>fxunit.watchdog=false</code> if the
+   * overhead matters, e.g., in benchmarks.</p>
+   *
+   * @throws FXUnitException If the toolkit could not be started in time.
    */
-  public static void init() {
-    Thread t = new Thread("FXUnit Init Thread") {
-      @Override
-      public void run() {
-        try {
-          Application.launch(FXUnitApp.class, new String[0]);
-        } catch (IllegalStateException e) {
-          System.err.println(e.getMessage());
+  public static synchronized void init() {
+    if (Boolean.getBoolean(HEADLESS_PROPERTY)) {
+      configureHeadless();
+    }
+    if (launchError != null) {
+      throw launchFailed();
+    }
+    if (DriverApp.isStarted()) {
+      return;
+    }
+    if (launchThread == null) {
+      launchThread = new Thread("FXUnit Init Thread") {
+        @Override
+        public void run() {
+          try {
+            Application.launch(FXUnitApp.class, new String[0]);
+          } catch (IllegalStateException e) {
+            // The toolkit has been launched elsewhere, hence just wait for it:
+            Platform.runLater(DriverApp::started);
+          } catch (RuntimeException | Error e) {
+            launchError = e;
+            // release the waiting thread, it will report the error:
+            DriverApp.started();
+          }
         }
-      }
-    };
-    t.setDaemon(true);
-    t.start();
+      };
+      launchThread.setDaemon(true);
+      launchThread.start();
+    }
+
+    final long timeout = Long.getLong(INIT_TIMEOUT_PROPERTY, DEFAULT_INIT_TIMEOUT);
     try {
-      Thread.sleep(1000);
+      if (!DriverApp.awaitStarted(timeout, TimeUnit.MILLISECONDS)) {
+        throw new FXUnitException("JavaFX toolkit did not start within " + timeout + " ms.");
+      }
     } catch (InterruptedException ex) {
-      Logger.getLogger(FXHelper.class.getName()).log(Level.INFO, null, ex);
+      Logger.getLogger(FXUnit.class.getName()).log(Level.INFO, null, ex);
       Thread.currentThread().interrupt();
+      throw new FXUnitException("Interrupted while waiting for the JavaFX toolkit.", ex);
+    }
+    if (launchError != null) {
+      throw launchFailed();
+    }
+    if (FXWatchdog.isEnabled()) {
+      FXWatchdog.start();
     }
-  }
-
-  public static void load(String url) {
-    load(FXUnit.class.getResource(url));
   }
 
   /**
-   * Load an FXML UI from the given URL and set the controller and root node
-   * properties according to the FXML.
+   * Initialize the JavaFX application framework, like {@link #init()}, but
+   * optionally headless, i.e., on the Monocle platform with the software
+   * rendering pipeline, without any window system. This requires Monocle on
+   * the class path, e.g., <code>org.testfx:openjfx-monocle</code>. Headless
+   * mode can also be enabled with the system property
+   * {@value #HEADLESS_PROPERTY}.
    *
-   * @param url The FXML URL.
+   * @param headless true, for running the toolkit headless.
+   * @throws FXUnitException If the toolkit could not be started in time, or
+   * Monocle is missing.
    */
-  public static void load(URL url) {
-    if (url == null) {
-      throw new NullPointerException(LOCATION_IS_NOT_SET);
+  public static synchronized void init(boolean headless) {
+    if (headless) {
+      configureHeadless();
     }
+    init();
+  }
 
+  /**
+   * Set the system properties for running the JavaFX toolkit headless. Does
+   * not override properties that have already been set explicitly.
+   */
+  private static void configureHeadless() {
+    if (launchThread != null || DriverApp.isStarted()) {
+      if (!"Monocle".equals(System.getProperty("glass.platform"))) {
+        Logger.getLogger(FXUnit.class.getName()).warning("JavaFX toolkit is already running, cannot switch to headless mode.");
+      }
+      return;
+    }
     try {
-      FXMLLoader loader = new FXMLLoader(url);
-      loader.load();
-      controller = loader.getController();
-      root = loader.getRoot();
-
-    } catch (IOException ex) {
-      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
-      throw new FXUnitException("Cannot load FXML.", ex);
+      Class.forName(MONOCLE_PLATFORM_FACTORY, false, FXUnit.class.getClassLoader());
+    } catch (ClassNotFoundException ex) {
+      throw new FXUnitException("Headless mode requires Monocle on the class path, e.g., org.testfx:openjfx-monocle.", ex);
     }
+    setPropertyIfAbsent("glass.platform", "Monocle");
+    setPropertyIfAbsent("monocle.platform", "Headless");
+    setPropertyIfAbsent("prism.order", "sw");
+    setPropertyIfAbsent("java.awt.headless", "true");
   }
 
-  public static void load(URL url, ResourceBundle rb) {
-    if (url == null) {
-      throw new NullPointerException(LOCATION_IS_NOT_SET);
+  /**
+   * The exception for a failed launch of the JavaFX toolkit. JavaFX can launch
+   * its toolkit only once per JVM, hence the launch error is reported again on
+   * every further call of {@link #init()}.
+   */
+  private static FXUnitException launchFailed() {
+    String message = "Cannot start the JavaFX toolkit (it cannot be restarted in this JVM).";
+    for (Throwable cause = launchError; cause != null; cause = cause.getCause()) {
+      if (cause instanceof UnsatisfiedLinkError) {
+        message += " A native library is missing: on Linux, the JavaFX fonts need freetype, fontconfig and pango"
+                + " (libpango-1.0, libpangoft2-1.0), also when running headless on Monocle.";
+        break;
+      }
     }
-    if (rb == null) {
-      throw new NullPointerException("ResourceBundle must not be null.");
+    return new FXUnitException(message, launchError);
+  }
+
+  private static void setPropertyIfAbsent(String key, String value) {
+    if (System.getProperty(key) == null) {
+      System.setProperty(key, value);
     }
+  }
 
-    try {
-      FXMLLoader loader = new FXMLLoader(url);
-      loader.setResources(rb);
-      loader.load();
-      controller = loader.getController();
-      root = loader.getRoot();
+  public static void load(String url) {
+    load(FXUnit.class.getResource(url));
+  }
 
-    } catch (IOException ex) {
-      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
-      throw new FXUnitException("Cannot load FXML.", ex);
-    }
+  /**
+   * Load an FXML UI from the given URL and set the controller and root node
+   * properties of the {@link FXUnitContext#current() current context}
+   * according to the FXML.
+   *
+   * @param url The FXML URL.
+   */
+  public static void load(URL url) {
+    FXUnitContext.current().load(url);
+  }
+
+  public static void load(URL url, ResourceBundle rb) {
+    FXUnitContext.current().load(url, rb);
   }
 
   /**
    * Load an FXML UI from the given URL and instatiate the given controller
-   * class. The {@link #controller} reference is set to the new instance.
-   * {@link #root} is set to the root node of the FXML UI.
+   * class. The {@link #getController() controller} reference is set to the new
+   * instance, the {@link #getRoot() root} is set to the root node of the FXML
+   * UI.
    *
    * @param url
    * @param controllerClass
    */
-  @SuppressWarnings("unchecked")
   public static void load(URL url, Class<?> controllerClass) {
-    if (url == null) {
-      throw new NullPointerException(LOCATION_IS_NOT_SET);
-    }
-
-    try {
-      FXMLLoader loader = new FXMLLoader(url);
-      loader.setController(controllerClass.getDeclaredConstructor().newInstance());
-      loader.load();
-      controller = loader.getController();
-      root = loader.getRoot();
-
-    } catch (IOException | InstantiationException | IllegalAccessException | NoSuchMethodException | SecurityException | IllegalArgumentException | InvocationTargetException ex) {
-      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
-      throw new FXUnitException("Cannot load FXML and Controller.", ex);
-    }
+    FXUnitContext.current().load(url, controllerClass);
   }
 
   /**
@@ -196,17 +265,7 @@ public class FXUnit {
    * @param node The node to test.
    */
   public static void show(Node node) {
-    final CountDownLatch latch = new CountDownLatch(1);
-    Platform.runLater(() -> {
-      showTestingStage(node);
-      latch.countDown();
-    });
-
-    try {
-      latch.await();
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
+    FXUnitContext.current().show(node);
   }
 
   /**
@@ -232,18 +291,7 @@ public class FXUnit {
    * @param url URL of the FXML file.
    */
   public static void show(URL url) {
-    final CountDownLatch latch = new CountDownLatch(1);
-    Platform.runLater(() -> {
-      load(url);
-      showTestingStage(url);
-      latch.countDown();
-    });
-
-    try {
-      latch.await();
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
+    FXUnitContext.current().show(url);
   }
 
   /**
@@ -257,18 +305,7 @@ public class FXUnit {
    * @param rb The resource bundle for I18N.
    */
   public static void show(URL url, ResourceBundle rb) {
-    final CountDownLatch latch = new CountDownLatch(1);
-    Platform.runLater(() -> {
-      load(url, rb);
-      showTestingStage(url);
-      latch.countDown();
-    });
-
-    try {
-      latch.await();
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
+    FXUnitContext.current().show(url, rb);
   }
 
   /**
@@ -280,38 +317,23 @@ public class FXUnit {
    * @param controller The controller instance to use with the UI to test.
    */
   public static void show(URL url, Class<?> controller) {
-    final CountDownLatch latch = new CountDownLatch(1);
-    Platform.runLater(() -> {
-      load(url, controller);
-      showTestingStage(url);
-      latch.countDown();
-    });
-
-    try {
-      latch.await();
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    }
+    FXUnitContext.current().show(url, controller);
   }
 
   /**
-   * Close the current stage, if it is not null, and add a delay of a second,
-   * e.g., to ensure cleanups to get actual done.
+   * Close the current stage, if it is not null, and wait until the UI is idle,
+   * e.g., to ensure cleanups to get actual done. If
+   * {@link FXHelper#isFixedDelays() fixed delays} are enabled, add a delay of a
+   * second instead.
    */
   public static void closeStage() {
-    if (stage != null) {
-      FXHelper.shutdownStage(stage);
-    }
-
-    try {
-      Thread.sleep(1000);
-    } catch (InterruptedException ex) {
-      Logger.getLogger(FXUnitTestBase.class.getName()).log(Level.INFO, null, ex);
-      Thread.currentThread().interrupt();
-    }
+    FXUnitContext.current().closeStage();
   }
 
   public static void init(Application instance) {
+    if (Boolean.getBoolean(HEADLESS_PROPERTY)) {
+      configureHeadless();
+    }
     DriverApp.setApplication(instance);
     Application.launch(DriverApp.class, new String[0]);
   }
@@ -320,38 +342,4 @@ public class FXUnit {
     FXHelper.shutdownStage(stage);
   }
 
-  private static void showTestingStage(URL url) {
-    stage = new Stage(StageStyle.UNDECORATED);
-    stage.setTitle("FXUnit testing " + getShortFilenameFromURL(url));
-    Scene scene = new Scene(root);
-    stage.setScene(scene);
-    stage.show();
-  }
-
-  private static void showTestingStage(Node node) {
-    stage = new Stage(StageStyle.UNDECORATED);
-    stage.setTitle("FXUnit testing " + node);
-
-    Scene scene;
-    if (node instanceof Parent) {
-      scene = new Scene((Parent) node);
-    } else {
-      Parent parent = new Pane(node);
-      scene = new Scene(parent);
-    }
-    stage.setScene(scene);
-//    stage.setWidth(node.prefWidth(stage.getWidth()));
-//    stage.setHeight(node.prefHeight(stage.getHeight()));
-    stage.show();
-  }
-
-  private static String getShortFilenameFromURL(URL url) {
-    final String filename = url.getFile();
-    if (filename.contains("/")) {
-      return filename.substring(filename.lastIndexOf("/") + 1);
-    } else {
-      return filename;
-    }
-  }
-
 }
@@ -0,0 +1,576 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.net.URL;
+import java.time.Instant;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.robot.Robot;
+import javafx.stage.Stage;
+
+/**
+ * The UI under test, i.e., the stage, the root node and the controller, that
+ * {@link FXUnit} and {@link FX} operate on. Each thread may be bound to its own
+ * context, e.g., by the {@link FXUnitExtension}, so that several tests can show
+ * their UI on separate stages at the same time. Threads that are not bound to
+ * a context share a default context.
+ * <p>
+ * A context may have a parent context: as long as it has neither loaded nor
+ * shown a UI itself, it returns the UI of its parent, e.g., a UI shown in a
+ * <code>@BeforeAll</code> method.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXUnitContext {
+
+  private static final String LOCATION_IS_NOT_SET = "Location is not set. Please provide a valid URL.";
+
+  private static final FXUnitContext DEFAULT = new FXUnitContext();
+  private static final ThreadLocal<FXUnitContext> CURRENT = new ThreadLocal<>();
+
+  private final FXUnitContext parent;
+  private final Instant created = Instant.now();
+  private final FXMetrics metrics;
+
+  private static volatile boolean loadOnFXThread = Boolean.getBoolean("fxunit.loadOnFXThread");
+
+  private volatile Object controller;
+  private volatile Parent root;
+  private volatile Stage stage;
+  private Robot robot;
+
+  /**
+   * Create a new context without parent.
+   */
+  public FXUnitContext() {
+    this(null);
+  }
+
+  /**
+   * Create a new context that falls back to the UI of the given parent, as long
+   * as it has no UI of its own.
+   *
+   * @param parent The parent context, may be null.
+   */
+  public FXUnitContext(FXUnitContext parent) {
+    this.parent = parent;
+    this.metrics = new FXMetrics(parent == null ? null : parent.metrics);
+  }
+
+  /**
+   * Returns the context bound to the current thread, or the default context.
+   *
+   * @return The current context, never null.
+   */
+  public static FXUnitContext current() {
+    final FXUnitContext context = CURRENT.get();
+    return context != null ? context : DEFAULT;
+  }
+
+  /**
+   * Bind the given context to the current thread.
+   *
+   * @param context The context, null to unbind.
+   * @return The previously bound context, may be null.
+   */
+  static FXUnitContext bind(FXUnitContext context) {
+    final FXUnitContext previous = CURRENT.get();
+    if (context == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+    return previous;
+  }
+
+  /**
+   * Returns the parent context.
+   *
+   * @return The parent, may be null.
+   */
+  public FXUnitContext getParent() {
+    return parent;
+  }
+
+  /**
+   * Returns the time this context has been created, e.g., the start of a test
+   * run with the {@link FXUnitExtension}.
+   *
+   * @return The creation time.
+   */
+  public Instant getCreated() {
+    return created;
+  }
+
+  /**
+   * Returns the metrics of this context, which include the ones of its
+   * descendants.
+   *
+   * @return The metrics.
+   */
+  public FXMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the stage of the UI under test, after the FXML UI has been loaded
+   * and displayed with the {@link #show(java.net.URL) } method.
+   *
+   * @return The stage.
+   */
+  public Stage getStage() {
+    return owner().stage;
+  }
+
+  /**
+   * Returns the controller of the FXML UI under test, after the FXML UI has
+   * been loaded with the {@link #load(java.net.URL)} method or displayed using
+   * {@link #show(java.net.URL)};
+   *
+   * @param <T> The type of the controller.
+   * @return The controller.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getController() {
+    return (T) owner().controller;
+  }
+
+  /**
+   * Returns the root node of the UI under test.
+   *
+   * @return The root node.
+   */
+  public Parent getRoot() {
+    return owner().root;
+  }
+
+  /**
+   * Returns the robot for synthetic key and mouse input, shared by this
+   * context and its descendants. It is created on first use, and has to be
+   * used on the JavaFX application thread only.
+   *
+   * @return The robot.
+   */
+  Robot getRobot() {
+    if (parent != null) {
+      return parent.getRobot();
+    }
+    if (!Platform.isFxApplicationThread()) {
+      throw new IllegalStateException("The robot must be used on the JavaFX application thread.");
+    }
+    if (robot == null) {
+      robot = new Robot();
+    }
+    return robot;
+  }
+
+  /**
+   * Returns the context that holds the UI under test: this context, if it has
+   * loaded or shown a UI, otherwise the parent's owner.
+   */
+  private FXUnitContext owner() {
+    if (this.root != null || this.stage != null || this.parent == null) {
+      return this;
+    }
+    return this.parent.owner();
+  }
+
+  /**
+   * Load an FXML UI from the given URL and set the controller and root node
+   * properties according to the FXML. Like all load methods, it uses the
+   * generated {@link FXMLFactory} of the FXML, if available, and otherwise reads
+   * the FXML through the {@link FXMLTemplateCache}.
+   *
+   * @param url The FXML URL.
+   */
+  public void load(URL url) {
+    final FXTrace.LoadEvent event = FXTrace.beginLoad(url);
+    try {
+      load0(url);
+    } finally {
+      event.commit();
+    }
+  }
+
+  private void load0(URL url) {
+    if (url == null) {
+      throw new NullPointerException(LOCATION_IS_NOT_SET);
+    }
+
+    try {
+      if (loadGenerated(url, null, null)) {
+        return;
+      }
+      FXMLLoader loader = new FXMLLoader(url);
+      loader.setControllerFactory(FXControllers::create);
+      FXMLTemplateCache.load(loader);
+      this.controller = loader.getController();
+      this.root = loader.getRoot();
+
+    } catch (IOException ex) {
+      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
+      throw new FXUnitException("Cannot load FXML.", ex);
+    }
+  }
+
+  /**
+   * Load an FXML UI from the given URL with the given resource bundle.
+   *
+   * @param url The FXML URL.
+   * @param rb The resource bundle for I18N.
+   */
+  public void load(URL url, ResourceBundle rb) {
+    final FXTrace.LoadEvent event = FXTrace.beginLoad(url);
+    try {
+      load0(url, rb);
+    } finally {
+      event.commit();
+    }
+  }
+
+  private void load0(URL url, ResourceBundle rb) {
+    if (url == null) {
+      throw new NullPointerException(LOCATION_IS_NOT_SET);
+    }
+    if (rb == null) {
+      throw new NullPointerException("ResourceBundle must not be null.");
+    }
+
+    try {
+      if (loadGenerated(url, rb, null)) {
+        return;
+      }
+      FXMLLoader loader = new FXMLLoader(url);
+      loader.setResources(rb);
+      loader.setControllerFactory(FXControllers::create);
+      FXMLTemplateCache.load(loader);
+      this.controller = loader.getController();
+      this.root = loader.getRoot();
+
+    } catch (IOException ex) {
+      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
+      throw new FXUnitException("Cannot load FXML.", ex);
+    }
+  }
+
+  /**
+   * Load an FXML UI from the given URL and instatiate the given controller
+   * class, using the {@link FXControllers}.
+   *
+   * @param url The FXML URL.
+   * @param controllerClass The controller class.
+   */
+  public void load(URL url, Class<?> controllerClass) {
+    final FXTrace.LoadEvent event = FXTrace.beginLoad(url);
+    try {
+      load0(url, controllerClass);
+    } finally {
+      event.commit();
+    }
+  }
+
+  private void load0(URL url, Class<?> controllerClass) {
+    if (url == null) {
+      throw new NullPointerException(LOCATION_IS_NOT_SET);
+    }
+
+    try {
+      final Object instance = FXControllers.create(controllerClass);
+      if (loadGenerated(url, null, instance)) {
+        return;
+      }
+      FXMLLoader loader = new FXMLLoader(url);
+      loader.setController(instance);
+      FXMLTemplateCache.load(loader);
+      this.controller = loader.getController();
+      this.root = loader.getRoot();
+
+    } catch (IOException | FXUnitException ex) {
+      Logger.getLogger(FXUnit.class.getName()).log(Level.SEVERE, null, ex);
+      throw new FXUnitException("Cannot load FXML and Controller.", ex);
+    }
+  }
+
+  /**
+   * Build the UI with the generated {@link FXMLFactory} of the given FXML, if
+   * there is one that supports the given controller.
+   *
+   * @return true, if the UI has been built.
+   * @throws IOException If the factory fails like the FXMLLoader would.
+   */
+  private boolean loadGenerated(URL url, ResourceBundle rb, Object aController) throws IOException {
+    final FXMLFactory factory = FXMLFactories.getFactory(url, aController != null ? aController.getClass() : null);
+    if (factory == null) {
+      return false;
+    }
+    final Object instance = aController != null ? aController : factory.createController();
+    this.root = factory.create(instance, url, rb);
+    this.controller = instance;
+    return true;
+  }
+
+  /**
+   * Show the given node in a testing stage of this context. The method waits
+   * for the stage to be showen on the JavaFX thread.
+   *
+   * @param node The node to test.
+   */
+  public void show(Node node) {
+    final FXTrace.ShowEvent event = FXTrace.beginShow(node);
+    try {
+      runAndWait(() -> showTestingStage(node));
+    } finally {
+      event.commit();
+    }
+  }
+
+  /**
+   * Load an FXML UI into a new (undecorated) stage of this context and show
+   * it. The UI is loaded on the calling thread, only the stage is shown on the
+   * JavaFX thread. The method waits for the stage to be showen.
+   *
+   * @param url URL of the FXML file.
+   */
+  public void show(URL url) {
+    loadAndShow(url, () -> load(url));
+  }
+
+  /**
+   * Load an FXML UI with the given resource bundle into a new (undecorated)
+   * stage of this context and show it. The UI is loaded on the calling thread,
+   * only the stage is shown on the JavaFX thread. The method waits for the
+   * stage to be showen.
+   *
+   * @param url URL of the FXML file.
+   * @param rb The resource bundle for I18N.
+   */
+  public void show(URL url, ResourceBundle rb) {
+    loadAndShow(url, () -> load(url, rb));
+  }
+
+  /**
+   * Load an FXML UI into a new (undecorated) stage of this context and show
+   * it, using the given controller class for this FXML UI. The UI is loaded on
+   * the calling thread, only the stage is shown on the JavaFX thread. The
+   * method waits for the stage to be showen.
+   *
+   * @param url URL of the FXML file.
+   * @param controllerClass The controller class to use with the UI to test.
+   */
+  public void show(URL url, Class<?> controllerClass) {
+    loadAndShow(url, () -> load(url, controllerClass));
+  }
+
+  /**
+   * Returns whether FXML UIs are loaded on the JavaFX thread by the show
+   * methods.
+   *
+   * @return true, if FXML is loaded on the JavaFX thread.
+   */
+  public static boolean isLoadOnFXThread() {
+    return loadOnFXThread;
+  }
+
+  /**
+   * Set whether to load FXML UIs on the JavaFX thread in the show methods. This
+   * is the fallback for UIs with nodes that can only be created on the JavaFX
+   * thread. By default, the UI is loaded on the calling thread and FXUnit falls
+   * back to the JavaFX thread only if that fails with an
+   * {@link IllegalStateException}.
+   *
+   * @param aLoadOnFXThread true, to load FXML on the JavaFX thread.
+   */
+  public static void setLoadOnFXThread(boolean aLoadOnFXThread) {
+    loadOnFXThread = aLoadOnFXThread;
+  }
+
+  /**
+   * Build the (unattached) scene graph on the calling thread and hop to the
+   * JavaFX thread only to show it.
+   */
+  private void loadAndShow(URL url, Runnable load) {
+    final FXTrace.ShowEvent event = FXTrace.beginShow(url);
+    try {
+      loadAndShow0(url, load);
+    } finally {
+      event.commit();
+    }
+  }
+
+  private void loadAndShow0(URL url, Runnable load) {
+    if (Platform.isFxApplicationThread()) {
+      load.run();
+      showTestingStage(url);
+      return;
+    }
+    if (loadOnFXThread) {
+      runAndWait(() -> {
+        load.run();
+        showTestingStage(url);
+      });
+      return;
+    }
+
+    try {
+      load.run();
+    } catch (FXUnitException ex) {
+      if (!isCausedByIllegalState(ex)) {
+        throw ex;
+      }
+      Logger.getLogger(FXUnit.class.getName()).log(Level.FINE, "Cannot load FXML off the JavaFX thread, retrying on the JavaFX thread.", ex);
+      runAndWait(load);
+    }
+    runAndWait(() -> showTestingStage(url));
+  }
+
+  private static boolean isCausedByIllegalState(Throwable ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IllegalStateException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Close the stage of this context, if it is not null, i.e., return it to the
+   * {@link FXStagePool}, and wait until the UI is idle, e.g., to ensure cleanups
+   * to get actual done. If {@link FXHelper#isFixedDelays() fixed delays} are
+   * enabled, add a delay of a second instead. Afterwards, {@link #getStage()}
+   * still returns the closed stage, which is hidden, but it is recycled, i.e.,
+   * it shows the UI of the next context that acquires it from the pool.
+   * <p>
+   * If {@link FXLeakDetector#isEnabled() leak checks} are enabled, this context
+   * drops its root node and controller, too, and the method asserts that they
+   * and the scene, unless it is pooled, get garbage collected.</p>
+   *
+   * @throws AssertionError If the closed UI is still reachable, with leak
+   * checks enabled.
+   */
+  public void closeStage() {
+    final FXUnitContext owner = owner();
+    final Stage current = owner.stage;
+    final FXLeakDetector detector = FXLeakDetector.isEnabled() && !Platform.isFxApplicationThread()
+            ? owner.watchUI() : null;
+    if (current != null) {
+      if (Platform.isFxApplicationThread()) {
+        FXStagePool.release(current);
+      } else {
+        runAndWait(() -> FXStagePool.release(current));
+      }
+    }
+
+    if (FXHelper.isFixedDelays()) {
+      FXHelper.sleep(1000);
+    } else {
+      FXHelper.waitForIdle(null);
+    }
+    if (detector != null) {
+      unwatchPooledScene(detector, current);
+      detector.assertCollected();
+    }
+  }
+
+  /**
+   * Watch the UI of this context for leaks, and drop the references to its root
+   * node and controller.
+   */
+  private FXLeakDetector watchUI() {
+    final FXLeakDetector detector = new FXLeakDetector();
+    final Scene scene = this.stage == null ? null : this.stage.getScene();
+    detector.watch("root", this.root != null ? this.root : scene == null ? null : scene.getRoot())
+            .watch("controller", this.controller)
+            .watch("scene", scene);
+    this.root = null;
+    this.controller = null;
+    return detector;
+  }
+
+  /**
+   * Do not expect the scene to be collected, if the stage pool has kept it.
+   */
+  private static void unwatchPooledScene(FXLeakDetector detector, Stage stage) {
+    if (stage != null && stage.getScene() != null && stage.getScene() == detector.get("scene")) {
+      detector.unwatch("scene");
+    }
+  }
+
+  /**
+   * Run the given task on the JavaFX thread and wait for it. An exception of
+   * the task is rethrown on the calling thread, as {@link FXUnitException}.
+   */
+  private static void runAndWait(Runnable runnable) {
+    final FutureTask<Void> future = new FutureTask<>(runnable, null);
+    final long start = System.nanoTime();
+    FXMetrics.recordHop();
+    FXScheduler.schedule(future);
+
+    try {
+      future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      final Throwable cause = ex.getCause();
+      throw new FXUnitException(cause.getMessage(), cause);
+    } finally {
+      FXMetrics.recordBlocked(start);
+    }
+  }
+
+  private void showTestingStage(URL url) {
+    showTestingStage(this.root, "FXUnit testing " + getShortFilenameFromURL(url));
+  }
+
+  private void showTestingStage(Node node) {
+    final Parent parentNode;
+    if (node instanceof Parent) {
+      parentNode = (Parent) node;
+    } else {
+      parentNode = new Pane(node);
+    }
+    showTestingStage(parentNode, "FXUnit testing " + node);
+  }
+
+  private void showTestingStage(Parent parentNode, String title) {
+    if (this.stage != null) {
+      FXStagePool.release(this.stage);
+    }
+    this.stage = FXStagePool.acquire(parentNode, title);
+  }
+
+  private static String getShortFilenameFromURL(URL url) {
+    final String filename = url.getFile();
+    if (filename.contains("/")) {
+      return filename.substring(filename.lastIndexOf("/") + 1);
+    } else {
+      return filename;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * JUnit 5 extension that initializes the FXUnit testing framework and binds an
+ * own {@link FXUnitContext} to each test class and to each test. A UI shown by
+ * a test is shown on a stage of its own, and closed after the test. A UI shown
+ * in a <code>@BeforeAll</code> method is visible to all tests of the class.
+ * Test and lifecycle methods may declare a parameter of type
+ * {@link FXUnitContext} in order to get the current context injected.
+ * <pre>
+ * &#64;ExtendWith(FXUnitExtension.class)
+ * public class MyTest {
+ *   &#64;Test
+ *   public void testSomething(FXUnitContext context) {
+ *     context.show(MyTest.class.getResource("My.fxml"));
+ *     FX.lookup("#button").fire();
+ *   }
+ * }
+ * </pre>
+ * <p>
+ * The extension supports concurrent test execution, e.g., with the JUnit
+ * configuration parameters
+ * <code>junit.jupiter.execution.parallel.enabled=true</code> and
+ * <code>junit.jupiter.execution.parallel.mode.default=concurrent</code>: each
+ * test runs with its own context and shows its UI on its own stage, and the
+ * work that the tests put on the single JavaFX application thread is scheduled
+ * fairly among them.</p>
+ * <p>
+ * Stalls of the JavaFX application thread during a test, as detected by the
+ * {@link FXWatchdog}, are published as report entry of the test. The
+ * {@link FXMetrics} of each test class and its tests are written as JSON file
+ * next to the surefire reports, and, if {@link FXTrace#isEnabled() enabled},
+ * a flight recording of each test class as Chrome trace.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXUnitExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+  private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FXUnitExtension.class);
+  private static final String CONTEXT = "context";
+  private static final String PREVIOUS = "previous";
+  private static final String TOOLKIT = "toolkit";
+  private static final String METRICS = "metrics";
+  private static final String RECORDING = "recording";
+  private static final String TEST_EVENT = "testEvent";
+
+  @Override
+  public void beforeAll(ExtensionContext extensionContext) {
+    // once per JVM; the toolkit cannot be restarted, hence it keeps running:
+    extensionContext.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TOOLKIT, key -> {
+      FXUnit.init();
+      return Boolean.TRUE;
+    });
+    if (FXTrace.isEnabled()) {
+      extensionContext.getStore(NAMESPACE).put(RECORDING, FXTrace.startRecording());
+    }
+    enter(extensionContext, new FXUnitContext());
+  }
+
+  @Override
+  public void afterAll(ExtensionContext extensionContext) {
+    final FXUnitContext context = extensionContext.getStore(NAMESPACE).get(CONTEXT, FXUnitContext.class);
+    leave(extensionContext);
+    writeMetrics(extensionContext, context);
+    writeTrace(extensionContext);
+  }
+
+  @Override
+  public void beforeEach(ExtensionContext extensionContext) {
+    final FXUnitContext classContext = extensionContext.getParent()
+            .map(parent -> parent.getStore(NAMESPACE).get(CONTEXT, FXUnitContext.class))
+            .orElse(null);
+    enter(extensionContext, new FXUnitContext(classContext));
+    extensionContext.getStore(NAMESPACE).put(TEST_EVENT, FXTrace.beginTest(
+            extensionContext.getTestClass().map(Class::getName).orElse(null), extensionContext.getDisplayName()));
+  }
+
+  @Override
+  public void afterEach(ExtensionContext extensionContext) {
+    final FXUnitContext context = extensionContext.getStore(NAMESPACE).get(CONTEXT, FXUnitContext.class);
+    reportStalls(extensionContext);
+    leave(extensionContext);
+    collectMetrics(extensionContext, context);
+    final FXTrace.TestEvent event = extensionContext.getStore(NAMESPACE).remove(TEST_EVENT, FXTrace.TestEvent.class);
+    if (event != null) {
+      event.commit();
+    }
+  }
+
+  /**
+   * Publish the stalls of the JavaFX application thread during the test as
+   * report entry, e.g., into the XML reports of surefire.
+   */
+  private static void reportStalls(ExtensionContext extensionContext) {
+    final FXUnitContext context = extensionContext.getStore(NAMESPACE).get(CONTEXT, FXUnitContext.class);
+    if (context == null || !FXWatchdog.isRunning()) {
+      return;
+    }
+    final List<FXWatchdog.Stall> stalls = FXWatchdog.getStalls(context.getCreated());
+    if (!stalls.isEmpty()) {
+      extensionContext.publishReportEntry("fxunit.stalls", stalls.stream()
+              .map(FXWatchdog.Stall::format)
+              .collect(Collectors.joining(System.lineSeparator())));
+    }
+  }
+
+  /**
+   * Add the metrics of the test, including the closing of its stage, to the
+   * ones of its test class.
+   */
+  @SuppressWarnings("unchecked")
+  private static void collectMetrics(ExtensionContext extensionContext, FXUnitContext context) {
+    if (context == null || !FXMetrics.isEnabled() || extensionContext.getParent().isEmpty()) {
+      return;
+    }
+    final List<String> tests = extensionContext.getParent().get().getStore(NAMESPACE)
+            .getOrComputeIfAbsent(METRICS, key -> Collections.synchronizedList(new ArrayList<String>()), List.class);
+    tests.add("{\"test\": \"" + FXMetrics.escape(extensionContext.getDisplayName())
+            + "\", \"uniqueId\": \"" + FXMetrics.escape(extensionContext.getUniqueId())
+            + "\", \"metrics\": " + context.getMetrics().toJson() + "}");
+  }
+
+  /**
+   * Write the metrics of the test class and its tests as JSON file into the
+   * {@link FXMetrics#getReportDirectory() report directory}.
+   */
+  @SuppressWarnings("unchecked")
+  private static void writeMetrics(ExtensionContext extensionContext, FXUnitContext context) {
+    if (context == null || !FXMetrics.isEnabled()) {
+      return;
+    }
+    final List<String> tests = extensionContext.getStore(NAMESPACE).remove(METRICS, List.class);
+    final String className = extensionContext.getTestClass().map(Class::getName).orElse(extensionContext.getDisplayName());
+    final StringBuilder json = new StringBuilder();
+    json.append("{\n  \"class\": \"").append(FXMetrics.escape(className)).append("\",\n");
+    json.append("  \"metrics\": ").append(context.getMetrics().toJson()).append(",\n");
+    json.append("  \"tests\": [");
+    if (tests != null) {
+      synchronized (tests) {
+        for (int i = 0; i < tests.size(); i++) {
+          json.append(i == 0 ? "\n    " : ",\n    ").append(tests.get(i));
+        }
+      }
+    }
+    json.append("\n  ]\n}\n");
+
+    final Path directory = FXMetrics.getReportDirectory();
+    try {
+      Files.createDirectories(directory);
+      Files.writeString(directory.resolve(className + "-fxunit.json"), json, StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      Logger.getLogger(FXUnitExtension.class.getName()).log(Level.WARNING, "Cannot write FXUnit metrics of " + className, ex);
+    }
+  }
+
+  /**
+   * Stop the flight recording of the test class, if any, and write it as
+   * Chrome trace next to the metrics.
+   */
+  private static void writeTrace(ExtensionContext extensionContext) {
+    final Recording recording = extensionContext.getStore(NAMESPACE).remove(RECORDING, Recording.class);
+    if (recording == null) {
+      return;
+    }
+    final String className = extensionContext.getTestClass().map(Class::getName).orElse(extensionContext.getDisplayName());
+    final Path directory = FXMetrics.getReportDirectory();
+    try {
+      Files.createDirectories(directory);
+      FXTrace.stopRecording(recording, directory.resolve(className + "-fxunit-trace.json"));
+    } catch (IOException ex) {
+      Logger.getLogger(FXUnitExtension.class.getName()).log(Level.WARNING, "Cannot write FXUnit trace of " + className, ex);
+    }
+  }
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+    return parameterContext.getParameter().getType() == FXUnitContext.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+    final FXUnitContext context = extensionContext.getStore(NAMESPACE).get(CONTEXT, FXUnitContext.class);
+    return context != null ? context : FXUnitContext.current();
+  }
+
+  private static void enter(ExtensionContext extensionContext, FXUnitContext context) {
+    final ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+    store.put(CONTEXT, context);
+    store.put(PREVIOUS, FXUnitContext.bind(context));
+  }
+
+  private static void leave(ExtensionContext extensionContext) {
+    final ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+    final FXUnitContext context = store.remove(CONTEXT, FXUnitContext.class);
+    final FXUnitContext previous = store.remove(PREVIOUS, FXUnitContext.class);
+    if (context != null) {
+      // close only the stage this context owns, not the one of its parent:
+      final FXUnitContext parent = context.getParent();
+      if (context.getStage() != null && (parent == null || context.getStage() != parent.getStage())) {
+        context.closeStage();
+      }
+    }
+    FXUnitContext.bind(previous);
+  }
+}
@@ -22,14 +22,17 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.stage.Stage;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 /**
  * Base class for easier testing of FXML controllers, can be subclassed with the
- * controller class as type parameter.
+ * controller class as type parameter. Each test runs with its own
+ * {@link FXUnitContext}, see {@link FXUnitExtension}.
  *
  * @author robert
  * @param <T> Controller type;
  */
+@ExtendWith(FXUnitExtension.class)
 public abstract class FXUnitTestBase<T> {
 
   /**
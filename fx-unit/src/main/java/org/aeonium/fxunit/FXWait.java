@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+/**
+ * Waits for a condition on the UI, mostly without polling: the condition is
+ * evaluated on the JavaFX application thread once, and then whenever one of the
+ * given observables is invalidated or the scene has been laid out in a pulse.
+ * As the condition may depend on state that changes without either, e.g., a
+ * field of the controller, it is also re-evaluated every
+ * {@value #RECHECK_MILLIS} ms. The waiting thread is released as soon as the
+ * condition holds. All listeners are removed after the wait.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class FXWait {
+
+  /**
+   * The interval of the periodic re-evaluation, in milliseconds.
+   */
+  static final long RECHECK_MILLIS = 100;
+
+  private final String description;
+  private final BooleanSupplier condition;
+  private final Scene scene;
+  private final Observable[] observables;
+  private final CompletableFuture<Void> future = new CompletableFuture<>();
+  private final InvalidationListener listener = observable -> check();
+  private final Runnable pulseListener = this::check;
+
+  private FXWait(String description, BooleanSupplier condition, Scene scene, Observable[] observables) {
+    this.description = description;
+    this.condition = condition;
+    this.scene = scene;
+    this.observables = observables;
+  }
+
+  /**
+   * Wait until the given condition holds.
+   *
+   * @param description The description of the condition, for the error
+   * message.
+   * @param condition The condition, evaluated on the JavaFX application thread.
+   * @param scene The scene whose pulses trigger the evaluation, may be null.
+   * @param timeout The maximum time to wait.
+   * @param observables The observables whose invalidation triggers the
+   * evaluation.
+   * @throws AssertionError If the condition does not hold within the timeout.
+   */
+  static void until(String description, BooleanSupplier condition, Scene scene, Duration timeout, Observable... observables) {
+    if (condition == null) {
+      throw new NullPointerException("condition must not be null.");
+    }
+    if (timeout == null) {
+      throw new NullPointerException("timeout must not be null.");
+    }
+    new FXWait(description, condition, scene, observables).await(timeout);
+  }
+
+  private void await(Duration timeout) {
+    if (Platform.isFxApplicationThread()) {
+      if (!condition.getAsBoolean()) {
+        throw new FXUnitException("Cannot wait on the JavaFX application thread until " + description);
+      }
+      return;
+    }
+
+    try {
+      FXHelper.runAndWait(() -> {
+        for (Observable observable : observables) {
+          observable.addListener(listener);
+        }
+        if (scene != null) {
+          scene.addPostLayoutPulseListener(pulseListener);
+        }
+        check();
+      });
+      final long start = System.nanoTime();
+      try {
+        awaitFuture(start + TimeUnit.MILLISECONDS.toNanos((long) timeout.toMillis()));
+      } finally {
+        FXMetrics.recordWait(start);
+      }
+    } catch (TimeoutException ex) {
+      throw new AssertionError("Timeout after " + (long) timeout.toMillis() + " ms, waiting until " + description);
+    } catch (ExecutionException ex) {
+      final Throwable cause = ex.getCause();
+      if (cause instanceof AssertionError error) {
+        throw error;
+      }
+      throw new FXUnitException("Error while waiting until " + description, cause);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new FXUnitException("Interrupted while waiting until " + description, ex);
+    } finally {
+      Platform.runLater(this::removeListeners);
+    }
+  }
+
+  /**
+   * Wait for the future until the given deadline, and re-evaluate the condition
+   * on the JavaFX application thread in between.
+   */
+  private void awaitFuture(long deadline) throws InterruptedException, ExecutionException, TimeoutException {
+    final long interval = TimeUnit.MILLISECONDS.toNanos(RECHECK_MILLIS);
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      try {
+        future.get(Math.min(remaining, interval), TimeUnit.NANOSECONDS);
+        return;
+      } catch (TimeoutException ex) {
+        Platform.runLater(this::check);
+      }
+    }
+    throw new TimeoutException();
+  }
+
+  /**
+   * Evaluate the condition, on the JavaFX application thread.
+   */
+  private void check() {
+    if (future.isDone()) {
+      return;
+    }
+    try {
+      if (condition.getAsBoolean()) {
+        future.complete(null);
+      }
+    } catch (RuntimeException | AssertionError ex) {
+      future.completeExceptionally(ex);
+    }
+  }
+
+  private void removeListeners() {
+    for (Observable observable : observables) {
+      observable.removeListener(listener);
+    }
+    if (scene != null) {
+      scene.removePostLayoutPulseListener(pulseListener);
+    }
+  }
+}
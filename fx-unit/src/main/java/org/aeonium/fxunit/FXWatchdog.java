@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javafx.application.Platform;
+
+/**
+ * Watches the responsiveness of the JavaFX application thread: a daemon thread
+ * posts a heartbeat with {@link Platform#runLater(java.lang.Runnable)} every
+ * {@link #getInterval() interval} and measures how long it takes until the
+ * heartbeat is executed. If that exceeds the {@link #getThreshold()
+ * threshold}, the stack trace of the JavaFX application thread is captured,
+ * and a {@link Stall} is recorded once the thread responds again. Stalls of
+ * more than a second are logged right away, so a hanging test leaves a trace
+ * of what blocks the thread. Only the last {@link #getMaxStalls() max stalls}
+ * are kept, older ones are dropped.
+ * <p>
+ * The watchdog is started by {@link FXUnit#init()}, unless the system property
+ * <code>fxunit.watchdog</code> is false. A heartbeat costs a runLater task
+ * every interval, i.e., a wake-up of both threads 100 times a second by
+ * default, so it is paused while {@link FX#measureAllocations(java.lang.Runnable)}
+ * and {@link FX#measureRendering(java.lang.Runnable)} measure an interaction.
+ * The {@link FXUnitExtension} publishes
+ * the stalls that occurred during a test as report entry, see
+ * {@link AssertFX#assertNoStallsOver(long)} for failing a test on stalls.</p>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public final class FXWatchdog {
+
+  private static final Logger LOG = Logger.getLogger(FXWatchdog.class.getName());
+
+  private static final long HANG_MILLIS = 1000;
+
+  private static volatile long interval = Long.getLong("fxunit.watchdog.interval", 10);
+  private static volatile long threshold = Long.getLong("fxunit.watchdog.threshold", 50);
+  private static volatile int maxStalls = Integer.getInteger("fxunit.watchdog.maxStalls", 1000);
+
+  private static final Deque<Stall> STALLS = new ArrayDeque<>();
+  private static final Object PAUSE_LOCK = new Object();
+  private static int pauses;
+  private static volatile Thread fxThread;
+  private static volatile Thread watchdogThread;
+
+  /**
+   * Private contructor, there is no need to instantiate this class.
+   */
+  private FXWatchdog() {
+    // no op.
+  }
+
+  /**
+   * Check whether the watchdog is enabled by the system property
+   * <code>fxunit.watchdog</code>, defaults to true.
+   *
+   * @return true, if enabled.
+   */
+  static boolean isEnabled() {
+    return Boolean.parseBoolean(System.getProperty("fxunit.watchdog", "true"));
+  }
+
+  /**
+   * Start the watchdog, if it is not running yet.
+   */
+  public static synchronized void start() {
+    if (watchdogThread != null && watchdogThread.isAlive()) {
+      return;
+    }
+    watchdogThread = new Thread(FXWatchdog::watch, "FXUnit Watchdog");
+    watchdogThread.setDaemon(true);
+    watchdogThread.start();
+  }
+
+  /**
+   * Stop the watchdog.
+   */
+  public static synchronized void stop() {
+    if (watchdogThread != null) {
+      watchdogThread.interrupt();
+      watchdogThread = null;
+    }
+  }
+
+  /**
+   * Check whether the watchdog is running.
+   *
+   * @return true, if running.
+   */
+  public static synchronized boolean isRunning() {
+    return watchdogThread != null && watchdogThread.isAlive();
+  }
+
+  /**
+   * Pause the heartbeats, e.g., while measuring an interaction, until the
+   * matching {@link #resume()}. Pauses nest. A heartbeat that has been posted
+   * already is still executed, i.e., the caller should wait for the tasks
+   * queued on the JavaFX application thread before it starts measuring.
+   */
+  static void pause() {
+    synchronized (PAUSE_LOCK) {
+      pauses++;
+    }
+  }
+
+  /**
+   * Resume the heartbeats after a {@link #pause()}.
+   */
+  static void resume() {
+    synchronized (PAUSE_LOCK) {
+      pauses--;
+    }
+  }
+
+  private static boolean isStopped() {
+    return watchdogThread != Thread.currentThread();
+  }
+
+  private static void watch() {
+    // a heartbeat of a previous watchdog thread, which stopped waiting, must not count:
+    final Semaphore heartbeat = new Semaphore(0);
+    try {
+      while (!isStopped()) {
+        final long posted = System.nanoTime();
+        try {
+          if (post(heartbeat) && !heartbeat.tryAcquire(threshold, TimeUnit.MILLISECONDS)) {
+            awaitStalled(heartbeat, posted);
+          }
+        } catch (IllegalStateException ex) {
+          // the toolkit is not running (anymore):
+          LOG.log(Level.FINE, "Watchdog stopped, the JavaFX toolkit is not running.", ex);
+          return;
+        }
+        Thread.sleep(interval);
+      }
+    } catch (InterruptedException ex) {
+      // stopped
+    }
+  }
+
+  /**
+   * Post a heartbeat to the JavaFX application thread, unless paused.
+   *
+   * @return true, if posted.
+   */
+  private static boolean post(Semaphore heartbeat) {
+    synchronized (PAUSE_LOCK) {
+      if (pauses > 0) {
+        return false;
+      }
+      Platform.runLater(() -> {
+        fxThread = Thread.currentThread();
+        heartbeat.release();
+      });
+      return true;
+    }
+  }
+
+  /**
+   * The heartbeat is late: capture the stack trace of the JavaFX application
+   * thread, and wait until it responds, or the watchdog is stopped.
+   */
+  private static void awaitStalled(Semaphore heartbeat, long posted) throws InterruptedException {
+    final Instant start = Instant.now().minusMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted));
+    final Thread thread = fxThread;
+    final StackTraceElement[] stackTrace = thread != null ? thread.getStackTrace() : new StackTraceElement[0];
+    if (!heartbeat.tryAcquire(HANG_MILLIS, TimeUnit.MILLISECONDS)) {
+      final Stall hang = new Stall(start, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted),
+              thread != null ? thread.getStackTrace() : stackTrace);
+      LOG.log(Level.WARNING, "JavaFX application thread is blocked: {0}", hang.format());
+      while (!heartbeat.tryAcquire(HANG_MILLIS, TimeUnit.MILLISECONDS)) {
+        if (isStopped()) {
+          return;
+        }
+      }
+    }
+    final Stall stall = new Stall(start, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted), stackTrace);
+    LOG.log(Level.FINE, "JavaFX application thread stalled: {0}", stall);
+    record(stall);
+  }
+
+  /**
+   * Record the given stall, and drop the oldest ones beyond the
+   * {@link #getMaxStalls() max stalls}.
+   *
+   * @param stall The stall.
+   */
+  static void record(Stall stall) {
+    synchronized (STALLS) {
+      STALLS.addLast(stall);
+      while (STALLS.size() > Math.max(0, maxStalls)) {
+        STALLS.removeFirst();
+      }
+    }
+  }
+
+  /**
+   * Returns all stalls recorded since the start, or the last
+   * {@link #clear() clear}, but at most the last {@link #getMaxStalls() max
+   * stalls}.
+   *
+   * @return The stalls, in the order of their start.
+   */
+  public static List<Stall> getStalls() {
+    synchronized (STALLS) {
+      return List.copyOf(STALLS);
+    }
+  }
+
+  /**
+   * Returns the stalls that started at or after the given instant.
+   *
+   * @param since The instant.
+   * @return The stalls, in the order of their start.
+   */
+  public static List<Stall> getStalls(Instant since) {
+    synchronized (STALLS) {
+      return STALLS.stream().filter(stall -> !stall.getStart().isBefore(since)).toList();
+    }
+  }
+
+  /**
+   * Forget all recorded stalls.
+   */
+  public static void clear() {
+    synchronized (STALLS) {
+      STALLS.clear();
+    }
+  }
+
+  /**
+   * Get the interval between two heartbeats.
+   *
+   * @return The interval in ms.
+   */
+  public static long getInterval() {
+    return interval;
+  }
+
+  /**
+   * Set the interval between two heartbeats, defaults to the system property
+   * <code>fxunit.watchdog.interval</code>, or 10.
+   *
+   * @param anInterval The interval in ms.
+   */
+  public static void setInterval(long anInterval) {
+    interval = anInterval;
+  }
+
+  /**
+   * Get the latency of a heartbeat from which on it is considered a stall.
+   *
+   * @return The threshold in ms.
+   */
+  public static long getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Set the latency of a heartbeat from which on it is considered a stall,
+   * defaults to the system property <code>fxunit.watchdog.threshold</code>, or
+   * 50. Stalls shorter than the threshold are not recorded.
+   *
+   * @param aThreshold The threshold in ms.
+   */
+  public static void setThreshold(long aThreshold) {
+    threshold = aThreshold;
+  }
+
+  /**
+   * Get the number of stalls that are kept.
+   *
+   * @return The max stalls.
+   */
+  public static int getMaxStalls() {
+    return maxStalls;
+  }
+
+  /**
+   * Set the number of stalls that are kept, defaults to the system property
+   * <code>fxunit.watchdog.maxStalls</code>, or 1000. Beyond that, the oldest
+   * stalls are dropped, so a long test suite on a slow machine does not
+   * accumulate stack traces. The stalls already recorded are trimmed with the
+   * next stall.
+   *
+   * @param aMaxStalls The max stalls.
+   */
+  public static void setMaxStalls(int aMaxStalls) {
+    maxStalls = aMaxStalls;
+  }
+
+  /**
+   * A stall of the JavaFX application thread: when it started, how long it
+   * took, and where the thread was at the time the stall was detected.
+   */
+  public static final class Stall {
+
+    private final Instant start;
+    private final long duration;
+    private final StackTraceElement[] stackTrace;
+
+    Stall(Instant start, long duration, StackTraceElement[] stackTrace) {
+      this.start = start;
+      this.duration = duration;
+      this.stackTrace = stackTrace;
+    }
+
+    /**
+     * Returns the time the stall started.
+     *
+     * @return The start.
+     */
+    public Instant getStart() {
+      return start;
+    }
+
+    /**
+     * Returns the duration of the stall.
+     *
+     * @return The duration in ms.
+     */
+    public long getDuration() {
+      return duration;
+    }
+
+    /**
+     * Returns the stack trace of the JavaFX application thread, captured when
+     * the stall was detected.
+     *
+     * @return The stack trace.
+     */
+    public StackTraceElement[] getStackTrace() {
+      return stackTrace.clone();
+    }
+
+    /**
+     * Returns a description of the stall including the stack trace.
+     *
+     * @return The description.
+     */
+    public String format() {
+      final StringBuilder builder = new StringBuilder(toString());
+      Arrays.stream(stackTrace).forEach(element -> builder.append(System.lineSeparator()).append("\tat ").append(element));
+      return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+      return duration + " ms stall at " + start;
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXAllocations} class and the
+ * {@link FX#measureAllocations(java.lang.Runnable)} method.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXAllocationsTest {
+
+  private static volatile Object sink;
+
+  public FXAllocationsTest() {
+  }
+
+  /**
+   * Test of assertAllocatedBelow method, of class FXAllocations and AssertFX.
+   */
+  @Test
+  public void testAssertAllocatedBelow() {
+    System.out.println("assertAllocatedBelow");
+    FXAllocations allocations = new FXAllocations(1000);
+    allocations.assertAllocatedBelow(1001);
+    AssertFX.assertAllocatedBelow(allocations, 1001);
+    AssertionError error = assertThrows(AssertionError.class, () -> allocations.assertAllocatedBelow(1000));
+    assertEquals("Allocations on the JavaFX application thread should be below 1000 bytes, but are 1000 bytes.", error.getMessage());
+    assertThrows(AssertionError.class, () -> AssertFX.assertAllocatedBelow(allocations, 500));
+    assertThrows(AssertionError.class, () -> AssertFX.assertAllocatedBelow(null, 500));
+  }
+
+  /**
+   * Test of measureAllocations method, of class FX: allocations on the JavaFX
+   * application thread are counted, the ones of the calling thread are not.
+   */
+  @Test
+  public void testMeasureAllocations() {
+    System.out.println("measureAllocations");
+    FXUnit.init();
+    FX.show(new VBox());
+    FXAllocations allocations = FX.measureAllocations(() -> {
+      sink = new byte[4 * 1024 * 1024];
+      FXHelper.invokeOnFXThread(() -> sink = new byte[1024 * 1024]);
+    });
+    assertTrue(allocations.getBytes() >= 1024 * 1024, allocations.toString());
+    allocations.assertAllocatedBelow(4 * 1024 * 1024);
+  }
+
+  /**
+   * Test of measureAllocations method, of class FX: the overhead of the
+   * measurement itself is subtracted, so an empty interaction allocates next
+   * to nothing.
+   */
+  @Test
+  public void testMeasureAllocations_empty() {
+    System.out.println("measureAllocations_empty");
+    FXUnit.init();
+    FX.show(new VBox());
+    FXAllocations allocations = FX.measureAllocations(() -> {
+    });
+    allocations.assertAllocatedBelow(64 * 1024);
+  }
+
+  /**
+   * Test of measureAllocations method, of class FX: without a testing stage,
+   * the stage has to be given explicitly.
+   */
+  @Test
+  public void testMeasureAllocations_noStage() {
+    System.out.println("measureAllocations_noStage");
+    FXUnitContext previous = FXUnitContext.bind(new FXUnitContext());
+    try {
+      NullPointerException error = assertThrows(NullPointerException.class, () -> FX.measureAllocations(() -> {
+      }));
+      assertTrue(error.getMessage().contains("FX.measureAllocations(stage, interaction)"), error.getMessage());
+    } finally {
+      FXUnitContext.bind(previous);
+    }
+  }
+
+  /**
+   * Test of measureAllocations method, of class FX, with a stage created by the
+   * test.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testMeasureAllocations_stage() throws ExecutionException {
+    System.out.println("measureAllocations_stage");
+    FXUnit.init();
+    final Stage[] stage = new Stage[1];
+    FXHelper.runAndWait(() -> {
+      stage[0] = new Stage();
+      stage[0].setScene(new Scene(new VBox()));
+      stage[0].show();
+    });
+    try {
+      FXAllocations allocations = FX.measureAllocations(stage[0], () -> {
+        FXHelper.invokeOnFXThread(() -> sink = new byte[1024 * 1024]);
+      });
+      assertTrue(allocations.getBytes() >= 1024 * 1024, allocations.toString());
+    } finally {
+      FXHelper.shutdownStage(stage[0]);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXBatch} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXBatchTest {
+
+  private final AtomicInteger clicks = new AtomicInteger();
+
+  public FXBatchTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    clicks.set(0);
+    TextField name = new TextField();
+    name.setId("name");
+    Label result = new Label();
+    result.setId("result");
+    Button ok = new Button("OK");
+    ok.setId("ok");
+    ok.setOnAction(e -> result.setText("Hello " + name.getText() + " " + clicks.incrementAndGet()));
+    FX.show(new VBox(name, ok, result));
+  }
+
+  /**
+   * Test of batch method, of class FX: the steps are executed in order, on the
+   * JavaFX application thread.
+   */
+  @Test
+  public void testBatch() {
+    System.out.println("batch");
+    FX.batch(b -> b
+            .find("#name").setText("fx-unit").hasText("fx-unit")
+            .run(() -> assertTrue(Platform.isFxApplicationThread()))
+            .find("#ok").fire().fire()
+            .find("#result").hasText("Hello fx-unit 2").isVisible());
+    assertEquals(2, clicks.get());
+    FX.lookup("#result").hasText("Hello fx-unit 2");
+  }
+
+  /**
+   * Test of batch method, of class FX: failing assertions are collected and
+   * reported together, the following steps are executed.
+   */
+  @Test
+  public void testBatch_collectAssertions() {
+    System.out.println("batch_collectAssertions");
+    AssertionError error = assertThrows(AssertionError.class, () -> FX.batch(b -> b
+            .find("#name").hasText("unexpected").isDisabled()
+            .find("#ok").fire()
+            .find("#result").hasText("Hello  1")));
+    assertEquals(2, error.getSuppressed().length);
+    assertTrue(error.getMessage().startsWith("2 steps of batch failed:"), error.getMessage());
+    assertTrue(error.getMessage().contains("Step 2, hasText(unexpected)"), error.getMessage());
+    assertTrue(error.getMessage().contains("Step 3, isDisabled()"), error.getMessage());
+    assertEquals(1, clicks.get());
+  }
+
+  /**
+   * Test of batch method, of class FX: a failing action aborts the batch.
+   */
+  @Test
+  public void testBatch_abort() {
+    System.out.println("batch_abort");
+    AssertionError error = assertThrows(AssertionError.class, () -> FX.batch(b -> b
+            .find("#ok").fire()
+            .find("#unknown").fire()
+            .find("#ok").fire()));
+    assertTrue(error.getMessage().contains("Step 3, find(#unknown)"), error.getMessage());
+    assertEquals(1, clicks.get());
+
+    assertThrows(FXUnitException.class, () -> FX.batch(b -> b.fire()));
+  }
+
+  /**
+   * Test of pulse method, of class FXBatch: the groups are executed in
+   * separate tasks.
+   */
+  @Test
+  public void testPulse() {
+    System.out.println("pulse");
+    FX.batch(b -> {
+      b.find("#ok").fire().pulse().pulse().find("#ok").fire();
+      assertEquals(4, b.size());
+    });
+    assertEquals(2, clicks.get());
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import org.aeonium.fxunit.testUI.FXMLController;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXControllers} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXControllersTest {
+
+  public FXControllersTest() {
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXControllers.setControllerFactory(null);
+  }
+
+  /**
+   * Test of create method, of class FXControllers: each call creates a new
+   * controller, also with a private constructor.
+   */
+  @Test
+  public void testCreate() {
+    System.out.println("create");
+    final FXMLController first = FXControllers.create(FXMLController.class);
+    final FXMLController second = FXControllers.create(FXMLController.class);
+    assertNotNull(first);
+    assertNotSame(first, second);
+    assertNotNull(FXControllers.create(PrivateController.class));
+  }
+
+  /**
+   * Test of create method, of class FXControllers: a controller class without
+   * no-arg constructor cannot be created.
+   */
+  @Test
+  public void testCreate_noConstructor() {
+    System.out.println("create_noConstructor");
+    assertThrows(FXUnitException.class, () -> FXControllers.create(ArgsController.class));
+    assertThrows(NullPointerException.class, () -> FXControllers.create(null));
+  }
+
+  /**
+   * Test of create method, of class FXControllers: exceptions of the
+   * constructor are wrapped in an FXUnitException.
+   */
+  @Test
+  public void testCreate_constructorThrows() {
+    System.out.println("create_constructorThrows");
+    final FXUnitException ex = assertThrows(FXUnitException.class, () -> FXControllers.create(ThrowingController.class));
+    assertInstanceOf(IllegalStateException.class, ex.getCause());
+  }
+
+  /**
+   * Test of create and inject methods, of class FXControllers: classes of
+   * packages that are not opened to fx-unit, e.g., of the JDK, are handled
+   * with plain reflection, i.e., their public members are still accessible.
+   */
+  @Test
+  public void testCreate_notOpened() {
+    System.out.println("create_notOpened");
+    assertInstanceOf(ArrayList.class, FXControllers.create(ArrayList.class));
+    final Point point = FXControllers.create(Point.class);
+    FXControllers.inject(point, "x", 42);
+    assertEquals(42, point.x);
+  }
+
+  /**
+   * Test of setControllerFactory method, of class FXControllers: the factory is
+   * used, unless it returns null.
+   */
+  @Test
+  public void testSetControllerFactory() {
+    System.out.println("setControllerFactory");
+    final ArgsController controller = new ArgsController("injected");
+    FXControllers.setControllerFactory(type -> type == ArgsController.class ? controller : null);
+
+    assertSame(controller, FXControllers.create(ArgsController.class));
+    assertTrue(FXControllers.create(FXMLController.class) instanceof FXMLController);
+    assertNotNull(FXControllers.getControllerFactory());
+  }
+
+  /**
+   * Test of inject method, of class FXControllers: private fields, also of
+   * super classes, can be set.
+   */
+  @Test
+  public void testInject() {
+    System.out.println("inject");
+    final SubController controller = new SubController();
+    FXControllers.inject(controller, "text", "value");
+    FXControllers.inject(controller, "number", 42);
+
+    assertEquals("value", controller.getText());
+    assertEquals(42, controller.getNumber());
+    assertThrows(FXUnitException.class, () -> FXControllers.inject(controller, "unknown", "value"));
+    assertThrows(FXUnitException.class, () -> FXControllers.inject(controller, "text", 42));
+  }
+
+  /**
+   * Controller with a private constructor.
+   */
+  static final class PrivateController {
+
+    private PrivateController() {
+    }
+  }
+
+  /**
+   * Controller without a no-arg constructor.
+   */
+  static final class ArgsController {
+
+    private final String value;
+
+    ArgsController(String value) {
+      this.value = value;
+    }
+  }
+
+  /**
+   * Controller with a failing constructor.
+   */
+  static final class ThrowingController {
+
+    ThrowingController() {
+      throw new IllegalStateException("failing controller");
+    }
+  }
+
+  /**
+   * Controller with a private field.
+   */
+  static class BaseController {
+
+    private String text;
+
+    String getText() {
+      return text;
+    }
+  }
+
+  /**
+   * Controller with a private field and a super class.
+   */
+  static final class SubController extends BaseController {
+
+    private Integer number;
+
+    Integer getNumber() {
+      return number;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.TimeUnit;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXFrameStats} class and the
+ * {@link FX#measureRendering(java.lang.Runnable)} method.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXFrameStatsTest {
+
+  public FXFrameStatsTest() {
+  }
+
+  private static FXFrameStats record(long... millis) {
+    FXFrameStats stats = new FXFrameStats();
+    for (long m : millis) {
+      stats.record(TimeUnit.MILLISECONDS.toNanos(m));
+    }
+    return stats;
+  }
+
+  /**
+   * Test of getPercentile method, of class FXFrameStats.
+   */
+  @Test
+  public void testGetPercentile() {
+    System.out.println("getPercentile");
+    FXFrameStats stats = new FXFrameStats();
+    assertEquals(Duration.ZERO, stats.getP99());
+    for (int i = 1; i <= 100; i++) {
+      stats.record(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+    assertEquals(100, stats.getFrames());
+    assertEquals(50.01, stats.getP50().toMillis(), 1e-9);
+    assertEquals(99.01, stats.getP99().toMillis(), 1e-9);
+    assertEquals(100.0, stats.getMax().toMillis(), 1e-9);
+    assertEquals(50.5, stats.getMean().toMillis(), 1e-9);
+    assertThrows(IllegalArgumentException.class, () -> stats.getPercentile(101));
+  }
+
+  /**
+   * Test of getPercentile method, of class FXFrameStats: frames beyond the
+   * range of the histogram are counted in the overflow bucket.
+   */
+  @Test
+  public void testGetPercentile_overflow() {
+    System.out.println("getPercentile_overflow");
+    FXFrameStats stats = record(1, 250, 500);
+    assertEquals(500.0, stats.getP99().toMillis(), 1e-9);
+    assertEquals(500.0, stats.getMax().toMillis(), 1e-9);
+    int[] buckets = stats.getBuckets();
+    assertEquals(2, buckets[buckets.length - 1]);
+  }
+
+  /**
+   * Test of assertFrameTimeP99Below method, of class FXFrameStats.
+   */
+  @Test
+  public void testAssertFrameTimeP99Below() {
+    System.out.println("assertFrameTimeP99Below");
+    FXFrameStats stats = record(5, 5, 5, 40);
+    stats.assertFrameTimeP50Below(Duration.millis(6))
+            .assertFrameTimeP99Below(Duration.millis(41))
+            .assertFramesAtLeast(4);
+    AssertionError error = assertThrows(AssertionError.class, () -> stats.assertFrameTimeP99Below(Duration.millis(16)));
+    assertTrue(error.getMessage().startsWith("Frame time 99th percentile should be below 16.00 ms, but is 40.00 ms"), error.getMessage());
+    assertThrows(AssertionError.class, () -> stats.assertFrameTimeMaxBelow(Duration.millis(40)));
+    assertThrows(AssertionError.class, () -> stats.assertFramesAtLeast(5));
+  }
+
+  /**
+   * Test of getPulseTimes method, of class FXFrameStats: the pulse times are a
+   * separate histogram, e.g., short pulses do not hide dropped frames.
+   */
+  @Test
+  public void testGetPulseTimes() {
+    System.out.println("getPulseTimes");
+    FXFrameStats stats = record(17, 17, 33);
+    FXFrameStats pulseTimes = stats.getPulseTimes();
+    pulseTimes.record(TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(3, stats.getFrames());
+    assertEquals(1, pulseTimes.getFrames());
+    assertSame(pulseTimes, pulseTimes.getPulseTimes());
+    pulseTimes.assertFrameTimeP99Below(Duration.millis(16));
+    assertThrows(AssertionError.class, () -> stats.assertFrameTimeP99Below(Duration.millis(20)));
+    assertTrue(stats.toString().contains("pulseTimes=FXFrameStats[frames=1"), stats.toString());
+  }
+
+  /**
+   * Test of measureRendering method, of class FX: frames are recorded while
+   * the interaction changes the UI.
+   */
+  @Test
+  public void testMeasureRendering() {
+    System.out.println("measureRendering");
+    FXUnit.init();
+    VBox root = new VBox();
+    FX.show(root);
+    FXFrameStats stats = FX.measureRendering(() -> {
+      for (int i = 0; i < 10; i++) {
+        FXHelper.invokeOnFXThread(() -> root.getChildren().add(new Pane()));
+        FXHelper.sleep(20);
+      }
+    });
+    stats.assertFramesAtLeast(1)
+            .assertFrameTimeMaxBelow(Duration.seconds(5));
+    stats.getPulseTimes().assertFramesAtLeast(1);
+    assertTrue(stats.getP50().lessThanOrEqualTo(stats.getP99()), stats.toString());
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.VBox;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Tests for running the JavaFX toolkit headless, on Monocle: run with
+ * <code>mvn test -Pheadless</code>.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@EnabledIfSystemProperty(named = FXUnit.HEADLESS_PROPERTY, matches = "true")
+public class FXHeadlessTest {
+
+  public FXHeadlessTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  /**
+   * Test of show, click and keyType, of class FX: the UI is shown, clicked and
+   * typed into on the Monocle platform.
+   */
+  @Test
+  public void testShowClickKeyType() {
+    System.out.println("showClickKeyType");
+    assertEquals("Monocle", System.getProperty("glass.platform"));
+    Label label = new Label("initial");
+    label.setId("label");
+    Button button = new Button("button");
+    button.setId("button");
+    button.setOnAction(e -> label.setText("clicked"));
+    TextField textField = new TextField();
+    textField.setId("textField");
+    FX.show(new VBox(label, button, textField));
+    assertNotNull(FXUnit.getStage());
+
+    FX.lookup("#button").click();
+    FX.lookup("#label").hasText("clicked");
+
+    FX.lookup("#textField").click().keyType("headless").keyType(KeyCode.A);
+    FX.lookup("#textField").hasText("headlessa");
+  }
+}
@@ -18,6 +18,8 @@
  */
 package org.aeonium.fxunit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
@@ -45,6 +47,7 @@ import org.junit.jupiter.api.Assertions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -140,6 +143,67 @@ public class FXHelperTest {
     assertEquals(delay + delta, FXHelper.getDelay());
   }
 
+  @Test
+  public void testFixedDelays() {
+    boolean fixedDelays = FXHelper.isFixedDelays();
+    FXHelper.setFixedDelays(!fixedDelays);
+    assertEquals(!fixedDelays, FXHelper.isFixedDelays());
+    FXHelper.setFixedDelays(fixedDelays);
+  }
+
+  @Test
+  public void testIdleTimeout() {
+    long idleTimeout = FXHelper.getIdleTimeout();
+    FXHelper.setIdleTimeout(idleTimeout + 100);
+    assertEquals(idleTimeout + 100, FXHelper.getIdleTimeout());
+    FXHelper.setIdleTimeout(idleTimeout);
+  }
+
+  /**
+   * Test of getFXThreadBusyTime method, of class FXHelper: must include the
+   * time of tasks run on the JavaFX thread.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testFXThreadBusyTime() throws ExecutionException {
+    System.out.println("FXThreadBusyTime");
+    FXHelper.resetFXThreadBusyTime();
+    FXHelper.runAndWait(() -> FXHelper.sleep(50));
+    assertTrue(FXHelper.getFXThreadBusyTime() >= 50, "busy for at least 50 ms");
+  }
+
+  /**
+   * Test of waitForIdle method, of class FXHelper: must wait for queued tasks,
+   * but not as long as the idle timeout.
+   *
+   * @throws java.lang.InterruptedException If interrupted
+   */
+  @Test
+  public void testWaitForIdle() throws InterruptedException {
+    System.out.println("waitForIdle");
+    final Label label = new Label("idle");
+    final CountDownLatch latch = new CountDownLatch(1);
+    Platform.runLater(() -> {
+      stage.setScene(new Scene(new VBox(label)));
+      latch.countDown();
+    });
+    latch.await();
+
+    final BooleanProperty done = new SimpleBooleanProperty(false);
+    Platform.runLater(() -> {
+      label.setText("changed");
+      done.set(true);
+    });
+
+    long timeBefore = System.currentTimeMillis();
+    FXHelper.waitForIdle(label.getScene());
+    long timeAfter = System.currentTimeMillis();
+
+    assertTrue(done.get(), "Queued tasks must have been executed.");
+    assertTrue(timeAfter - timeBefore < FXHelper.getIdleTimeout(), "Must not wait for the timeout.");
+  }
+
   /**
    * Test of findTab method, of class FXHelper.
    *
@@ -457,6 +521,78 @@ public class FXHelperTest {
     assertEquals(t, target.getText());
   }
 
+  /**
+   * Test of typeKey method, of class FXHelper: bulk typing fires the same
+   * sequence of events as typing character by character, also when yielding.
+   *
+   * @throws java.lang.InterruptedException If interrupted
+   */
+  @Test
+  public void testTypeKey_Node_String_bulk() throws InterruptedException {
+    System.out.println("typeKey bulk");
+    final String t = "Bulk typing fast: 1+2-3_4;";
+    final boolean bulkTyping = FXHelper.isBulkTyping();
+    final int yieldInterval = FXHelper.getTypingYieldInterval();
+    try {
+      FXHelper.setBulkTyping(false);
+      final List<String> expected = typeAndRecord(t);
+      FXHelper.setBulkTyping(true);
+      assertEquals(expected, typeAndRecord(t));
+      FXHelper.setTypingYieldInterval(5);
+      assertEquals(expected, typeAndRecord(t));
+      assertEquals(3 * t.length(), expected.size());
+    } finally {
+      FXHelper.setBulkTyping(bulkTyping);
+      FXHelper.setTypingYieldInterval(yieldInterval);
+    }
+    Assertions.assertThrows(IllegalArgumentException.class, () -> FXHelper.setTypingYieldInterval(-1));
+  }
+
+  /**
+   * Test of typeKey method, of class FXHelper: the key codes and modifiers come
+   * from the keyboard layout, a text with a character that is not part of it
+   * is rejected before any key is typed, in both typing modes.
+   *
+   * @throws java.lang.InterruptedException If interrupted
+   */
+  @Test
+  public void testTypeKey_Node_String_layout() throws InterruptedException {
+    System.out.println("typeKey layout");
+    final List<String> events = typeAndRecord("A,");
+    assertTrue(events.get(0).startsWith("KEY_PRESSED A shift "), events.get(0));
+    assertTrue(events.get(3).startsWith("KEY_PRESSED COMMA  "), events.get(3));
+
+    final TextField target = new TextField();
+    final boolean bulkTyping = FXHelper.isBulkTyping();
+    try {
+      for (boolean bulk : new boolean[]{false, true}) {
+        FXHelper.setBulkTyping(bulk);
+        Assertions.assertThrows(FXUnitException.class, () -> FXHelper.typeKey(target, "Aä"));
+        Assertions.assertThrows(FXUnitException.class, () -> FXHelper.typeKey(target, 'ä'));
+        FXHelper.waitForIdle(null);
+        assertEquals("", target.getText());
+      }
+    } finally {
+      FXHelper.setBulkTyping(bulkTyping);
+    }
+  }
+
+  private List<String> typeAndRecord(String t) throws InterruptedException {
+    final TextField target = new TextField();
+    final List<String> events = new ArrayList<>();
+    target.addEventFilter(KeyEvent.ANY, e -> events.add(e.getEventType() + " " + e.getCode() + " " + (e.isShiftDown() ? "shift " : " ") + e.getCharacter()));
+    final CountDownLatch latch = new CountDownLatch(1);
+    Platform.runLater(() -> {
+      stage.setScene(new Scene(new VBox(target)));
+      latch.countDown();
+    });
+    latch.await();
+
+    FXHelper.typeKey(target, t);
+    assertEquals(t, target.getText());
+    return events;
+  }
+
   /**
    * Test of typeKey method, of class FXHelper.
    *
@@ -510,8 +646,8 @@ public class FXHelperTest {
   }
 
   @Test
-  public void testTypeKey_Node_KeyCode_CharUpperCase() throws InterruptedException {
-    System.out.println("typeKey keycode upperCase");
+  public void testTypeKey_Node_KeyCode_CharLowerCase() throws InterruptedException {
+    System.out.println("typeKey keycode lowerCase");
 
     TextField target = new TextField();
 
@@ -526,7 +662,7 @@ public class FXHelperTest {
     latch.await();
     assertEquals("", target.getText());
 
-    String t = "O";
+    String t = "o";
     FXHelper.typeKey(target, KeyCode.O);
     assertEquals(t, target.getText());
   }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.VBox;
+import javafx.scene.robot.Robot;
+import javafx.stage.Stage;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXInput} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXInputTest {
+
+  public FXInputTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  /**
+   * Test of getRobot method, of class FXUnitContext: the robot is created once
+   * and shared with child contexts, on the JavaFX application thread only.
+   */
+  @Test
+  public void testGetRobot() throws ExecutionException {
+    System.out.println("getRobot");
+    FXUnitContext parent = new FXUnitContext();
+    FXUnitContext child = new FXUnitContext(parent);
+    AtomicReference<Robot> robot = new AtomicReference<>();
+    FXHelper.runAndWait(() -> {
+      robot.set(parent.getRobot());
+      assertSame(robot.get(), parent.getRobot());
+      assertSame(robot.get(), child.getRobot());
+    });
+    assertNotNull(robot.get());
+    assertThrows(IllegalStateException.class, () -> parent.getRobot());
+  }
+
+  /**
+   * Test of keyType method, of class FX: a long text is typed in one go,
+   * without fixed delays.
+   */
+  @Test
+  public void testKeyType() {
+    System.out.println("keyType");
+    TextField textField = new TextField();
+    textField.setId("textField");
+    FX.show(new VBox(textField));
+    String text = "fx-unit types fast ".repeat(25).substring(0, 475);
+
+    long start = System.nanoTime();
+    FX fx = FX.lookup("#textField").focus().keyType(text).keyType(KeyCode.A);
+    long millis = (System.nanoTime() - start) / 1_000_000;
+
+    fx.hasText(text + "a");
+    assertTrue(millis < 5000, "Typing took " + millis + " ms");
+  }
+
+  /**
+   * Test of flush method, of class FXInput: events that go to another window
+   * than the target's, here a focused second stage, are counted, too, so the
+   * flush does not wait for the timeout.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testFlush_otherWindow() throws ExecutionException {
+    System.out.println("flush_otherWindow");
+    TextField target = new TextField();
+    FX.show(new VBox(target));
+    TextField other = new TextField();
+    Stage[] stage = new Stage[1];
+    FXHelper.runAndWait(() -> {
+      stage[0] = new Stage();
+      stage[0].setScene(new Scene(new VBox(other)));
+      stage[0].show();
+      stage[0].requestFocus();
+      other.requestFocus();
+    });
+    try {
+      long start = System.nanoTime();
+      FXInput.of(target).keyType("ab").flush();
+      long millis = (System.nanoTime() - start) / 1_000_000;
+
+      assertEquals("ab", other.getText());
+      assertTrue(millis < FXInput.DISPATCH_TIMEOUT_MILLIS, "Flush took " + millis + " ms");
+    } finally {
+      FXHelper.runAndWait(() -> stage[0].close());
+    }
+  }
+
+  /**
+   * Test of flush method, of class FXInput: nothing happens without queued
+   * operations.
+   */
+  @Test
+  public void testFlush_empty() {
+    System.out.println("flush_empty");
+    FXInput.of(null).flush();
+    assertThrows(NullPointerException.class, () -> FXInput.of(null).mouseMoveToTarget());
+  }
+}
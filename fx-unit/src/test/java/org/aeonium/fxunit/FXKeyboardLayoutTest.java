@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import javafx.scene.Group;
+import javafx.scene.input.KeyCode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXKeyboardLayout} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXKeyboardLayoutTest {
+
+  public FXKeyboardLayoutTest() {
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXKeyboardLayout.setDefault(null);
+  }
+
+  /**
+   * Test of getKeyCode and getModifiers methods, of class FXKeyboardLayout:
+   * letters, digits and symbols of the US layout, with and without SHIFT.
+   */
+  @Test
+  public void testGetKeyCode() {
+    System.out.println("getKeyCode");
+    FXKeyboardLayout us = FXKeyboardLayout.forName("us");
+    assertEquals(KeyCode.A, us.getKeyCode('a'));
+    assertEquals(0, us.getModifiers('a'));
+    assertEquals(KeyCode.A, us.getKeyCode('A'));
+    assertEquals(FXKeyboardLayout.SHIFT, us.getModifiers('A'));
+    assertEquals(KeyCode.DIGIT1, us.getKeyCode('1'));
+    assertEquals(KeyCode.DIGIT1, us.getKeyCode('!'));
+    assertEquals(FXKeyboardLayout.SHIFT, us.getModifiers('!'));
+    assertEquals(KeyCode.COMMA, us.getKeyCode(','));
+    assertEquals(KeyCode.SEMICOLON, us.getKeyCode(':'));
+    assertEquals(KeyCode.EQUALS, us.getKeyCode('='));
+    assertEquals(KeyCode.BACK_SLASH, us.getKeyCode('\\'));
+    assertEquals(KeyCode.SPACE, us.getKeyCode(' '));
+    assertEquals(KeyCode.ENTER, us.getKeyCode('\n'));
+    assertEquals(KeyCode.DIGIT3, us.getKeyCode('#'));
+    assertTrue(us.contains('~'));
+
+    assertFalse(us.contains('ä'));
+    assertNull(us.getKeyCode('ä'));
+    assertEquals(0, us.getModifiers('€'));
+  }
+
+  /**
+   * Test of forName method, of class FXKeyboardLayout: layouts are loaded
+   * once.
+   */
+  @Test
+  public void testForName() {
+    System.out.println("forName");
+    assertSame(FXKeyboardLayout.forName("us"), FXKeyboardLayout.forName("us"));
+    assertEquals("us", FXKeyboardLayout.forName("us").getName());
+    assertThrows(FXUnitException.class, () -> FXKeyboardLayout.forName("unknown"));
+    assertThrows(NullPointerException.class, () -> FXKeyboardLayout.forName(null));
+  }
+
+  /**
+   * Test of getDefault and setDefault methods, of class FXKeyboardLayout, and
+   * of getKeycode, of class FXHelper.
+   */
+  @Test
+  public void testDefault() {
+    System.out.println("default");
+    assertSame(FXKeyboardLayout.forName("us"), FXKeyboardLayout.getDefault());
+    assertEquals(KeyCode.COMMA, FXHelper.getKeycode(','));
+    assertEquals(KeyCode.MINUS, FXHelper.getKeycode('_'));
+    assertThrows(FXUnitException.class, () -> FXHelper.getKeycode('ä'));
+  }
+
+  /**
+   * A character that is not part of the layout is rejected the same way by
+   * getKeycode and typeKey, of class FXHelper, and keyType, of class FX,
+   * before any key is typed.
+   */
+  @Test
+  public void testUnmapped() {
+    System.out.println("unmapped");
+    Group target = new Group();
+    FXUnitException expected = assertThrows(FXUnitException.class, () -> FXHelper.getKeycode('ä'));
+    assertEquals(expected.getMessage(),
+            assertThrows(FXUnitException.class, () -> FXHelper.typeKey(target, 'ä')).getMessage());
+    assertEquals(expected.getMessage(),
+            assertThrows(FXUnitException.class, () -> FXHelper.typeKey(target, "aä")).getMessage());
+    assertEquals(expected.getMessage(),
+            assertThrows(FXUnitException.class, () -> new FX(target).keyType("aä")).getMessage());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.scene.layout.Pane;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXLeakDetector} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXLeakDetectorTest {
+
+  /**
+   * A static model, that keeps its listeners.
+   */
+  private static final StringProperty MODEL = new SimpleStringProperty();
+  private static final List<Object> LEAKED = new ArrayList<>();
+
+  private long timeout;
+
+  public FXLeakDetectorTest() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+    timeout = FXLeakDetector.getTimeout();
+    FXLeakDetector.setTimeout(500);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXLeakDetector.setTimeout(timeout);
+    FXLeakDetector.setEnabled(false);
+    LEAKED.clear();
+  }
+
+  private static FXLeakDetector watchGarbage() {
+    return new FXLeakDetector().watch("garbage", new Object());
+  }
+
+  private static FXLeakDetector watchLeaked() {
+    Object leaked = new Object();
+    LEAKED.add(leaked);
+    return new FXLeakDetector().watch("leaked", leaked).watch("garbage", new Object());
+  }
+
+  private static void showLeakingUI(FXUnitContext context) {
+    Pane pane = new Pane();
+    MODEL.addListener((observable, oldValue, newValue) -> pane.setUserData(newValue));
+    context.show(pane);
+  }
+
+  /**
+   * Test of assertCollected method, of class FXLeakDetector.
+   */
+  @Test
+  public void testAssertCollected() {
+    System.out.println("assertCollected");
+    watchGarbage().assertCollected();
+  }
+
+  /**
+   * Test of assertCollected method, of class FXLeakDetector: fails for an
+   * object that is still reachable, and names it.
+   */
+  @Test
+  public void testAssertCollected_leak() {
+    System.out.println("assertCollected_leak");
+    FXLeakDetector detector = watchLeaked();
+    AssertionError error = assertThrows(AssertionError.class, detector::assertCollected);
+    assertTrue(error.getMessage().startsWith("Still reachable after 500 ms: leaked (java.lang.Object@"), error.getMessage());
+    assertTrue(!error.getMessage().contains("garbage"), error.getMessage());
+  }
+
+  /**
+   * Test of watch method, of class FXLeakDetector: null is ignored.
+   */
+  @Test
+  public void testWatch_null() {
+    System.out.println("watch_null");
+    FXLeakDetector detector = new FXLeakDetector().watch("nothing", null);
+    assertNull(detector.get("nothing"));
+    detector.assertCollected();
+  }
+
+  /**
+   * Test of closeStage method, of class FXUnitContext, with leak checks: a UI
+   * that is still registered as listener of a static model is reported.
+   */
+  @Test
+  public void testCloseStage_leak() {
+    System.out.println("closeStage_leak");
+    FXUnit.init();
+    FXUnitContext context = new FXUnitContext();
+    showLeakingUI(context);
+
+    FXLeakDetector.setEnabled(true);
+    AssertionError error = assertThrows(AssertionError.class, context::closeStage);
+    assertTrue(error.getMessage().contains("root (javafx.scene.layout.Pane@"), error.getMessage());
+  }
+
+  /**
+   * Test of closeStage method, of class FXUnitContext, with leak checks: a
+   * closed UI without references passes, even with its stage pooled.
+   */
+  @Test
+  public void testCloseStage() {
+    System.out.println("closeStage");
+    FXUnit.init();
+    FXUnitContext context = new FXUnitContext();
+    context.show(new Pane());
+
+    FXLeakDetector.setEnabled(true);
+    context.closeStage();
+  }
+}
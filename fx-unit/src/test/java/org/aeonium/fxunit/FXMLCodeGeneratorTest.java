@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.stream.Stream;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.aeonium.fxunit.testUI.FXMLController;
+import org.aeonium.fxunit.testUI.FXMLLayoutController;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link FXMLCodeGenerator} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXMLCodeGeneratorTest {
+
+  private static final String LOCATION = "org/aeonium/fxunit/Test.fxml";
+  private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<?import javafx.geometry.Insets?>\n"
+          + "<?import javafx.scene.control.*?>\n"
+          + "<?import javafx.scene.layout.*?>\n";
+
+  private final FXMLCodeGenerator generator = new FXMLCodeGenerator(getClass().getClassLoader());
+
+  public FXMLCodeGeneratorTest() {
+  }
+
+  /**
+   * Test of getClassName method, of class FXMLCodeGenerator.
+   */
+  @Test
+  public void testGetClassName() {
+    System.out.println("getClassName");
+    assertEquals("org.aeonium.fxunit.testUI.FXMLFXMLFactory", FXMLCodeGenerator.getClassName("org/aeonium/fxunit/testUI/FXML.fxml"));
+    assertEquals("a.My_ScreenFXMLFactory", FXMLCodeGenerator.getClassName("a/My-Screen.fxml"));
+    assertEquals("_1FXMLFactory", FXMLCodeGenerator.getClassName("1.fxml"));
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: the controller
+   * declared in the FXML is created and initialized.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testGenerate_controller() throws IOException {
+    System.out.println("generate_controller");
+    final String source;
+    try (InputStream in = FXMLController.class.getResourceAsStream("FXML.fxml")) {
+      source = generator.generate("org/aeonium/fxunit/testUI/FXML.fxml", in);
+    }
+
+    assertTrue(source.contains("public final class FXMLFXMLFactory implements org.aeonium.fxunit.FXMLFactory"), source);
+    assertTrue(source.contains("return org.aeonium.fxunit.FXControllers.create(org.aeonium.fxunit.testUI.FXMLController.class);"), source);
+    assertTrue(source.contains("new javafx.scene.layout.AnchorPane();"), source);
+    assertTrue(source.contains(".setPrefHeight(40.0);"), source);
+    assertTrue(source.contains("controller.initialize(location, resources);"), source);
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: property elements,
+   * static properties, named arguments, fx:id, also of private fields, and event
+   * handlers.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testGenerate_graph() throws IOException {
+    System.out.println("generate_graph");
+    final String source = generate("<BorderPane xmlns:fx=\"http://javafx.com/fxml/1\" fx:controller=\"" + Controller.class.getName() + "\">"
+            + "<padding><Insets top=\"10\"/></padding>"
+            + "<center><VBox alignment=\"CENTER\">"
+            + "<Button fx:id=\"ok\" text=\"%ok\" onAction=\"#handleOk\" VBox.vgrow=\"ALWAYS\"/>"
+            + "<Button fx:id=\"hidden\"/>"
+            + "</VBox></center>"
+            + "</BorderPane>");
+
+    assertTrue(source.contains("new javafx.geometry.Insets(10.0, (double) 0, (double) 0, (double) 0)"), source);
+    assertTrue(source.contains(".setPadding(n1);"), source);
+    assertTrue(source.contains("n2.setAlignment(javafx.geometry.Pos.CENTER);"), source);
+    assertTrue(source.contains("controller.ok = n3;"), source);
+    assertTrue(source.contains("n3.setId(\"ok\");"), source);
+    assertTrue(source.contains("n3.setText(resource(resources, \"ok\"));"), source);
+    assertTrue(source.contains("throw new javafx.fxml.LoadException(\"No resources specified.\");"), source);
+    assertTrue(source.contains("n3.setOnAction(event -> controller.handleOk(event));"), source);
+    assertTrue(source.contains("javafx.scene.layout.VBox.setVgrow(n3, javafx.scene.layout.Priority.ALWAYS);"), source);
+    assertTrue(source.contains("n2.getChildren().add(n3);"), source);
+    assertTrue(source.contains("org.aeonium.fxunit.FXControllers.inject(controller, \"hidden\", n4);"), source);
+    assertTrue(source.contains("n0.setCenter(n2);"), source);
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: like the FXMLLoader,
+   * the factory injects the location and resources fields, and ignores an
+   * initialize() method that is neither public nor annotated.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testGenerate_initialize() throws IOException {
+    System.out.println("generate_initialize");
+    String source = generate("<VBox xmlns:fx=\"http://javafx.com/fxml/1\" fx:controller=\"" + InitializeController.class.getName() + "\"/>");
+    assertTrue(source.contains("org.aeonium.fxunit.FXControllers.inject(controller, \"location\", location);"), source);
+    assertTrue(source.contains("controller.resources = resources;"), source);
+    assertFalse(source.contains("controller.initialize()"), source);
+
+    source = generate("<VBox xmlns:fx=\"http://javafx.com/fxml/1\" fx:controller=\"" + Controller.class.getName() + "\"/>");
+    assertFalse(source.contains("\"location\""), source);
+    assertFalse(source.contains("controller.resources"), source);
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: the factory carries
+   * the hash of the document, and is only current for a document with that
+   * content.
+   *
+   * @param dir A temporary directory.
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testGenerate_hash(@TempDir Path dir) throws IOException {
+    System.out.println("generate_hash");
+    final String fxml = "<VBox xmlns:fx=\"http://javafx.com/fxml/1\"/>";
+    final String hash = FXMLFactories.hash((HEADER + fxml).getBytes(StandardCharsets.UTF_8));
+    assertTrue(generate(fxml).contains("return \"" + hash + "\";"));
+
+    final Path file = dir.resolve("Test.fxml");
+    Files.writeString(file, HEADER + fxml, StandardCharsets.UTF_8);
+    final FXMLFactory factory = new FXMLFactory() {
+      @Override
+      public String getLocation() {
+        return LOCATION;
+      }
+
+      @Override
+      public String getHash() {
+        return hash;
+      }
+
+      @Override
+      public boolean supports(Class<?> controllerClass) {
+        return true;
+      }
+
+      @Override
+      public Object createController() {
+        return null;
+      }
+
+      @Override
+      public Parent create(Object controller, URL location, ResourceBundle resources) {
+        return null;
+      }
+    };
+    assertTrue(FXMLFactories.isCurrent(factory, file.toUri().toURL()));
+    Files.writeString(file, HEADER + "<VBox xmlns:fx=\"http://javafx.com/fxml/1\" spacing=\"1\"/>", StandardCharsets.UTF_8);
+    assertFalse(FXMLFactories.isCurrent(factory, file.toUri().toURL()));
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: documents with
+   * features that need the FXMLLoader are rejected.
+   */
+  @Test
+  public void testGenerate_unsupported() {
+    System.out.println("generate_unsupported");
+    assertThrows(FXUnitException.class, () -> generate("<VBox xmlns:fx=\"http://javafx.com/fxml/1\">"
+            + "<fx:include source=\"other.fxml\"/></VBox>"));
+    assertThrows(FXUnitException.class, () -> generate("<Label xmlns:fx=\"http://javafx.com/fxml/1\" text=\"${other.text}\"/>"));
+    assertThrows(FXUnitException.class, () -> generate("<VBox xmlns:fx=\"http://javafx.com/fxml/1\" fx:controller=\"" + Controller.class.getName() + "\">"
+            + "<Button onAction=\"#handleHidden\"/></VBox>"));
+    assertThrows(FXUnitException.class, () -> generate("<Insets xmlns:fx=\"http://javafx.com/fxml/1\" top=\"1\"/>"));
+    assertThrows(FXUnitException.class, () -> generate("<VBox xmlns:fx=\"http://javafx.com/fxml/1\" fx:controller=\"" + PrivateInitializeController.class.getName() + "\"/>"));
+  }
+
+  /**
+   * Test of generate method, of class FXMLCodeGenerator: the generated factory
+   * of a test FXML compiles, is found by {@link FXUnitContext#load(URL)}, and
+   * builds the same nodes, with the same IDs, and injects the same fields as
+   * the FXMLLoader.
+   *
+   * @param dir A temporary directory.
+   * @throws java.lang.Exception any
+   */
+  @Test
+  public void testGenerate_compiled(@TempDir Path dir) throws Exception {
+    System.out.println("generate_compiled");
+    final String location = "org/aeonium/fxunit/testUI/FXML_layout.fxml";
+    final String className = FXMLCodeGenerator.getClassName(location);
+    final URL url = FXMLLayoutController.class.getResource("FXML_layout.fxml");
+    final Path source = dir.resolve("src").resolve(className.replace('.', '/') + ".java");
+    Files.createDirectories(source.getParent());
+    try (InputStream in = url.openStream()) {
+      Files.writeString(source, generator.generate(location, in), StandardCharsets.UTF_8);
+    }
+
+    final Path classes = dir.resolve("classes");
+    Files.createDirectories(classes);
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertEquals(0, compiler.run(null, null, null, "-d", classes.toString(),
+            "-classpath", System.getProperty("java.class.path"), "-proc:none", source.toString()));
+    defineClasses(classes.resolve("org/aeonium/fxunit/testUI"));
+    final Path services = classes.resolve("META-INF/services/" + FXMLFactory.class.getName());
+    Files.createDirectories(services.getParent());
+    Files.writeString(services, className, StandardCharsets.UTF_8);
+
+    final FXUnitContext loaded = new FXUnitContext();
+    final FXUnitContext generated = new FXUnitContext();
+    final Thread thread = Thread.currentThread();
+    final ClassLoader contextClassLoader = thread.getContextClassLoader();
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+      FXMLFactories.setEnabled(false);
+      loaded.load(url);
+      FXMLFactories.setEnabled(true);
+      thread.setContextClassLoader(classLoader);
+      FXMLFactories.reload();
+      assertNotNull(FXMLFactories.getFactory(url));
+      assertEquals(className, FXMLFactories.getFactory(url).getClass().getName());
+      generated.load(url);
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+      FXMLFactories.reload();
+    }
+
+    assertEquals(describe(loaded.getRoot()), describe(generated.getRoot()));
+    final FXMLLayoutController expected = loaded.getController();
+    final FXMLLayoutController actual = generated.getController();
+    assertTrue(actual.isInitialized());
+    assertEquals(url, actual.getLocation());
+    assertEquals(expected.getLocation(), actual.getLocation());
+    assertNull(actual.getResources());
+    for (Field field : FXMLLayoutController.class.getDeclaredFields()) {
+      if (field.isAnnotationPresent(FXML.class) && Node.class.isAssignableFrom(field.getType())) {
+        field.setAccessible(true);
+        assertNotNull(field.get(actual), field.getName());
+        assertEquals(describe((Node) field.get(expected)), describe((Node) field.get(actual)), field.getName());
+      }
+    }
+  }
+
+  /**
+   * Define the compiled classes in the package of the controller, with its
+   * class loader, like classes compiled into the test classes.
+   */
+  private static void defineClasses(Path packageDir) throws IOException, IllegalAccessException {
+    final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(FXMLLayoutController.class, MethodHandles.lookup());
+    try (Stream<Path> files = Files.list(packageDir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        lookup.defineClass(Files.readAllBytes(file));
+      }
+    }
+  }
+
+  /**
+   * Returns the types and IDs of the given node and its descendants.
+   */
+  private static List<String> describe(Node node) {
+    final List<String> nodes = new ArrayList<>();
+    nodes.add(node.getClass().getName() + "#" + node.getId());
+    if (node instanceof Parent) {
+      for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+        nodes.addAll(describe(child));
+      }
+    }
+    return nodes;
+  }
+
+  private String generate(String fxml) throws IOException {
+    return generator.generate(LOCATION, new ByteArrayInputStream((HEADER + fxml).getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Controller for the generated factories.
+   */
+  public static class Controller {
+
+    @FXML
+    Button ok;
+
+    @FXML
+    private Button hidden;
+
+    @FXML
+    void handleOk(ActionEvent event) {
+      // no op
+    }
+
+    @FXML
+    private void handleHidden() {
+      // no op
+    }
+  }
+
+  /**
+   * Controller with location and resources fields, and an initialize() method
+   * that the FXMLLoader does not call.
+   */
+  public static class InitializeController {
+
+    @FXML
+    private URL location;
+
+    public ResourceBundle resources;
+
+    private void initialize() {
+      throw new IllegalStateException("not called by the FXMLLoader");
+    }
+  }
+
+  /**
+   * Controller with an annotated private initialize() method, which the
+   * generated code cannot call.
+   */
+  public static class PrivateInitializeController {
+
+    @FXML
+    private void initialize() {
+      // no op
+    }
+  }
+}
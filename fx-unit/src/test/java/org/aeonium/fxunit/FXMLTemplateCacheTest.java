@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.layout.AnchorPane;
+import org.aeonium.fxunit.testUI.FXMLController;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link FXMLTemplateCache} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXMLTemplateCacheTest {
+
+  private static final String LABEL_FXML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+          + "<?import javafx.scene.control.*?>\n"
+          + "<Label xmlns:fx=\"http://javafx.com/fxml/1\" text=\"%s\"/>\n";
+
+  @TempDir
+  Path tempDir;
+
+  private int capacity;
+
+  public FXMLTemplateCacheTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    capacity = FXMLTemplateCache.getCapacity();
+    FXMLTemplateCache.clear();
+    FXMLTemplateCache.resetStatistics();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXMLTemplateCache.setCapacity(capacity);
+    FXMLTemplateCache.clear();
+  }
+
+  /**
+   * The second load of a URL uses the cached document and still creates a new
+   * root node and controller.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testLoad_warm() throws IOException {
+    System.out.println("load_warm");
+    final URL url = FXMLController.class.getResource("FXML.fxml");
+
+    final FXMLLoader first = new FXMLLoader(url);
+    final AnchorPane firstRoot = FXMLTemplateCache.load(first);
+    final FXMLLoader second = new FXMLLoader(url);
+    final AnchorPane secondRoot = FXMLTemplateCache.load(second);
+
+    assertEquals(1, FXMLTemplateCache.getMisses());
+    assertEquals(1, FXMLTemplateCache.getHits());
+    assertEquals(1, FXMLTemplateCache.getSize());
+    assertNotNull(secondRoot);
+    assertNotSame(firstRoot, secondRoot);
+    assertNotSame(first.getController(), second.getController());
+    assertTrue(second.getController() instanceof FXMLController);
+  }
+
+  /**
+   * The least recently used document is evicted, if the cache is full.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testLoad_evict() throws IOException {
+    System.out.println("load_evict");
+    FXMLTemplateCache.setCapacity(1);
+    final URL a = write("a.fxml", "A");
+    final URL b = write("b.fxml", "B");
+
+    FXMLTemplateCache.load(new FXMLLoader(a));
+    FXMLTemplateCache.load(new FXMLLoader(b));
+    FXMLTemplateCache.load(new FXMLLoader(a));
+
+    assertEquals(3, FXMLTemplateCache.getMisses());
+    assertEquals(0, FXMLTemplateCache.getHits());
+    assertEquals(1, FXMLTemplateCache.getSize());
+  }
+
+  /**
+   * A file with a changed timestamp is read again.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testLoad_modified() throws IOException {
+    System.out.println("load_modified");
+    final URL url = write("label.fxml", "before");
+    final Label before = FXMLTemplateCache.load(new FXMLLoader(url));
+
+    final Path file = tempDir.resolve("label.fxml");
+    Files.writeString(file, String.format(LABEL_FXML, "after"));
+    Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+    final Label after = FXMLTemplateCache.load(new FXMLLoader(url));
+
+    assertEquals("before", before.getText());
+    assertEquals("after", after.getText());
+    assertEquals(2, FXMLTemplateCache.getMisses());
+  }
+
+  /**
+   * With a capacity of 0, nothing is cached.
+   *
+   * @throws java.io.IOException any
+   */
+  @Test
+  public void testLoad_disabled() throws IOException {
+    System.out.println("load_disabled");
+    FXMLTemplateCache.setCapacity(0);
+    final URL url = write("label.fxml", "text");
+
+    final Label label = FXMLTemplateCache.load(new FXMLLoader(url));
+
+    assertEquals("text", label.getText());
+    assertEquals(0, FXMLTemplateCache.getMisses());
+    assertEquals(0, FXMLTemplateCache.getSize());
+  }
+
+  private URL write(String name, String text) throws IOException {
+    final Path file = tempDir.resolve(name);
+    Files.writeString(file, String.format(LABEL_FXML, text));
+    return file.toUri().toURL();
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXMetrics} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXMetricsTest {
+
+  public FXMetricsTest() {
+  }
+
+  /**
+   * Test of the record methods, of class FXMetrics: the metrics are recorded
+   * for the current context and its parent.
+   */
+  @Test
+  public void testRecord() {
+    System.out.println("record");
+    final FXUnitContext classContext = new FXUnitContext();
+    final FXUnitContext testContext = new FXUnitContext(classContext);
+    final FXUnitContext previous = FXUnitContext.bind(testContext);
+    try {
+      FXMetrics.recordHop();
+      FXMetrics.recordHop();
+      FXMetrics.recordInput(4);
+      FXMetrics.recordSleep(System.nanoTime() - 1_000_000);
+    } finally {
+      FXUnitContext.bind(previous);
+    }
+    testContext.getMetrics().recordFXThread(500);
+
+    for (FXMetrics metrics : new FXMetrics[]{testContext.getMetrics(), classContext.getMetrics()}) {
+      assertEquals(2, metrics.getHops());
+      assertEquals(4, metrics.getInputEvents());
+      assertEquals(500, metrics.getFXThreadTime());
+      assertTrue(metrics.getSleepTime() >= 1_000_000);
+      assertEquals(0, metrics.getBlockedTime());
+    }
+
+    testContext.getMetrics().reset();
+    assertEquals(0, testContext.getMetrics().getHops());
+    assertEquals(2, classContext.getMetrics().getHops());
+  }
+
+  /**
+   * Test of setEnabled method, of class FXMetrics.
+   */
+  @Test
+  public void testSetEnabled() {
+    System.out.println("setEnabled");
+    final FXUnitContext context = new FXUnitContext();
+    final FXUnitContext previous = FXUnitContext.bind(context);
+    FXMetrics.setEnabled(false);
+    try {
+      FXMetrics.recordHop();
+      assertEquals(0, context.getMetrics().getHops());
+    } finally {
+      FXMetrics.setEnabled(true);
+      FXUnitContext.bind(previous);
+    }
+  }
+
+  /**
+   * Test of toJson method, of class FXMetrics.
+   */
+  @Test
+  public void testToJson() {
+    System.out.println("toJson");
+    final FXMetrics metrics = new FXMetrics(null);
+    metrics.recordFXThread(1_500_000);
+    assertEquals("{\"hops\": 0, \"fxThreadMillis\": 1.500, \"blockedMillis\": 0.000, \"waitMillis\": 0.000, \"sleepMillis\": 0.000, \"inputEvents\": 0}",
+            metrics.toJson());
+  }
+
+  /**
+   * Test of runAndWait method, of class FXHelper: a hop to the JavaFX
+   * application thread is counted, and its run time and the time blocked are
+   * measured.
+   */
+  @Test
+  public void testRunAndWait() throws ExecutionException {
+    System.out.println("runAndWait");
+    FXUnit.init();
+    final FXUnitContext context = new FXUnitContext();
+    final FXUnitContext previous = FXUnitContext.bind(context);
+    try {
+      FXHelper.runAndWait(() -> FXHelper.sleep(0));
+      FXHelper.runAndWait(() -> {
+      });
+    } finally {
+      FXUnitContext.bind(previous);
+    }
+    final FXMetrics metrics = context.getMetrics();
+    assertEquals(2, metrics.getHops());
+    assertTrue(metrics.getBlockedTime() >= metrics.getFXThreadTime(), metrics.toString());
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXNodeIndex} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXNodeIndexTest {
+
+  private Scene scene;
+  private VBox root;
+  private Label label;
+
+  public FXNodeIndexTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() throws ExecutionException {
+    label = new Label("label");
+    label.setId("label");
+    root = new VBox(new HBox(label), new Button("button"));
+    root.setId("root");
+    FXHelper.runAndWait(() -> scene = new Scene(root));
+  }
+
+  /**
+   * Test of lookup method, of class FXNodeIndex: finds nodes by ID, like
+   * Scene.lookup.
+   */
+  @Test
+  public void testLookup() {
+    System.out.println("lookup");
+    assertSame(label, FXNodeIndex.lookup(scene, "#label"));
+    assertSame(root, FXNodeIndex.lookup(scene, "#root"));
+    assertNull(FXNodeIndex.lookup(scene, "#unknown"));
+    assertSame(scene.lookup(".button"), FXNodeIndex.lookup(scene, ".button"));
+  }
+
+  /**
+   * Test of lookup method, of class FXNodeIndex: the index follows changes of
+   * the child lists, IDs and the scene root.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testLookup_changes() throws ExecutionException {
+    System.out.println("lookup_changes");
+    assertSame(label, FXNodeIndex.lookup(scene, "#label"));
+    final Label added = new Label("added");
+    added.setId("added");
+
+    FXHelper.runAndWait(() -> {
+      root.getChildren().add(new HBox(added));
+      label.setId("renamed");
+    });
+    assertSame(added, FXNodeIndex.lookup(scene, "#added"));
+    assertSame(label, FXNodeIndex.lookup(scene, "#renamed"));
+    assertNull(FXNodeIndex.lookup(scene, "#label"));
+
+    FXHelper.runAndWait(() -> root.getChildren().remove(0));
+    assertNull(FXNodeIndex.lookup(scene, "#renamed"));
+
+    FXHelper.runAndWait(() -> scene.setRoot(new Group(label)));
+    assertSame(label, FXNodeIndex.lookup(scene, "#renamed"));
+    assertNull(FXNodeIndex.lookup(scene, "#added"));
+  }
+
+  /**
+   * Test of lookup method, of class FXNodeIndex: for duplicate IDs, the first
+   * node in traversal order is returned.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testLookup_duplicates() throws ExecutionException {
+    System.out.println("lookup_duplicates");
+    final Label duplicate = new Label("duplicate");
+    duplicate.setId("label");
+    FXHelper.runAndWait(() -> root.getChildren().add(duplicate));
+
+    assertSame(scene.lookup("#label"), FXNodeIndex.lookup(scene, "#label"));
+
+    FXHelper.runAndWait(() -> root.getChildren().remove(duplicate));
+    assertSame(label, FXNodeIndex.lookup(scene, "#label"));
+  }
+
+  /**
+   * Test of setEnabled method, of class FXNodeIndex: without index, Scene.lookup
+   * is used.
+   */
+  @Test
+  public void testSetEnabled() {
+    System.out.println("setEnabled");
+    final boolean enabled = FXNodeIndex.isEnabled();
+    try {
+      FXNodeIndex.setEnabled(false);
+      final Node result = FXNodeIndex.lookup(scene, "#label");
+      assertSame(label, result);
+      assertNull(scene.getProperties().get(FXNodeIndex.class));
+    } finally {
+      FXNodeIndex.setEnabled(enabled);
+    }
+    assertSame(label, FXNodeIndex.lookup(scene, "#label"));
+    assertEquals(2, FXNodeIndex.get(scene).size());
+  }
+}
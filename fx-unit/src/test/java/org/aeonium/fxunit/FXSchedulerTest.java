@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXScheduler} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXSchedulerTest {
+
+  public FXSchedulerTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXUnitContext.bind(null);
+  }
+
+  /**
+   * Tasks of one context are executed in the order of submission.
+   *
+   * @throws java.lang.Exception any
+   */
+  @Test
+  public void testSchedule_order() throws Exception {
+    System.out.println("schedule_order");
+    final List<Integer> executed = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final int n = i;
+      FXScheduler.schedule(() -> executed.add(n));
+    }
+    FXHelper.runAndWait(() -> {
+      // wait for the tasks above.
+    });
+
+    assertEquals(100, executed.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, executed.get(i));
+    }
+  }
+
+  /**
+   * A task that throws an error neither drops the other tasks of its round nor
+   * stops the scheduling of later tasks.
+   *
+   * @throws java.lang.Exception any
+   */
+  @Test
+  public void testSchedule_error() throws Exception {
+    System.out.println("schedule_error");
+    final List<String> executed = new CopyOnWriteArrayList<>();
+    final FXUnitContext other = new FXUnitContext();
+    FXScheduler.schedule(() -> {
+      throw new AssertionError("expected");
+    });
+    FXUnitContext.bind(other);
+    FXScheduler.schedule(() -> executed.add("same round"));
+    FXUnitContext.bind(null);
+    FXScheduler.schedule(() -> executed.add("later"));
+
+    final CountDownLatch latch = new CountDownLatch(1);
+    FXScheduler.schedule(latch::countDown);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of("same round", "later"), executed);
+  }
+
+  /**
+   * A context that queues a lot of tasks does not starve other contexts.
+   *
+   * @throws java.lang.Exception any
+   */
+  @Test
+  public void testSchedule_fair() throws Exception {
+    System.out.println("schedule_fair");
+    final List<String> executed = new CopyOnWriteArrayList<>();
+    final CountDownLatch blocked = new CountDownLatch(1);
+
+    FXUnitContext.bind(new FXUnitContext());
+    // keep the FX thread busy, until all tasks have been queued:
+    FXScheduler.schedule(() -> {
+      try {
+        blocked.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    for (int i = 0; i < 50; i++) {
+      FXScheduler.schedule(() -> executed.add("busy"));
+    }
+
+    final Thread other = new Thread(() -> {
+      FXUnitContext.bind(new FXUnitContext());
+      FXScheduler.schedule(() -> executed.add("other"));
+    });
+    other.start();
+    other.join();
+    blocked.countDown();
+
+    FXHelper.runAndWait(() -> {
+      // wait for the tasks above.
+    });
+    assertEquals(51, executed.size());
+    assertTrue(executed.indexOf("other") < 5, "other context must not wait for all busy tasks: " + executed.indexOf("other"));
+  }
+
+  /**
+   * An exception thrown by a task does not stop the execution of further
+   * tasks.
+   *
+   * @throws java.lang.Exception any
+   */
+  @Test
+  public void testSchedule_exception() throws Exception {
+    System.out.println("schedule_exception");
+    final List<String> executed = new CopyOnWriteArrayList<>();
+    FXScheduler.schedule(() -> {
+      throw new IllegalStateException("Test exception, please ignore.");
+    });
+    FXScheduler.schedule(() -> executed.add("ok"));
+    FXHelper.runAndWait(() -> {
+      // wait for the tasks above.
+    });
+    assertEquals(List.of("ok"), executed);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXSelector} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXSelectorTest {
+
+  private Scene scene;
+  private VBox root;
+  private HBox box;
+  private Label label;
+  private Button ok;
+  private Button cancel;
+
+  public FXSelectorTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() throws ExecutionException {
+    label = new Label("label");
+    label.setId("label");
+    ok = new Button("ok");
+    ok.setId("ok");
+    ok.getStyleClass().add("primary");
+    cancel = new Button("cancel");
+    box = new HBox(label, ok);
+    root = new VBox(box, cancel);
+    root.setId("root");
+    FXHelper.runAndWait(() -> scene = new Scene(root));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXNodeIndex.setEnabled(true);
+  }
+
+  /**
+   * Test of query method, of class FXSelector: type, ID, style class and
+   * universal selectors.
+   */
+  @Test
+  public void testQuery_simple() {
+    System.out.println("query_simple");
+    assertEquals(List.of(ok, cancel), FXSelector.query(scene, "Button"));
+    assertEquals(List.of(ok, cancel), FXSelector.query(scene, ".button"));
+    assertEquals(List.of(ok), FXSelector.query(scene, "#ok"));
+    assertEquals(List.of(ok), FXSelector.query(scene, "Button.primary"));
+    assertEquals(List.of(root, box, label, ok, cancel), FXSelector.query(scene, "*"));
+    assertEquals(List.of(), FXSelector.query(scene, ".unknown"));
+  }
+
+  /**
+   * Test of query method, of class FXSelector: descendant and child
+   * combinators, and groups of selectors in scene graph order.
+   */
+  @Test
+  public void testQuery_combinators() {
+    System.out.println("query_combinators");
+    assertEquals(List.of(ok, cancel), FXSelector.query(scene, "#root Button"));
+    assertEquals(List.of(cancel), FXSelector.query(scene, "VBox > Button"));
+    assertEquals(List.of(ok), FXSelector.query(scene, "VBox HBox>.button"));
+    assertEquals(List.of(label, ok), FXSelector.query(scene, "HBox > *"));
+    assertEquals(List.of(label, cancel), FXSelector.query(scene, "#cancel, VBox > Button, #label"));
+  }
+
+  /**
+   * Test of query method, of class FXSelector: a group of indexed and walked
+   * selectors, with and without the index, yields each match once, in scene
+   * graph order.
+   */
+  @Test
+  public void testQuery_group() {
+    System.out.println("query_group");
+    for (boolean enabled : new boolean[]{true, false}) {
+      FXNodeIndex.setEnabled(enabled);
+      assertEquals(List.of(label, ok, cancel), FXSelector.query(scene, "#cancel, HBox > *, #ok"));
+      assertEquals(List.of(box, label, ok, cancel), FXSelector.query(scene, "#cancel, #root *"));
+    }
+  }
+
+  /**
+   * Test of query method, of class FXSelector: pseudo classes are matched
+   * against the current pseudo class states.
+   */
+  @Test
+  public void testQuery_pseudoClass() throws ExecutionException {
+    System.out.println("query_pseudoClass");
+    FXHelper.runAndWait(() -> cancel.setDisable(true));
+    assertEquals(List.of(cancel), FXSelector.query(scene, ".button:disabled"));
+    FXHelper.runAndWait(() -> ok.pseudoClassStateChanged(PseudoClass.getPseudoClass("custom"), true));
+    assertEquals(List.of(ok), FXSelector.query(scene, "HBox :custom"));
+  }
+
+  /**
+   * Test of query method, of class FXSelector: the results follow changes of
+   * the scene graph, with or without the index.
+   */
+  @Test
+  public void testQuery_changes() throws ExecutionException {
+    System.out.println("query_changes");
+    FXHelper.runAndWait(() -> {
+      box.getChildren().remove(ok);
+      root.getChildren().add(0, ok);
+      cancel.getStyleClass().add("primary");
+    });
+    assertEquals(List.of(ok, cancel), FXSelector.query(scene, "VBox > .primary"));
+    FXNodeIndex.setEnabled(false);
+    assertEquals(List.of(ok, cancel), FXSelector.query(scene, "VBox > .primary"));
+  }
+
+  /**
+   * Test of compile method, of class FXSelector: selectors are cached, invalid
+   * ones are rejected.
+   */
+  @Test
+  public void testCompile() {
+    System.out.println("compile");
+    assertSame(FXSelector.compile("VBox > .button"), FXSelector.compile("VBox > .button"));
+    assertTrue(FXSelector.compile("VBox > .button").matches(cancel));
+    assertFalse(FXSelector.compile("VBox > .button").matches(ok));
+    assertThrows(FXUnitException.class, () -> FXSelector.compile("VBox >"));
+    assertThrows(FXUnitException.class, () -> FXSelector.compile("Button,"));
+    assertThrows(FXUnitException.class, () -> FXSelector.compile("#"));
+    assertThrows(FXUnitException.class, () -> FXSelector.compile("a + b"));
+    assertThrows(NullPointerException.class, () -> FXSelector.compile(null));
+  }
+
+  /**
+   * Test of query method, of class FX.
+   */
+  @Test
+  public void testFXQuery() {
+    System.out.println("FX.query");
+    FX.show(new VBox(new Button("a"), new Button("b"))).isVisible();
+    FX.query(".button").hasSize(2).get(1).hasText("b");
+    FX.query("VBox > Label").hasSize(0);
+  }
+}
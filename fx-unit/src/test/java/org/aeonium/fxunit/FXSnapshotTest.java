@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import javafx.collections.FXCollections;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXSnapshot} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXSnapshotTest {
+
+  private VBox root;
+  private Label label;
+  private Button button;
+  private TextField textField;
+  private ListView<String> listView;
+
+  public FXSnapshotTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    label = new Label("label");
+    label.setId("label");
+    button = new Button("button");
+    button.setId("button");
+    button.setDisable(true);
+    textField = new TextField("text");
+    textField.setId("textField");
+    listView = new ListView<>(FXCollections.observableArrayList("a", "b", "c"));
+    listView.setId("listView");
+    root = new VBox(new HBox(label, button), textField, listView);
+    root.setId("root");
+  }
+
+  /**
+   * Test of capture method, of class FXSnapshot: the snapshot holds the
+   * properties of the subtree.
+   */
+  @Test
+  public void testCapture() {
+    System.out.println("capture");
+    FXSnapshot snapshot = FXSnapshot.capture(root);
+    assertEquals("root", snapshot.getId());
+    assertEquals("VBox", snapshot.getType());
+    assertNull(snapshot.getText());
+    assertEquals(3, snapshot.getChildren().size());
+    assertEquals("label", snapshot.find("#label").getText());
+    assertEquals(List.of("button"), snapshot.find("button").getStyleClasses());
+    assertEquals(3, snapshot.find("listView").getItemCount());
+    assertEquals(-1, snapshot.find("label").getItemCount());
+    assertThrows(AssertionError.class, () -> snapshot.find("unknown"));
+    assertThrows(NullPointerException.class, () -> FXSnapshot.capture(null));
+  }
+
+  /**
+   * Test of the assertion methods, of class FXSnapshot.
+   */
+  @Test
+  public void testAssertions() {
+    System.out.println("assertions");
+    FXSnapshot snapshot = FXSnapshot.capture(root);
+    snapshot.isVisible().isEnabled().isManaged().hasChildren(3).hasNotStyleClass("button");
+    snapshot.find("label").hasText("label").hasStyleClass("label");
+    snapshot.find("button").isDisabled().hasText("button").isNotSelected();
+    snapshot.find("textField").hasText("text").isEditable();
+    snapshot.find("listView").hasItems(3);
+
+    assertThrows(AssertionError.class, () -> snapshot.find("label").hasText("other"));
+    assertThrows(AssertionError.class, () -> snapshot.find("button").isEnabled());
+    assertThrows(AssertionError.class, () -> snapshot.isNotVisible());
+    assertThrows(AssertionError.class, () -> snapshot.hasText("root"));
+    assertThrows(AssertionError.class, () -> snapshot.hasItems(0));
+    assertThrows(AssertionError.class, () -> snapshot.find("listView").hasItems(2));
+    assertThrows(IllegalArgumentException.class, () -> snapshot.hasStyleClass(" "));
+  }
+
+  /**
+   * Test of capture method, of class FXSnapshot: later changes of the scene
+   * graph do not affect a snapshot.
+   */
+  @Test
+  public void testCapture_immutable() throws ExecutionException {
+    System.out.println("capture_immutable");
+    FX.show(root);
+    FXSnapshot snapshot = FX.lookup("#root").snapshot();
+    FXHelper.runAndWait(() -> {
+      label.setText("changed");
+      root.getChildren().clear();
+    });
+    snapshot.hasChildren(3).find("label").hasText("label");
+    FX.lookup("#root").snapshot().isEmpty();
+  }
+
+  /**
+   * Test of snapshot method, of class FXCollection: the snapshots can be
+   * asserted in parallel.
+   */
+  @Test
+  public void testCollectionSnapshot() {
+    System.out.println("collection snapshot");
+    FX.show(root);
+    List<FXSnapshot> snapshots = FX.query("VBox > *").hasSize(3).snapshot();
+    assertEquals(3, snapshots.size());
+    snapshots.parallelStream().forEach(FXSnapshot::isVisible);
+    assertEquals(3, snapshots.parallelStream().mapToInt(FXSnapshot::getItemCount).max().getAsInt());
+    snapshots.get(0).hasChildren(2);
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.ExecutionException;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXStagePool} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXStagePoolTest {
+
+  private int capacity;
+
+  public FXStagePoolTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    capacity = FXStagePool.getCapacity();
+    FXStagePool.clear();
+    FXStagePool.resetStatistics();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXStagePool.setCapacity(capacity);
+    FXStagePool.clear();
+  }
+
+  /**
+   * A released stage is reused by the next acquire, with the new root node.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testAcquire_reuse() throws ExecutionException {
+    System.out.println("acquire_reuse");
+    final Stage[] stages = new Stage[2];
+    final VBox root = new VBox(new Label("2nd"));
+    FXHelper.runAndWait(() -> {
+      stages[0] = FXStagePool.acquire(new VBox(new Label("1st")), "1st");
+      stages[0].getScene().getStylesheets().add("dummy.css");
+      FXStagePool.release(stages[0]);
+      stages[1] = FXStagePool.acquire(root, "2nd");
+    });
+
+    assertSame(stages[0], stages[1]);
+    assertSame(root, stages[1].getScene().getRoot());
+    assertTrue(stages[1].getScene().getStylesheets().isEmpty(), "Stylesheets must be reset.");
+    assertTrue(stages[1].isShowing());
+    assertEquals("2nd", stages[1].getTitle());
+    assertEquals(1, FXStagePool.getHits());
+    assertEquals(1, FXStagePool.getMisses());
+    FXHelper.runAndWait(() -> FXStagePool.release(stages[1]));
+    assertEquals(1, FXStagePool.getSize());
+  }
+
+  /**
+   * A released stage drops the focus owner of the released UI.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testRelease_focusOwner() throws ExecutionException {
+    System.out.println("release_focusOwner");
+    final Stage[] stages = new Stage[1];
+    final TextField field = new TextField();
+    FXHelper.runAndWait(() -> {
+      stages[0] = FXStagePool.acquire(new VBox(field), "focus");
+      field.requestFocus();
+    });
+    assertSame(field, stages[0].getScene().getFocusOwner());
+
+    FXHelper.runAndWait(() -> FXStagePool.release(stages[0]));
+    assertNotSame(field, stages[0].getScene().getFocusOwner());
+    assertSame(stages[0].getScene().getRoot(), stages[0].getScene().getFocusOwner());
+  }
+
+  /**
+   * A released stage is hidden, so it is not listed as window, and cannot take
+   * the focus from a stage acquired afterwards.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testRelease_hidden() throws ExecutionException {
+    System.out.println("release_hidden");
+    final Stage[] stages = new Stage[2];
+    final TextField field = new TextField();
+    FXHelper.runAndWait(() -> {
+      stages[0] = FXStagePool.acquire(new VBox(new TextField()), "released");
+      stages[1] = FXStagePool.acquire(new VBox(field), "acquired");
+      field.requestFocus();
+      FXStagePool.release(stages[0]);
+      stages[0].requestFocus();
+    });
+    FXHelper.waitForIdle(null);
+
+    assertFalse(stages[0].isShowing());
+    assertFalse(Window.getWindows().contains(stages[0]));
+    assertFalse(stages[0].isFocused());
+    assertSame(field, stages[1].getScene().getFocusOwner());
+    assertEquals(1, FXStagePool.getSize());
+    FXHelper.runAndWait(() -> FXStagePool.release(stages[1]));
+  }
+
+  /**
+   * With capacity 0, released stages are hidden and not pooled.
+   *
+   * @throws java.util.concurrent.ExecutionException any
+   */
+  @Test
+  public void testRelease_full() throws ExecutionException {
+    System.out.println("release_full");
+    FXStagePool.setCapacity(0);
+    final Stage[] stages = new Stage[1];
+    FXHelper.runAndWait(() -> {
+      stages[0] = FXStagePool.acquire(new VBox(), "full");
+      FXStagePool.release(stages[0]);
+    });
+
+    assertFalse(stages[0].isShowing());
+    assertEquals(0, FXStagePool.getSize());
+    assertEquals(1, FXStagePool.getMisses());
+  }
+
+  /**
+   * Showing and closing UIs in a context reuses the pooled stages.
+   */
+  @Test
+  public void testContext_closeStage() {
+    System.out.println("context_closeStage");
+    final FXUnitContext context = new FXUnitContext();
+    for (int i = 0; i < 3; i++) {
+      context.show(new VBox(new Label("Test " + i)));
+      context.closeStage();
+    }
+    assertEquals(1, FXStagePool.getMisses());
+    assertEquals(2, FXStagePool.getHits());
+  }
+
+  /**
+   * A closed context keeps its stage, which is hidden and recycled by the next
+   * UI.
+   */
+  @Test
+  public void testContext_closedStage() {
+    System.out.println("context_closedStage");
+    final FXUnitContext context = new FXUnitContext();
+    final VBox root = new VBox(new Label("Test"));
+    context.show(root);
+    final Stage pooled = context.getStage();
+    context.closeStage();
+
+    assertSame(pooled, context.getStage());
+    assertFalse(context.getStage().isShowing());
+    assertNotSame(root, context.getStage().getScene().getRoot());
+    assertEquals(1, FXStagePool.getSize());
+
+    final FXUnitContext next = new FXUnitContext();
+    next.show(new VBox(new Label("Next")));
+    assertSame(pooled, next.getStage());
+    next.closeStage();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javafx.scene.layout.Pane;
+import jdk.jfr.Recording;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link FXTrace} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXTraceTest {
+
+  @TempDir
+  Path directory;
+
+  public FXTraceTest() {
+  }
+
+  /**
+   * Test of writeChromeTrace method, of class FXTrace: recorded actions,
+   * assertions and delays are written as complete events with their fields.
+   */
+  @Test
+  public void testWriteChromeTrace() throws IOException {
+    System.out.println("writeChromeTrace");
+    final Pane pane = new Pane();
+    pane.setId("pane");
+    final Recording recording = FXTrace.startRecording();
+
+    assertSame(pane, FXTrace.action("click", pane, () -> pane));
+    AssertFX.assertVisible(pane);
+    assertThrows(AssertionError.class, () -> AssertFX.assertNotVisible(pane));
+    FXHelper.sleep(10);
+
+    final Path trace = directory.resolve("trace.json");
+    FXTrace.stopRecording(recording, trace);
+    final String json = Files.readString(trace, StandardCharsets.UTF_8);
+    assertTrue(json.startsWith("{\"traceEvents\": ["), json);
+    assertTrue(json.contains("\"name\": \"Action click\", \"cat\": \"Action\", \"ph\": \"X\""), json);
+    assertTrue(json.contains("\"target\": \"Pane#pane\""), json);
+    assertTrue(json.contains("\"assertion\": \"assertVisible\", \"passed\": true"), json);
+    assertTrue(json.contains("\"assertion\": \"assertNotVisible\", \"passed\": false"), json);
+    assertTrue(json.contains("\"kind\": \"sleep\", \"millis\": 10"), json);
+    assertTrue(json.contains("\"name\": \"thread_name\""), json);
+  }
+
+  /**
+   * Test of the events without a recording: they are disabled and the traced
+   * code runs as usual.
+   */
+  @Test
+  public void testDisabled() {
+    System.out.println("disabled");
+    final FXTrace.ActionEvent action = FXTrace.beginAction("click", new Pane());
+    assertFalse(action.isEnabled());
+    action.commit();
+    final FXTrace.AssertionEvent assertion = FXTrace.beginAssertion("assertVisible");
+    assertFalse(assertion.isEnabled());
+    assertion.commit();
+    AssertFX.assertVisible(new Pane());
+  }
+}
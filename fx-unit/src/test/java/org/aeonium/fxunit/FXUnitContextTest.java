@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import org.aeonium.fxunit.testUI.FXMLController;
+import org.aeonium.fxunit.testUI.FXMLController1;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXUnitContext} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXUnitContextTest {
+
+  public FXUnitContextTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    FXUnitContext.bind(null);
+  }
+
+  /**
+   * Test of current method, of class FXUnitContext: without binding, all calls
+   * return the same default context.
+   */
+  @Test
+  public void testCurrent() {
+    System.out.println("current");
+    FXUnitContext result = FXUnitContext.current();
+    assertNotNull(result);
+    assertSame(result, FXUnitContext.current());
+  }
+
+  /**
+   * Test of bind method, of class FXUnitContext.
+   */
+  @Test
+  public void testBind() {
+    System.out.println("bind");
+    final FXUnitContext defaultContext = FXUnitContext.current();
+    final FXUnitContext context = new FXUnitContext();
+
+    assertNull(FXUnitContext.bind(context));
+    assertSame(context, FXUnitContext.current());
+    assertSame(context, FXUnitContext.bind(null));
+    assertSame(defaultContext, FXUnitContext.current());
+  }
+
+  /**
+   * Test of getRoot method, of class FXUnitContext: a context without UI falls
+   * back to the UI of its parent.
+   */
+  @Test
+  public void testGetRoot_parent() {
+    System.out.println("getRoot_parent");
+    final FXUnitContext parent = new FXUnitContext();
+    final FXUnitContext context = new FXUnitContext(parent);
+    assertNull(context.getRoot());
+
+    parent.load(FXMLController.class.getResource("FXML.fxml"));
+    assertSame(parent, context.getParent());
+    assertSame(parent.getRoot(), context.getRoot());
+    assertSame(parent.<Object>getController(), context.getController());
+
+    context.load(FXMLController.class.getResource("FXML_noController.fxml"), FXMLController1.class);
+    assertNotSame(parent.getRoot(), context.getRoot());
+    assertTrue(context.getController() instanceof FXMLController1, "is FXMLController1.class");
+  }
+
+  /**
+   * Test of show method, of class FXUnitContext: each context shows its UI on
+   * a stage of its own.
+   */
+  @Test
+  public void testShow() {
+    System.out.println("show");
+    final FXUnitContext context1 = new FXUnitContext();
+    final FXUnitContext context2 = new FXUnitContext();
+
+    context1.show(FXMLController.class.getResource("FXML.fxml"));
+    context2.show(FXMLController.class.getResource("FXML.fxml"));
+
+    assertNotNull(context1.getStage());
+    assertNotNull(context2.getStage());
+    assertNotSame(context1.getStage(), context2.getStage());
+    assertNotSame(context1.getRoot(), context2.getRoot());
+
+    context1.closeStage();
+    context2.closeStage();
+  }
+
+  /**
+   * Test of show method, of class FXUnitContext: the UI loaded on the calling
+   * thread is attached to the stage.
+   */
+  @Test
+  public void testShow_loadOffFXThread() {
+    System.out.println("show_loadOffFXThread");
+    final FXUnitContext context = new FXUnitContext();
+
+    context.show(FXMLController.class.getResource("FXML.fxml"), FXMLController1.class);
+
+    assertTrue(context.getController() instanceof FXMLController1, "is FXMLController1.class");
+    assertSame(context.getRoot(), context.getStage().getScene().getRoot());
+    context.closeStage();
+  }
+
+  /**
+   * Test of show method, of class FXUnitContext: the fallback mode loads the
+   * UI on the JavaFX thread.
+   */
+  @Test
+  public void testShow_loadOnFXThread() {
+    System.out.println("show_loadOnFXThread");
+    final boolean loadOnFXThread = FXUnitContext.isLoadOnFXThread();
+    final FXUnitContext context = new FXUnitContext();
+    try {
+      FXUnitContext.setLoadOnFXThread(true);
+      context.show(FXMLController.class.getResource("FXML.fxml"));
+
+      assertNotNull(context.getStage());
+      assertSame(context.getRoot(), context.getStage().getScene().getRoot());
+      context.closeStage();
+    } finally {
+      FXUnitContext.setLoadOnFXThread(loadOnFXThread);
+    }
+  }
+
+  /**
+   * Errors of loading or showing on the JavaFX thread are rethrown by the show
+   * methods.
+   */
+  @Test
+  public void testShow_error() {
+    System.out.println("show_error");
+    final boolean loadOnFXThread = FXUnitContext.isLoadOnFXThread();
+    final FXUnitContext context = new FXUnitContext();
+    try {
+      FXUnitContext.setLoadOnFXThread(true);
+      assertThrows(FXUnitException.class, () -> context.show(FXMLController.class.getResource("FXML_error.fxml")));
+      assertNull(context.getStage());
+    } finally {
+      FXUnitContext.setLoadOnFXThread(loadOnFXThread);
+    }
+  }
+
+  /**
+   * FXUnit's static methods operate on the current context.
+   */
+  @Test
+  public void testFXUnit_current() {
+    System.out.println("FXUnit_current");
+    final FXUnitContext context = new FXUnitContext();
+    FXUnitContext.bind(context);
+
+    FXUnit.load(FXMLController.class.getResource("FXML.fxml"));
+    assertSame(context.getRoot(), FXUnit.getRoot());
+    assertNull(FXUnit.getStage());
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import javafx.stage.Stage;
+import org.aeonium.fxunit.testUI.FXMLController;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Tests for the {@link FXUnitExtension} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@ExtendWith(FXUnitExtension.class)
+public class FXUnitExtensionTest {
+
+  private static Stage classStage;
+
+  public FXUnitExtensionTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass(FXUnitContext context) {
+    context.show(FXMLController.class.getResource("FXML.fxml"));
+    classStage = context.getStage();
+  }
+
+  /**
+   * The context parameter is the context bound to the test thread.
+   *
+   * @param context The injected context.
+   */
+  @Test
+  public void testResolveParameter(FXUnitContext context) {
+    System.out.println("resolveParameter");
+    assertSame(context, FXUnitContext.current());
+    assertNotNull(context.getParent());
+  }
+
+  /**
+   * A UI shown in a BeforeAll method is visible to the tests.
+   */
+  @Test
+  public void testClassContext() {
+    System.out.println("classContext");
+    assertNotNull(classStage);
+    assertSame(classStage, FXUnit.getStage());
+  }
+
+  /**
+   * A UI shown by a test is shown on a stage of its own.
+   *
+   * @param context The injected context.
+   */
+  @Test
+  public void testTestContext(FXUnitContext context) {
+    System.out.println("testContext");
+    FXUnit.show(FXMLController.class.getResource("FXML.fxml"));
+    assertNotNull(context.getStage());
+    assertNotSame(classStage, context.getStage());
+    FX.lookup("#AnchorPane");
+  }
+}
@@ -99,6 +99,24 @@ public class FXUnitTest {
     Assertions.assertTrue(ok.getValue(), "Do not fail initialization.");
   }
 
+  /**
+   * Test of init method, of class FXUnit: once the toolkit is running, further
+   * calls must return immediately.
+   */
+  @Test
+  public void testInit_repeated() {
+    System.out.println("init_repeated");
+    FXUnit.init();
+
+    long timeBefore = System.currentTimeMillis();
+    FXUnit.init();
+    FXUnit.init();
+    long timeAfter = System.currentTimeMillis();
+
+    assertTrue(timeAfter - timeBefore < 100, "Repeated init must not wait.");
+    assertTrue(DriverApp.isStarted(), "Toolkit must be signalled as started.");
+  }
+
   @Test
   public void testLoad() {
     System.out.println("load");
@@ -209,15 +227,38 @@ public class FXUnitTest {
 
   /**
    * Test of closeStage method, of class FXUnit, closing the testing stage and
-   * adding delay time.
+   * adding delay time if fixed delays are enabled.
    */
   @Test
   public void testCloseStage() {
     System.out.println("shutdown");
+    FXHelper.setFixedDelays(true);
+    try {
+      long timeBefore = System.currentTimeMillis();
+      FXUnit.closeStage();
+      long timeAfter = System.currentTimeMillis();
+
+      assertTrue(timeAfter >= timeBefore + 1000, "Delay time >= 1000 ms");
+    } finally {
+      FXHelper.setFixedDelays(false);
+    }
+  }
+
+  /**
+   * Test of closeStage method, of class FXUnit, closing the testing stage and
+   * waiting until the UI is idle, instead of a fixed delay.
+   */
+  @Test
+  public void testCloseStage_idle() {
+    System.out.println("shutdown_idle");
+    initializeToolkit();
+
+    FXUnit.show(FXMLController.class.getResource("FXML.fxml"));
     long timeBefore = System.currentTimeMillis();
     FXUnit.closeStage();
     long timeAfter = System.currentTimeMillis();
 
-    assertTrue(timeAfter >= timeBefore + 1000, "Delay time >= 1000 ms");
+    assertTrue(timeAfter < timeBefore + 1000, "No fixed delay of 1000 ms");
+    assertNull(FXUnit.getStage().getScene());
   }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXWait} class and the wait methods of {@link FX}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXWaitTest {
+
+  private VBox root;
+  private Label label;
+  private ListView<String> listView;
+
+  public FXWaitTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  @BeforeEach
+  public void setUp() {
+    label = new Label("initial");
+    label.setId("label");
+    listView = new ListView<>(FXCollections.observableArrayList());
+    listView.setId("listView");
+    root = new VBox(label, listView);
+    FX.show(root);
+  }
+
+  /**
+   * Later on the JavaFX application thread, i.e., asynchronously.
+   */
+  private static void later(Runnable runnable) {
+    CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(() -> Platform.runLater(runnable));
+  }
+
+  /**
+   * Test of waitForText method, of class FX: returns as soon as the text has
+   * been changed, and removes its listener.
+   */
+  @Test
+  public void testWaitForText() {
+    System.out.println("waitForText");
+    later(() -> label.setText("changed"));
+    long start = System.nanoTime();
+    FX.lookup("#label").waitForText("changed").hasText("changed");
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+  }
+
+  /**
+   * Test of waitForText method, of class FX: fails after the timeout.
+   */
+  @Test
+  public void testWaitForText_timeout() {
+    System.out.println("waitForText_timeout");
+    long waitTimeout = FXHelper.getWaitTimeout();
+    FXHelper.setWaitTimeout(200);
+    try {
+      AssertionError error = assertThrows(AssertionError.class, () -> FX.lookup("#label").waitForText("never"));
+      assertTrue(error.getMessage().startsWith("Timeout after 200 ms"), error.getMessage());
+    } finally {
+      FXHelper.setWaitTimeout(waitTimeout);
+    }
+  }
+
+  /**
+   * Test of waitForVisible method, of class FX.
+   */
+  @Test
+  public void testWaitForVisible() throws Exception {
+    System.out.println("waitForVisible");
+    FXHelper.runAndWait(() -> label.setVisible(false));
+    later(() -> label.setVisible(true));
+    FX.lookup("#label").waitForVisible().isVisible();
+  }
+
+  /**
+   * Test of waitForItems method, of class FX.
+   */
+  @Test
+  public void testWaitForItems() {
+    System.out.println("waitForItems");
+    later(() -> listView.getItems().addAll("a", "b"));
+    FX.lookup("#listView").waitForItems(2).hasItems(2);
+    later(() -> listView.setItems(FXCollections.observableArrayList("c")));
+    FX.lookup("#listView").waitForItems(1).hasItems(1);
+  }
+
+  /**
+   * Test of waitForNode method, of class FX.
+   */
+  @Test
+  public void testWaitForNode() {
+    System.out.println("waitForNode");
+    later(() -> {
+      Label added = new Label("added");
+      added.setId("added");
+      root.getChildren().add(added);
+    });
+    FX.waitForNode("#added").hasText("added");
+  }
+
+  /**
+   * Test of waitUntil method, of class FX.
+   */
+  @Test
+  public void testWaitUntil() {
+    System.out.println("waitUntil");
+    later(() -> label.setMaxWidth(42));
+    FX.lookup("#label").waitUntil(node -> ((Label) node).getMaxWidth() == 42, Duration.seconds(5));
+  }
+
+  /**
+   * Test of waitUntil method, of class FX: a condition that changes without a
+   * pulse is re-evaluated periodically.
+   */
+  @Test
+  public void testWaitUntil_withoutPulse() {
+    System.out.println("waitUntil_withoutPulse");
+    AtomicBoolean ready = new AtomicBoolean();
+    CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(() -> ready.set(true));
+    long start = System.nanoTime();
+    FX.lookup("#label").waitUntil(node -> ready.get(), Duration.seconds(5));
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+  }
+
+  /**
+   * Test of until method, of class FXWait: the listeners are removed after the
+   * wait.
+   */
+  @Test
+  public void testUntil_removesListeners() throws Exception {
+    System.out.println("until_removesListeners");
+    SimpleStringProperty property = new SimpleStringProperty("a");
+    int[] evaluations = new int[1];
+    later(() -> property.set("b"));
+    FXWait.until("property is b", () -> {
+      evaluations[0]++;
+      return "b".equals(property.get());
+    }, null, Duration.seconds(5), property);
+    FXHelper.waitForIdle(null);
+    int count = evaluations[0];
+    FXHelper.runAndWait(() -> property.set("c"));
+    assertEquals(count, evaluations[0]);
+  }
+}
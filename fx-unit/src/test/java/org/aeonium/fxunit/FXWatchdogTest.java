@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link FXWatchdog} class.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXWatchdogTest {
+
+  public FXWatchdogTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+    FXUnit.init();
+  }
+
+  /**
+   * Blocks the JavaFX application thread.
+   */
+  private static void blockFXThread(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Test of getStalls method, of class FXWatchdog: a blocking task on the
+   * JavaFX application thread is recorded with its stack trace.
+   */
+  @Test
+  public void testGetStalls() throws ExecutionException {
+    System.out.println("getStalls");
+    assertTrue(FXWatchdog.isRunning());
+    FXWatchdog.clear();
+    FXHelper.runAndWait(() -> blockFXThread(300));
+    FXHelper.waitForIdle(null);
+    FXHelper.sleep(2 * FXWatchdog.getInterval());
+
+    List<FXWatchdog.Stall> stalls = FXWatchdog.getStalls();
+    assertFalse(stalls.isEmpty());
+    FXWatchdog.Stall stall = stalls.get(0);
+    assertTrue(stall.getDuration() >= 200, stall.toString());
+    assertTrue(Arrays.stream(stall.getStackTrace()).anyMatch(e -> e.getMethodName().equals("blockFXThread")), stall.format());
+  }
+
+  /**
+   * Test of pause method, of class FXWatchdog: no heartbeats are posted while
+   * paused, e.g., during measurements, hence no stalls are recorded.
+   */
+  @Test
+  public void testPause() throws ExecutionException {
+    System.out.println("pause");
+    FXWatchdog.pause();
+    try {
+      FXHelper.waitForIdle(null);
+      FXWatchdog.clear();
+      FXHelper.runAndWait(() -> blockFXThread(300));
+      FXHelper.sleep(2 * FXWatchdog.getInterval());
+      assertTrue(FXWatchdog.getStalls().isEmpty(), FXWatchdog.getStalls().toString());
+    } finally {
+      FXWatchdog.resume();
+    }
+    assertTrue(FXWatchdog.isRunning());
+  }
+
+  /**
+   * Test of setMaxStalls method, of class FXWatchdog: the oldest stalls are
+   * dropped beyond the maximum.
+   */
+  @Test
+  public void testSetMaxStalls() {
+    System.out.println("setMaxStalls");
+    int maxStalls = FXWatchdog.getMaxStalls();
+    FXWatchdog.clear();
+    try {
+      FXWatchdog.setMaxStalls(2);
+      Instant start = Instant.now();
+      for (int i = 0; i < 3; i++) {
+        FXWatchdog.record(new FXWatchdog.Stall(start.plusMillis(i), i, new StackTraceElement[0]));
+      }
+      List<FXWatchdog.Stall> stalls = FXWatchdog.getStalls();
+      assertEquals(2, stalls.size());
+      assertEquals(1, stalls.get(0).getDuration());
+      assertEquals(2, stalls.get(1).getDuration());
+    } finally {
+      FXWatchdog.setMaxStalls(maxStalls);
+      FXWatchdog.clear();
+    }
+  }
+
+  /**
+   * Test of assertNoStallsOver method, of class AssertFX.
+   */
+  @Test
+  public void testAssertNoStallsOver() throws ExecutionException {
+    System.out.println("assertNoStallsOver");
+    FXWatchdog.clear();
+    FXHelper.runAndWait(() -> blockFXThread(300));
+    FXHelper.waitForIdle(null);
+    FXHelper.sleep(2 * FXWatchdog.getInterval());
+
+    AssertFX.assertNoStallsOver(5000);
+    AssertionError error = assertThrows(AssertionError.class, () -> AssertFX.assertNoStallsOver(100));
+    assertTrue(error.getMessage().contains("blockFXThread"), error.getMessage());
+  }
+
+  /**
+   * Test of assertNoStallsOver method, of class AssertFX: a maximum below the
+   * threshold of the watchdog cannot be checked.
+   */
+  @Test
+  public void testAssertNoStallsOver_belowThreshold() {
+    System.out.println("assertNoStallsOver_belowThreshold");
+    assertThrows(IllegalArgumentException.class, () -> AssertFX.assertNoStallsOver(FXWatchdog.getThreshold() - 1));
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import org.aeonium.fxunit.AssertFX;
+import org.aeonium.fxunit.FX;
+import org.aeonium.fxunit.FXCollection;
+import org.aeonium.fxunit.FXHelper;
+import org.aeonium.fxunit.FXUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the assertions that are called most in UI tests:
+ * {@link FXCollection#hasChildren(int)}, and the
+ * {@link AssertFX#assertText(javafx.scene.control.Labeled, java.lang.String) assertText}
+ * and {@link AssertFX#assertHasItems(javafx.scene.control.ListView, int) assertHasItems}
+ * families. Run it with the benchmark profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssertBenchmark {
+
+  private static final int ITEMS = 100;
+
+  private FXCollection panes;
+  private Label label;
+  private TextField textField;
+  private ChoiceBox<String> choiceBox;
+  private ComboBox<String> comboBox;
+  private ListView<String> listView;
+  private TableView<String> tableView;
+
+  @Setup
+  public void setUp() throws ExecutionException {
+    FXUnit.init();
+    FXHelper.runAndWait(() -> {
+      final ObservableList<String> items = FXCollections.observableArrayList();
+      for (int i = 0; i < ITEMS; i++) {
+        items.add("item " + i);
+      }
+      final VBox root = new VBox();
+      for (int i = 0; i < 10; i++) {
+        root.getChildren().add(new Pane(new Pane(), new Pane()));
+      }
+      panes = new FX(root).children();
+      label = new Label("label");
+      textField = new TextField("text");
+      choiceBox = new ChoiceBox<>(items);
+      comboBox = new ComboBox<>(items);
+      listView = new ListView<>(items);
+      tableView = new TableView<>(items);
+    });
+  }
+
+  @Benchmark
+  public FXCollection hasChildren() {
+    return panes.hasChildren(2);
+  }
+
+  @Benchmark
+  public void assertText_Labeled() {
+    AssertFX.assertText(label, "label");
+  }
+
+  @Benchmark
+  public void assertText_TextInputControl() {
+    AssertFX.assertText(textField, "text");
+  }
+
+  @Benchmark
+  public void assertHasItems_ChoiceBox() {
+    AssertFX.assertHasItems(choiceBox, ITEMS);
+  }
+
+  @Benchmark
+  public void assertHasItems_ComboBox() {
+    AssertFX.assertHasItems(comboBox, ITEMS);
+  }
+
+  @Benchmark
+  public void assertHasItems_ListView() {
+    AssertFX.assertHasItems(listView, ITEMS);
+  }
+
+  @Benchmark
+  public void assertHasItems_TableView() {
+    AssertFX.assertHasItems(tableView, ITEMS);
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import org.aeonium.fxunit.FX;
+import org.aeonium.fxunit.FXBatch;
+import org.aeonium.fxunit.FXUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares a scripted flow executed step by step, with one JavaFX thread
+ * handoff per step, to the same flow executed as one {@link FXBatch}. The
+ * script fires ten buttons in turn and asserts the text of a label after each
+ * tenth step. The results are per step. Run it with the benchmark profile, see
+ * {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+  private static final int BUTTONS = 10;
+  private static final int STEPS = 100;
+
+  private final AtomicInteger counter = new AtomicInteger();
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+    FXUnit.show(createUI());
+  }
+
+  @TearDown
+  public void tearDown() {
+    FXUnit.closeStage();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public void stepByStep() {
+    counter.set(0);
+    for (int i = 1; i <= STEPS; i++) {
+      FX.lookup("#b" + (i % BUTTONS)).fire();
+      if (i % BUTTONS == 0) {
+        FX.lookup("#result").hasText(Integer.toString(i));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public void batched() {
+    counter.set(0);
+    FX.batch(b -> {
+      for (int i = 1; i <= STEPS; i++) {
+        b.find("#b" + (i % BUTTONS)).fire();
+        if (i % BUTTONS == 0) {
+          b.find("#result").hasText(Integer.toString(i));
+        }
+      }
+    });
+  }
+
+  private VBox createUI() {
+    final Label result = new Label();
+    result.setId("result");
+    final VBox root = new VBox(result);
+    for (int i = 0; i < BUTTONS; i++) {
+      final Button button = new Button("Button " + i);
+      button.setId("b" + i);
+      button.setOnAction(e -> result.setText(Integer.toString(counter.incrementAndGet())));
+      root.getChildren().add(button);
+    }
+    return root;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import org.aeonium.fxunit.FX;
+import org.aeonium.fxunit.FXUnit;
+import org.aeonium.fxunit.FXUnitContext;
+import org.aeonium.fxunit.testUI.FXMLController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of small FXML tests, each with its own
+ * {@link FXUnitContext}, run by one thread and by as many threads as there are
+ * processors. Each test shows the test FXML on its own stage, looks up a node
+ * and closes the stage, i.e., it does what a test class running with the
+ * {@link org.aeonium.fxunit.FXUnitExtension} does. Run it with the benchmark
+ * profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBenchmark {
+
+  private static final URL FXML = FXMLController.class.getResource("FXML.fxml");
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void serial() {
+    smallTest();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void concurrent() {
+    smallTest();
+  }
+
+  private static void smallTest() {
+    final FXUnitContext context = new FXUnitContext();
+    context.show(FXML);
+    FX.lookup(context.getStage(), "#AnchorPane").isVisible();
+    context.closeStage();
+  }
+}
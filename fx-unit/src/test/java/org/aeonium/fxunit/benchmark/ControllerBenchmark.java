@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import javafx.fxml.FXML;
+import javafx.scene.layout.Pane;
+import org.aeonium.fxunit.FXControllers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares creating a controller and injecting its 60 <code>@FXML</code>
+ * fields with plain reflection, like the FXMLLoader does per load, and with the
+ * cached constructor and setters of the {@link FXControllers}. Run it with the
+ * benchmark profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+
+  private String[] names;
+  private Object[] values;
+
+  @Setup
+  public void setUp() {
+    names = new String[LargeController.FIELDS];
+    values = new Object[LargeController.FIELDS];
+    for (int i = 0; i < LargeController.FIELDS; i++) {
+      names[i] = "pane" + i;
+      values[i] = new Pane();
+    }
+  }
+
+  @Benchmark
+  public Object reflective() throws ReflectiveOperationException {
+    final LargeController controller = LargeController.class.getDeclaredConstructor().newInstance();
+    int i = 0;
+    for (Field field : LargeController.class.getDeclaredFields()) {
+      if (field.isAnnotationPresent(FXML.class)) {
+        field.setAccessible(true);
+        field.set(controller, values[i++]);
+      }
+    }
+    return controller;
+  }
+
+  @Benchmark
+  public Object cached() {
+    final LargeController controller = FXControllers.create(LargeController.class);
+    for (int i = 0; i < names.length; i++) {
+      FXControllers.inject(controller, names[i], values[i]);
+    }
+    return controller;
+  }
+}
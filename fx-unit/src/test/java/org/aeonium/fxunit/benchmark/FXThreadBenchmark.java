@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.aeonium.fxunit.FXHelper;
+import org.aeonium.fxunit.FXUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the hop to the JavaFX application thread: the round trip of
+ * {@link FXHelper#runAndWait(java.lang.Runnable)}, and the cost of
+ * {@link FXHelper#invokeOnFXThread(java.lang.Runnable)} per task, for batches
+ * of tasks that are drained by a final round trip. Run it with the benchmark
+ * profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FXThreadBenchmark {
+
+  private static final int BATCH = 100;
+  private static final Runnable NO_OP = () -> {
+  };
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+  }
+
+  @Benchmark
+  public void runAndWait() throws ExecutionException {
+    FXHelper.runAndWait(NO_OP);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void invokeOnFXThread() throws ExecutionException {
+    for (int i = 0; i < BATCH; i++) {
+      FXHelper.invokeOnFXThread(NO_OP);
+    }
+    FXHelper.runAndWait(NO_OP);
+  }
+}
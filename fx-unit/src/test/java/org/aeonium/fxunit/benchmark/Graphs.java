@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+
+/**
+ * Generated scene graphs for the benchmarks.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+final class Graphs {
+
+  private static final int BRANCHING = 10;
+
+  private Graphs() {
+    // no op
+  }
+
+  /**
+   * Creates a tree of the given number of nodes with IDs n0 ... n(size - 1),
+   * of which every 100th has the style class <code>target</code>.
+   */
+  static VBox createTree(int size) {
+    final List<Node> nodes = new ArrayList<>(size);
+    final VBox root = new VBox();
+    root.setId("n0");
+    nodes.add(root);
+    for (int i = 1; i < size; i++) {
+      final Pane node = (i % BRANCHING == 1) ? new VBox() : new Pane();
+      node.setId("n" + i);
+      if (i % 100 == 0) {
+        node.getStyleClass().add("target");
+      }
+      nodes.add(node);
+    }
+    int parent = 0;
+    for (int i = 1; i < size; i++) {
+      while (!(nodes.get(parent) instanceof VBox) || ((VBox) nodes.get(parent)).getChildren().size() >= BRANCHING) {
+        parent++;
+      }
+      ((VBox) nodes.get(parent)).getChildren().add(nodes.get(i));
+    }
+    return root;
+  }
+}
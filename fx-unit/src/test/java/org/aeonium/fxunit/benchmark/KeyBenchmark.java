@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import org.aeonium.fxunit.FXHelper;
+import org.aeonium.fxunit.FXUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FXHelper#getKeycode(java.lang.Character)} and
+ * {@link FXHelper#typeKey(javafx.scene.Node, java.lang.String)} of a short and
+ * a long text into a text field, per character and in bulk. Run it with the
+ * benchmark profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyBenchmark {
+
+  private static final String TEXT = "The quick brown fox, 42!";
+
+  private int next;
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+  }
+
+  /**
+   * The text field to type into, for texts of the given length.
+   */
+  @State(Scope.Benchmark)
+  public static class Typing {
+
+    @Param({"true", "false"})
+    private boolean bulk;
+
+    @Param({"24", "2048"})
+    private int length;
+
+    private TextField textField;
+    private String text;
+
+    @Setup
+    public void setUp() throws ExecutionException {
+      FXUnit.init();
+      FXHelper.setBulkTyping(bulk);
+      text = TEXT.repeat(length / TEXT.length() + 1).substring(0, length);
+      FXHelper.runAndWait(() -> textField = new TextField());
+      FXUnit.show(textField);
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() throws ExecutionException {
+      FXHelper.runAndWait(textField::clear);
+    }
+
+    @TearDown
+    public void tearDown() {
+      FXUnit.closeStage();
+      FXHelper.setBulkTyping(true);
+    }
+  }
+
+  @Benchmark
+  public KeyCode getKeycode() {
+    next = (next + 1) % TEXT.length();
+    return FXHelper.getKeycode(TEXT.charAt(next));
+  }
+
+  @Benchmark
+  public void typeKey(Typing typing) {
+    FXHelper.typeKey(typing.textField, typing.text);
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import javafx.fxml.FXML;
+import javafx.scene.layout.Pane;
+
+/**
+ * Controller with 60 private <code>@FXML</code> fields for the
+ * {@link ControllerBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class LargeController {
+
+  /**
+   * Number of injectable fields.
+   */
+  public static final int FIELDS = 60;
+
+  @FXML
+  private Pane pane0;
+
+  @FXML
+  private Pane pane1;
+
+  @FXML
+  private Pane pane2;
+
+  @FXML
+  private Pane pane3;
+
+  @FXML
+  private Pane pane4;
+
+  @FXML
+  private Pane pane5;
+
+  @FXML
+  private Pane pane6;
+
+  @FXML
+  private Pane pane7;
+
+  @FXML
+  private Pane pane8;
+
+  @FXML
+  private Pane pane9;
+
+  @FXML
+  private Pane pane10;
+
+  @FXML
+  private Pane pane11;
+
+  @FXML
+  private Pane pane12;
+
+  @FXML
+  private Pane pane13;
+
+  @FXML
+  private Pane pane14;
+
+  @FXML
+  private Pane pane15;
+
+  @FXML
+  private Pane pane16;
+
+  @FXML
+  private Pane pane17;
+
+  @FXML
+  private Pane pane18;
+
+  @FXML
+  private Pane pane19;
+
+  @FXML
+  private Pane pane20;
+
+  @FXML
+  private Pane pane21;
+
+  @FXML
+  private Pane pane22;
+
+  @FXML
+  private Pane pane23;
+
+  @FXML
+  private Pane pane24;
+
+  @FXML
+  private Pane pane25;
+
+  @FXML
+  private Pane pane26;
+
+  @FXML
+  private Pane pane27;
+
+  @FXML
+  private Pane pane28;
+
+  @FXML
+  private Pane pane29;
+
+  @FXML
+  private Pane pane30;
+
+  @FXML
+  private Pane pane31;
+
+  @FXML
+  private Pane pane32;
+
+  @FXML
+  private Pane pane33;
+
+  @FXML
+  private Pane pane34;
+
+  @FXML
+  private Pane pane35;
+
+  @FXML
+  private Pane pane36;
+
+  @FXML
+  private Pane pane37;
+
+  @FXML
+  private Pane pane38;
+
+  @FXML
+  private Pane pane39;
+
+  @FXML
+  private Pane pane40;
+
+  @FXML
+  private Pane pane41;
+
+  @FXML
+  private Pane pane42;
+
+  @FXML
+  private Pane pane43;
+
+  @FXML
+  private Pane pane44;
+
+  @FXML
+  private Pane pane45;
+
+  @FXML
+  private Pane pane46;
+
+  @FXML
+  private Pane pane47;
+
+  @FXML
+  private Pane pane48;
+
+  @FXML
+  private Pane pane49;
+
+  @FXML
+  private Pane pane50;
+
+  @FXML
+  private Pane pane51;
+
+  @FXML
+  private Pane pane52;
+
+  @FXML
+  private Pane pane53;
+
+  @FXML
+  private Pane pane54;
+
+  @FXML
+  private Pane pane55;
+
+  @FXML
+  private Pane pane56;
+
+  @FXML
+  private Pane pane57;
+
+  @FXML
+  private Pane pane58;
+
+  @FXML
+  private Pane pane59;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import javafx.scene.Parent;
+import org.aeonium.fxunit.FXMLFactories;
+import org.aeonium.fxunit.FXMLTemplateCache;
+import org.aeonium.fxunit.FXUnit;
+import org.aeonium.fxunit.testUI.FXMLController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FXUnit#load(java.net.URL)} of the test FXML, including the
+ * controller: with the FXMLLoader, with the FXMLLoader and the
+ * {@link FXMLTemplateCache}, and with the generated
+ * {@link org.aeonium.fxunit.FXMLFactory}. The benchmark profile generates the
+ * factories before it runs the benchmarks, see {@link LookupBenchmark}. Add
+ * <code>-prof gc</code> to the JMH arguments for the allocations per load.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+
+  @Param({"loader", "cached", "factory"})
+  private String mode;
+
+  private URL url;
+  private int capacity;
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+    url = FXMLController.class.getResource("FXML.fxml");
+    capacity = FXMLTemplateCache.getCapacity();
+    FXMLFactories.setEnabled("factory".equals(mode));
+    FXMLTemplateCache.setCapacity("loader".equals(mode) ? 0 : capacity);
+    if (FXMLFactories.isEnabled() && FXMLFactories.getFactory(url) == null) {
+      throw new IllegalStateException("No generated factory found, please run: mvn -Pfxml-codegen process-test-classes");
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    FXMLFactories.setEnabled(true);
+    FXMLTemplateCache.setCapacity(capacity);
+  }
+
+  @Benchmark
+  public Parent load() {
+    FXUnit.load(url);
+    return FXUnit.getRoot();
+  }
+}
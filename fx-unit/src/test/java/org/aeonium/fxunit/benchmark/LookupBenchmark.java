@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.aeonium.fxunit.FX;
+import org.aeonium.fxunit.FXNodeIndex;
+import org.aeonium.fxunit.FXUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link FX#lookup(java.lang.String)} by ID of random nodes of
+ * generated scene graphs of 1k, 10k and 100k nodes, with and without the
+ * {@link FXNodeIndex}.
+ * The JMH benchmarks run headless with the benchmark profile, which writes the
+ * results to <code>target/jmh-result.json</code>:
+ * <pre>
+ * mvn test -Pbenchmark
+ * mvn test -Pbenchmark -Djmh.includes=LookupBenchmark
+ * </pre>
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+  private static final int IDS = 500;
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  @Param({"true", "false"})
+  private boolean index;
+
+  private String[] ids;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+    FXNodeIndex.setEnabled(index);
+    final Random random = new Random(size);
+    ids = new String[IDS];
+    for (int i = 0; i < IDS; i++) {
+      ids[i] = "#n" + random.nextInt(size);
+    }
+    FXUnit.show(Graphs.createTree(size));
+  }
+
+  @TearDown
+  public void tearDown() {
+    FXUnit.closeStage();
+    FXNodeIndex.setEnabled(true);
+  }
+
+  @Benchmark
+  public FX lookup() {
+    next = (next + 1) % IDS;
+    return FX.lookup(ids[next]);
+  }
+}
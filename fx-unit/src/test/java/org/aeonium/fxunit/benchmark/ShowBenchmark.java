@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.benchmark;
+
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import org.aeonium.fxunit.FXUnit;
+import org.aeonium.fxunit.FXUnitContext;
+import org.aeonium.fxunit.testUI.FXMLController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-test overhead of {@link FXUnit#show(java.net.URL)} and
+ * {@link FXUnit#closeStage()} of the test FXML, with the FXML UI loaded on the
+ * JavaFX thread (the former behavior) and on the calling thread. Run it with
+ * the benchmark profile, see {@link LookupBenchmark}.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowBenchmark {
+
+  @Param({"true", "false"})
+  private boolean loadOnFXThread;
+
+  private URL url;
+
+  @Setup
+  public void setUp() {
+    FXUnit.init();
+    FXUnitContext.setLoadOnFXThread(loadOnFXThread);
+    url = FXMLController.class.getResource("FXML.fxml");
+  }
+
+  @TearDown
+  public void tearDown() {
+    FXUnitContext.setLoadOnFXThread(false);
+  }
+
+  @Benchmark
+  public void showAndClose() {
+    FXUnit.show(url);
+    FXUnit.closeStage();
+  }
+}
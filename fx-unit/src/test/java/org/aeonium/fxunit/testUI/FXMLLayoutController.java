@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024 Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA 02110-1301  USA
+ */
+package org.aeonium.fxunit.testUI;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import javafx.fxml.FXML;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+
+/**
+ * FXML Controller class of FXML_layout.fxml, with public, package private and
+ * private fields, and the location and resources injected by name.
+ *
+ * @author Robert Rohm&lt;r.rohm@aeonium-systems.de&gt;
+ */
+public class FXMLLayoutController {
+
+  @FXML
+  public HBox header;
+
+  @FXML
+  Region spacer;
+
+  @FXML
+  Rectangle logo;
+
+  @FXML
+  private VBox content;
+
+  @FXML
+  private Pane canvas;
+
+  @FXML
+  private Circle dot;
+
+  @FXML
+  private AnchorPane footer;
+
+  @FXML
+  private URL location;
+
+  @FXML
+  ResourceBundle resources;
+
+  private boolean initialized;
+
+  @FXML
+  void initialize() {
+    initialized = true;
+  }
+
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  public URL getLocation() {
+    return location;
+  }
+
+  public ResourceBundle getResources() {
+    return resources;
+  }
+}